@@ -0,0 +1,108 @@
+package org.udsm.udsm_hackathon2026.config;
+import org.udsm.udsm_hackathon2026.repository.AuthorRepository;
+import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every native @Query of MetricRepository and AuthorRepository, referenced by its SQL constant,
+ * with the indexes (from db/migration) it is expected to use. Shared by the startup index check
+ * and the query benchmark; the index check warns about repository queries missing here.
+ * JPQL queries are not EXPLAINed (Hibernate generates their SQL) and are listed in JPQL_SKIPPED.
+ */
+public final class AnalyticsAccessPaths {
+
+    // Named parameters used by the repository queries
+    public static final String SUBMISSION_ID = "submissionId";
+    public static final String SUBMISSION_IDS = "submissionIds";
+    public static final String ASSOC_TYPE = "assocType";
+    public static final String EMAIL = "email";
+    public static final String FROM_DAY = "fromDay";
+    public static final String TO_DAY = "toDay";
+    public static final String FROM_MONTH = "fromMonth";
+    public static final String TO_MONTH = "toMonth";
+    public static final String LIMIT = "limit";
+
+    private static final String TYPE_MONTH = "idx_app_metrics_type_month";
+    private static final String TYPE_COUNTRY = "idx_app_metrics_type_country";
+    private static final String TYPE_DAY = "idx_app_metrics_type_day";
+    private static final String SUB_TYPE_MONTH = "idx_app_metrics_sub_type_month";
+    private static final String SUB_TYPE_GEO = "idx_app_metrics_sub_type_geo";
+    private static final String AUTHORS_EMAIL = "idx_app_authors_email_pub";
+    private static final String SUBMISSIONS_CUR_PUB = "idx_app_submissions_cur_pub";
+
+    /**
+     * @param expected table alias -> indexes acceptable for it; empty when no idx_app_ index
+     *                 applies and the path is only benchmarked
+     */
+    public record AccessPath(String name, String sql, Map<String, Set<String>> expected) {}
+
+    /** Any assoc_type-leading index covers a SUM(metric) over one type */
+    private static final Map<String, Set<String>> BY_TYPE = Map.of("m", Set.of(TYPE_MONTH, TYPE_COUNTRY, TYPE_DAY));
+    /** Whole-table aggregates per article; read from the rollup or cube once those are ready */
+    private static final Map<String, Set<String>> BY_TYPE_PER_ARTICLE = Map.of("m", Set.of(TYPE_DAY, SUB_TYPE_MONTH, SUB_TYPE_GEO));
+    private static final Map<String, Set<String>> ONE_ARTICLE = Map.of("m", Set.of(SUB_TYPE_MONTH, SUB_TYPE_GEO));
+    private static final Map<String, Set<String>> BY_EMAIL = Map.of("a", Set.of(AUTHORS_EMAIL), "s", Set.of(SUBMISSIONS_CUR_PUB));
+
+    public static final List<AccessPath> PATHS = List.of(
+            // MetricRepository
+            new AccessPath("sumTotalDownloads", MetricRepository.SUM_TOTAL_DOWNLOADS, BY_TYPE),
+            new AccessPath("sumTotalReaders", MetricRepository.SUM_TOTAL_READERS, BY_TYPE),
+            new AccessPath("findDistinctCountries", MetricRepository.FIND_DISTINCT_COUNTRIES, Map.of("m", Set.of(TYPE_COUNTRY))),
+            new AccessPath("getHomeBundleAggregates", MetricRepository.GET_HOME_BUNDLE_AGGREGATES, BY_TYPE),
+            new AccessPath("findTopReadershipCountries", MetricRepository.FIND_TOP_READERSHIP_COUNTRIES, Map.of("m", Set.of(TYPE_COUNTRY))),
+            new AccessPath("findTopDownloadCountries", MetricRepository.FIND_TOP_DOWNLOAD_COUNTRIES, Map.of("m", Set.of(TYPE_COUNTRY))),
+            new AccessPath("findTopReadArticles", MetricRepository.FIND_TOP_READ_ARTICLES, BY_TYPE_PER_ARTICLE),
+            new AccessPath("findTopDownloadedArticles", MetricRepository.FIND_TOP_DOWNLOADED_ARTICLES, BY_TYPE_PER_ARTICLE),
+            new AccessPath("aggregateByCountryAndDateRange", MetricRepository.AGGREGATE_BY_COUNTRY_AND_DATE_RANGE, Map.of("m", Set.of(TYPE_DAY))),
+            new AccessPath("getTotalDownloadsByArticle", MetricRepository.GET_TOTAL_DOWNLOADS_BY_ARTICLE, ONE_ARTICLE),
+            new AccessPath("getTotalReadsByArticle", MetricRepository.GET_TOTAL_READS_BY_ARTICLE, ONE_ARTICLE),
+            new AccessPath("getTotalReadersByArticle", MetricRepository.GET_TOTAL_READERS_BY_ARTICLE, ONE_ARTICLE),
+            new AccessPath("getGeographicalReadsByArticle", MetricRepository.GET_GEOGRAPHICAL_READS_BY_ARTICLE, Map.of("m", Set.of(SUB_TYPE_GEO))),
+            new AccessPath("getGeographicalDownloadsByArticle", MetricRepository.GET_GEOGRAPHICAL_DOWNLOADS_BY_ARTICLE, Map.of("m", Set.of(SUB_TYPE_GEO))),
+            new AccessPath("getGeographicalDistributionByArticles", MetricRepository.GET_GEOGRAPHICAL_DISTRIBUTION_BY_ARTICLES, Map.of("m", Set.of(SUB_TYPE_GEO))),
+            new AccessPath("getMonthlySeries", MetricRepository.GET_MONTHLY_SERIES, Map.of("m", Set.of(TYPE_MONTH))),
+            new AccessPath("getMonthlySeriesByArticle", MetricRepository.GET_MONTHLY_SERIES_BY_ARTICLE, Map.of("m", Set.of(SUB_TYPE_MONTH))),
+            new AccessPath("findFirstMonth", MetricRepository.FIND_FIRST_MONTH, Map.of("m", Set.of(TYPE_MONTH))),
+            new AccessPath("findFirstMonthByArticle", MetricRepository.FIND_FIRST_MONTH_BY_ARTICLE, Map.of("m", Set.of(SUB_TYPE_MONTH))),
+            // AuthorRepository
+            new AccessPath("calculateAverageReviewDays", AuthorRepository.CALCULATE_AVERAGE_REVIEW_DAYS, BY_EMAIL),
+            new AccessPath("findFastestReviewDays", AuthorRepository.FIND_FASTEST_REVIEW_DAYS, BY_EMAIL),
+            new AccessPath("findLongestReviewDays", AuthorRepository.FIND_LONGEST_REVIEW_DAYS, BY_EMAIL),
+            new AccessPath("findCurrentInReview", AuthorRepository.FIND_CURRENT_IN_REVIEW, BY_EMAIL),
+            new AccessPath("countArticlesThisYear", AuthorRepository.COUNT_ARTICLES_THIS_YEAR, BY_EMAIL),
+            new AccessPath("countArticlesThisMonth", AuthorRepository.COUNT_ARTICLES_THIS_MONTH, BY_EMAIL),
+            new AccessPath("findYearlyBreakdown", AuthorRepository.FIND_YEARLY_BREAKDOWN, BY_EMAIL),
+            new AccessPath("calculateAllAuthorsScores", AuthorRepository.CALCULATE_ALL_AUTHORS_SCORES,
+                    Map.of("s", Set.of(SUBMISSIONS_CUR_PUB))),
+            new AccessPath("findSubmissionTimeline", AuthorRepository.FIND_SUBMISSION_TIMELINE, BY_EMAIL),
+            new AccessPath("findAverageDaysPerStage", AuthorRepository.FIND_AVERAGE_DAYS_PER_STAGE, Map.of())
+    );
+
+    /**
+     * JPQL query methods of AuthorRepository, skipped by the index check and the benchmark.
+     * They join authors and submissions by email like the native BY_EMAIL paths above.
+     */
+    public static final Set<String> JPQL_SKIPPED = Set.of(
+            "findSubmissionIdsByEmail",
+            "countTotalSubmissionsByEmail",
+            "countPublishedByEmail",
+            "countUnderReviewByEmail",
+            "countDeclinedByEmail",
+            "countTotalAuthors"
+    );
+
+    /** Repositories whose @Query methods must all appear in PATHS or JPQL_SKIPPED */
+    public static final List<Class<?>> REPOSITORIES = List.of(MetricRepository.class, AuthorRepository.class);
+
+    /** Every index the migrations create, by table */
+    public static final Map<String, Set<String>> INDEXES = Map.of(
+            "metrics", Set.of(TYPE_MONTH, TYPE_COUNTRY, TYPE_DAY, SUB_TYPE_MONTH, SUB_TYPE_GEO),
+            "authors", Set.of(AUTHORS_EMAIL),
+            "submissions", Set.of(SUBMISSIONS_CUR_PUB)
+    );
+
+    private AnalyticsAccessPaths() {
+    }
+}
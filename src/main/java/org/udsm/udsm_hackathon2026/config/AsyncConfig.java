@@ -1,10 +1,109 @@
 package org.udsm.udsm_hackathon2026.config;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Separate scheduler pools so a long job (citation refresh sleeps 1 s per DOI) cannot
+ * hold up the realtime broadcasts. Every @Scheduled method names its pool via
+ * {@code @Scheduled(scheduler = ...)}.
+ *
+ * With {@code spring.threads.virtual.enabled=true} (Java 21) Tomcat request handling,
+ * {@code @Async} and the service fan-out executor run on virtual threads. The fan-out and
+ * async executors keep a concurrency limit in both modes, sized to the JDBC pool, so a burst
+ * of branches waits here instead of piling up inside Hikari.
+ *
+ * Citation and maintenance scheduler threads use the BACKGROUND connection permits
+ * (see ConnectionBulkhead), so their jobs cannot crowd out request handling or ingestion.
+ */
 @Configuration
 @EnableAsync
 @EnableScheduling
 public class AsyncConfig {
+
+    public static final String REALTIME_SCHEDULER = "realtimeScheduler";
+    public static final String CITATION_SCHEDULER = "citationScheduler";
+    public static final String MAINTENANCE_SCHEDULER = "maintenanceScheduler";
+    public static final String FAN_OUT_EXECUTOR = "fanOutExecutor";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /** Default executor for @Async methods */
+    @Bean("taskExecutor")
+    public AsyncTaskExecutor taskExecutor(@Value("${app.async.max-concurrency:8}") int maxConcurrency) {
+        return executor("async-", maxConcurrency);
+    }
+
+    /** Parallel branches of composite service calls (dashboards, article metrics) */
+    @Bean(FAN_OUT_EXECUTOR)
+    public AsyncTaskExecutor fanOutExecutor(@Value("${app.fan-out.max-concurrency:10}") int maxConcurrency) {
+        return executor("fan-out-", maxConcurrency);
+    }
+
+    /** Writers of streamed responses (listings, exports); each holds a JDBC connection while it runs */
+    @Bean(STREAMING_EXECUTOR)
+    public AsyncTaskExecutor streamingExecutor(@Value("${app.streaming.max-concurrency:4}") int maxConcurrency) {
+        return executor("streaming-", maxConcurrency);
+    }
+
+    /** /topic/stats, SSE heartbeats and other short, frequent jobs */
+    @Bean(REALTIME_SCHEDULER)
+    public ThreadPoolTaskScheduler realtimeScheduler(@Value("${app.scheduler.realtime.pool-size:2}") int poolSize) {
+        return scheduler("realtime-", poolSize, ConnectionBulkhead.Workload.INTERACTIVE);
+    }
+
+    /** Crossref citation refresh and summaries */
+    @Bean(CITATION_SCHEDULER)
+    public ThreadPoolTaskScheduler citationScheduler(@Value("${app.scheduler.citation.pool-size:1}") int poolSize) {
+        return scheduler("citation-", poolSize, ConnectionBulkhead.Workload.BACKGROUND);
+    }
+
+    /** Re-syncs, backfills and other housekeeping */
+    @Bean(MAINTENANCE_SCHEDULER)
+    public ThreadPoolTaskScheduler maintenanceScheduler(@Value("${app.scheduler.maintenance.pool-size:2}") int poolSize) {
+        return scheduler("maintenance-", poolSize, ConnectionBulkhead.Workload.BACKGROUND);
+    }
+
+    private AsyncTaskExecutor executor(String threadNamePrefix, int maxConcurrency) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            // Submitters block once the limit is reached
+            executor.setConcurrencyLimit(maxConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(maxConcurrency * 50);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Every thread of the scheduler draws connections from {@code workload}'s bulkhead permits
+     */
+    private ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize, ConnectionBulkhead.Workload workload) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        CustomizableThreadFactory threads = new CustomizableThreadFactory(threadNamePrefix);
+        scheduler.setThreadFactory(task -> threads.newThread(() -> ConnectionBulkhead.run(workload, task)));
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
 }
@@ -0,0 +1,133 @@
+package org.udsm.udsm_hackathon2026.config;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-encodes outbound JSON frames as CBOR for sessions connected through the binary endpoint.
+ *
+ * Broadcast payloads are shared byte[] instances (see SerializedPayloadCache and the simple
+ * broker), so each payload is transcoded once and reused for every binary subscriber.
+ * Binary frames carry content-type application/octet-stream and the STOMP header
+ * {@code x-payload-format: cbor}.
+ */
+@Slf4j
+@Component
+public class BinaryFrameEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String PAYLOAD_FORMAT_HEADER = "x-payload-format";
+    public static final String CBOR = "cbor";
+
+    private static final String ENCODING_ATTRIBUTE = "payloadFormat";
+
+    private final ObjectMapper objectMapper;
+    private final CBORFactory cborFactory = new CBORFactory();
+    private final Set<String> binarySessions = ConcurrentHashMap.newKeySet();
+
+    /** JSON payload (by identity) -> CBOR payload */
+    private final Cache<byte[], byte[]> transcoded = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1_000)
+            .build();
+
+    public BinaryFrameEncodingInterceptor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Marks sessions opened through the binary endpoint
+     */
+    public HandshakeInterceptor binaryHandshakeInterceptor() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(ENCODING_ATTRIBUTE, CBOR);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    @EventListener
+    public void onSessionConnect(SessionConnectEvent event) {
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(event.getMessage().getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (attributes != null && sessionId != null && CBOR.equals(attributes.get(ENCODING_ATTRIBUTE))) {
+            binarySessions.add(sessionId);
+            log.debug("Session {} connected with CBOR payloads", sessionId);
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        binarySessions.remove(event.getSessionId());
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (binarySessions.isEmpty() || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || !binarySessions.contains(accessor.getSessionId())
+                || accessor.getContentType() == null
+                || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(accessor.getContentType())) {
+            return message;
+        }
+
+        byte[] cbor;
+        try {
+            cbor = transcoded.get(json, this::toCbor);
+        } catch (IllegalStateException e) {
+            log.warn("Sending JSON to session {}: {}", accessor.getSessionId(), e.getMessage());
+            return message;
+        }
+
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(PAYLOAD_FORMAT_HEADER, CBOR);
+        return MessageBuilder.createMessage(cbor, accessor.getMessageHeaders());
+    }
+
+    private byte[] toCbor(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (JsonParser parser = objectMapper.getFactory().createParser(json);
+             JsonGenerator generator = cborFactory.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to transcode JSON payload to CBOR", e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,198 @@
+package org.udsm.udsm_hackathon2026.config;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Caps the connections each workload class may hold at once, so a burst in one class cannot
+ * take the connections another one needs: ingestion writes keep their share while dashboards
+ * run slow queries or a background job works through a batch.
+ *
+ * The workload is a thread-local set with {@link #run} / {@link #call}; threads that never set
+ * one count as {@link Workload#INTERACTIVE}. A permit is taken when a connection is handed out
+ * and returned when it is closed. With permits adding up to the pool size, every class always
+ * has its own permits' worth of connections available.
+ *
+ * Metrics, tagged by workload: db.bulkhead.wait (time to get a permit), db.bulkhead.active,
+ * db.bulkhead.waiting, db.bulkhead.saturation (active / permits) and db.bulkhead.rejected.
+ */
+public class ConnectionBulkhead extends DelegatingDataSource {
+
+    public enum Workload {
+        /** Event persistence */
+        INGESTION,
+        /** Request handling: dashboards, listings, exports */
+        INTERACTIVE,
+        /** Scheduled jobs, backfills, cube loads, citation refreshes */
+        BACKGROUND
+    }
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private final Map<Workload, Compartment> compartments = new EnumMap<>(Workload.class);
+
+    public ConnectionBulkhead(DataSource target, Map<Workload, Integer> permits, Map<Workload, Long> acquireTimeoutsMs,
+                              MeterRegistry meterRegistry) {
+        super(target);
+        for (Workload workload : Workload.values()) {
+            compartments.put(workload, new Compartment(workload, permits.get(workload),
+                    acquireTimeoutsMs.get(workload), meterRegistry));
+        }
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.INTERACTIVE;
+    }
+
+    public static void run(Workload workload, Runnable task) {
+        call(workload, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T call(Workload workload, Supplier<T> task) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Compartment compartment = compartments.get(current());
+        compartment.acquire();
+        try {
+            return compartment.guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            compartment.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Compartment compartment = compartments.get(current());
+        compartment.acquire();
+        try {
+            return compartment.guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            compartment.release();
+            throw e;
+        }
+    }
+
+    private static final class Compartment {
+
+        private final Workload workload;
+        private final int permits;
+        private final long acquireTimeoutMs;
+        private final Semaphore semaphore;
+        private final Timer wait;
+        private final Counter rejected;
+
+        private Compartment(Workload workload, int permits, long acquireTimeoutMs, MeterRegistry meterRegistry) {
+            this.workload = workload;
+            this.permits = permits;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+            this.semaphore = new Semaphore(permits, true);
+            String tag = workload.name().toLowerCase();
+            this.wait = Timer.builder("db.bulkhead.wait")
+                    .description("Time spent waiting for a connection permit")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("db.bulkhead.rejected")
+                    .description("Connection requests that got no permit within the acquire timeout")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            Gauge.builder("db.bulkhead.active", semaphore, s -> permits - s.availablePermits())
+                    .description("Connections held")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            Gauge.builder("db.bulkhead.waiting", semaphore, Semaphore::getQueueLength)
+                    .description("Threads waiting for a permit")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            Gauge.builder("db.bulkhead.saturation", semaphore, s -> (permits - s.availablePermits()) / (double) permits)
+                    .description("Share of the permits in use")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+        }
+
+        private void acquire() throws SQLException {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a " + workload + " connection permit", e);
+            } finally {
+                wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                rejected.increment();
+                throw new SQLTransientConnectionException("No " + workload + " connection permit within "
+                        + acquireTimeoutMs + " ms (" + permits + " permits, all in use)");
+            }
+        }
+
+        private void release() {
+            semaphore.release();
+        }
+
+        /**
+         * Wrap the connection so closing it returns the permit, once
+         */
+        private Connection guard(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    release();
+                                }
+                            }
+                            return null;
+                        }
+                        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                            return System.identityHashCode(proxy);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
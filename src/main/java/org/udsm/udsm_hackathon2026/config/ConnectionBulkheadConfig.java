@@ -0,0 +1,52 @@
+package org.udsm.udsm_hackathon2026.config;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.udsm.udsm_hackathon2026.config.ConnectionBulkhead.Workload;
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Wraps the application DataSource (Boot's pool, or the replica router) in a ConnectionBulkhead
+ * sized from app.db.bulkhead.{ingestion,interactive,background}.*
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.db.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionBulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionBulkheadPostProcessor(Environment environment,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConnectionBulkhead) {
+                    return bean;
+                }
+                Map<Workload, Integer> permits = new EnumMap<>(Workload.class);
+                Map<Workload, Long> timeouts = new EnumMap<>(Workload.class);
+                for (Workload workload : Workload.values()) {
+                    String prefix = "app.db.bulkhead." + workload.name().toLowerCase();
+                    permits.put(workload, environment.getProperty(prefix + ".permits", Integer.class,
+                            switch (workload) {
+                                case INGESTION -> 3;
+                                case INTERACTIVE -> 7;
+                                case BACKGROUND -> 2;
+                            }));
+                    timeouts.put(workload, environment.getProperty(prefix + ".acquire-timeout-ms", Long.class,
+                            workload == Workload.BACKGROUND ? 300_000L : 5_000L));
+                }
+                log.info("Connection bulkhead permits {} (acquire timeouts {} ms)", permits, timeouts);
+                return new ConnectionBulkhead(dataSource, permits, timeouts, meterRegistry.getObject());
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package org.udsm.udsm_hackathon2026.config;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-session token bucket for inbound STOMP SEND frames to the request/response
+ * destinations (e.g. /app/geo/**). Frames over the limit are dropped before they
+ * reach a @MessageMapping handler.
+ */
+@Slf4j
+@Component
+public class InboundRateLimitInterceptor implements ChannelInterceptor {
+
+    private final List<String> limitedDestinations;
+    private final double capacity;
+    private final double refillPerNanosecond;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public InboundRateLimitInterceptor(
+            @Value("${app.websocket.rate-limit.destinations:/app/**}") List<String> limitedDestinations,
+            @Value("${app.websocket.rate-limit.capacity:10}") int capacity,
+            @Value("${app.websocket.rate-limit.refill-per-second:2}") double refillPerSecond,
+            MeterRegistry meterRegistry) {
+        this.limitedDestinations = limitedDestinations;
+        this.capacity = capacity;
+        this.refillPerNanosecond = refillPerSecond / 1_000_000_000d;
+        this.rejected = Counter.builder("websocket.inbound.rejected")
+                .description("Inbound STOMP frames dropped by the per-session rate limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE || accessor.getSessionId() == null
+                || !isLimited(accessor.getDestination())) {
+            return message;
+        }
+
+        TokenBucket bucket = buckets.computeIfAbsent(accessor.getSessionId(), id -> new TokenBucket());
+        if (bucket.tryConsume()) {
+            return message;
+        }
+
+        rejected.increment();
+        log.debug("Rate limit exceeded for session {} on {}", accessor.getSessionId(), accessor.getDestination());
+        return null;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        buckets.remove(event.getSessionId());
+    }
+
+    private boolean isLimited(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String pattern : limitedDestinations) {
+            if (pathMatcher.match(pattern, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class TokenBucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private double tokens = capacity;
+        private long lastRefill = System.nanoTime();
+
+        private boolean tryConsume() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNanosecond);
+                lastRefill = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.udsm.udsm_hackathon2026.config;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.udsm.udsm_hackathon2026.config.AnalyticsAccessPaths.AccessPath;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Warns at startup when an index from db/migration is missing, when EXPLAIN shows a
+ * repository query not using the index it was built for (e.g. after a schema change or
+ * a skipped migration), or when a repository query is not listed in AnalyticsAccessPaths.
+ * Runs on the maintenance scheduler so startup is not delayed.
+ */
+@Slf4j
+@Component
+public class IndexHealthCheck {
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TaskScheduler maintenanceScheduler;
+    private final boolean enabled;
+
+    public IndexHealthCheck(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedJdbcTemplate,
+                            @Qualifier(AsyncConfig.MAINTENANCE_SCHEDULER) TaskScheduler maintenanceScheduler,
+                            @Value("${app.db.index-check.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.maintenanceScheduler = maintenanceScheduler;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            maintenanceScheduler.schedule(this::check, Instant.now());
+        }
+    }
+
+    void check() {
+        try {
+            int missing = checkIndexesExist();
+            int unlisted = checkAllQueriesListed();
+            Map<String, Object> samples = sampleParams();
+            int misses = 0;
+            for (AccessPath path : AnalyticsAccessPaths.PATHS) {
+                List<Map<String, Object>> plan = explain(path, samples);
+                if (!usesExpectedIndexes(path, plan)) {
+                    misses++;
+                    log.warn("Query '{}' does not use its expected index {}; plan: {}",
+                            path.name(), path.expected(), describe(plan));
+                }
+            }
+            log.info("Index check: {} missing indexes, {} of {} access paths off their index, {} queries unchecked",
+                    missing, misses, AnalyticsAccessPaths.PATHS.size(), unlisted);
+        } catch (Exception e) {
+            log.warn("Index check could not run", e);
+        }
+    }
+
+    private int checkIndexesExist() {
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT CONCAT(TABLE_NAME, '.', INDEX_NAME) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND INDEX_NAME LIKE 'idx_app_%'",
+                String.class));
+
+        int missing = 0;
+        for (Map.Entry<String, Set<String>> table : AnalyticsAccessPaths.INDEXES.entrySet()) {
+            for (String index : table.getValue()) {
+                if (!present.contains(table.getKey() + "." + index)) {
+                    missing++;
+                    log.warn("Expected index {} on {} is missing; check the Flyway migration history",
+                            index, table.getKey());
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Queries declared on the repositories that have no access path and are not a skipped JPQL
+     * query, so a new query cannot silently skip the EXPLAIN check and the benchmark
+     */
+    private int checkAllQueriesListed() {
+        Set<String> listed = new HashSet<>();
+        for (AccessPath path : AnalyticsAccessPaths.PATHS) {
+            listed.add(path.sql());
+        }
+        int unlisted = 0;
+        for (Class<?> repository : AnalyticsAccessPaths.REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null || !query.nativeQuery() && AnalyticsAccessPaths.JPQL_SKIPPED.contains(method.getName())) {
+                    continue;
+                }
+                if (!listed.contains(query.value())) {
+                    unlisted++;
+                    log.warn("Query {}.{} has no entry in AnalyticsAccessPaths; its plan is not checked",
+                            repository.getSimpleName(), method.getName());
+                }
+            }
+        }
+        return unlisted;
+    }
+
+    /**
+     * Realistic parameter values, by the repository's parameter names: the newest article and
+     * an existing author email
+     */
+    public Map<String, Object> sampleParams() {
+        Map<String, Object> samples = new HashMap<>();
+        Long submissionId = jdbcTemplate.queryForObject("SELECT MAX(m.submission_id) FROM metrics m", Long.class);
+        List<String> emails = jdbcTemplate.queryForList(
+                "SELECT a.email FROM authors a WHERE a.email IS NOT NULL LIMIT 1", String.class);
+        LocalDate today = LocalDate.now();
+
+        samples.put(AnalyticsAccessPaths.SUBMISSION_ID, submissionId != null ? submissionId : 0L);
+        samples.put(AnalyticsAccessPaths.SUBMISSION_IDS, List.of(submissionId != null ? submissionId : 0L));
+        samples.put(AnalyticsAccessPaths.ASSOC_TYPE, 515);
+        samples.put(AnalyticsAccessPaths.LIMIT, 10);
+        samples.put(AnalyticsAccessPaths.EMAIL, emails.isEmpty() ? "" : emails.get(0));
+        samples.put(AnalyticsAccessPaths.FROM_DAY, today.minusDays(90).format(DateTimeFormatter.BASIC_ISO_DATE));
+        samples.put(AnalyticsAccessPaths.TO_DAY, today.format(DateTimeFormatter.BASIC_ISO_DATE));
+        samples.put(AnalyticsAccessPaths.FROM_MONTH, today.minusMonths(12).format(MONTH_FORMATTER));
+        samples.put(AnalyticsAccessPaths.TO_MONTH, today.format(MONTH_FORMATTER));
+        return samples;
+    }
+
+    public List<Map<String, Object>> explain(AccessPath path, Map<String, Object> samples) {
+        return namedJdbcTemplate.queryForList("EXPLAIN " + path.sql(), samples);
+    }
+
+    public boolean usesExpectedIndexes(AccessPath path, List<Map<String, Object>> plan) {
+        for (Map.Entry<String, Set<String>> expected : path.expected().entrySet()) {
+            boolean used = plan.stream().anyMatch(row ->
+                    expected.getKey().equals(row.get("table")) && expected.getValue().contains(row.get("key")));
+            if (!used) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One "table:type/key(rows)" entry per plan row
+     */
+    public String describe(List<Map<String, Object>> plan) {
+        StringBuilder sb = new StringBuilder();
+        for (Map<String, Object> row : plan) {
+            if (!sb.isEmpty()) {
+                sb.append(", ");
+            }
+            sb.append(row.get("table")).append(':').append(row.get("type"))
+                    .append('/').append(row.get("key")).append('(').append(row.get("rows")).append(')');
+        }
+        return sb.toString();
+    }
+}
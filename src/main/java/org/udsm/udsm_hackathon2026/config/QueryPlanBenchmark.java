@@ -0,0 +1,71 @@
+package org.udsm.udsm_hackathon2026.config;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.udsm.udsm_hackathon2026.config.AnalyticsAccessPaths.AccessPath;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the plan and latency of every repository query listed in AnalyticsAccessPaths
+ * against the configured database. Off by default; run with
+ * {@code --app.db.benchmark.enabled=true} before and after an index change and compare
+ * the log lines.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.db.benchmark.enabled", havingValue = "true")
+public class QueryPlanBenchmark implements ApplicationRunner {
+
+    private static final int WARMUP_RUNS = 2;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final IndexHealthCheck indexHealthCheck;
+
+    @Value("${app.db.benchmark.iterations:20}")
+    private int iterations;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, Object> samples = indexHealthCheck.sampleParams();
+        log.info("Query benchmark: {} iterations per query, params {}", iterations, samples);
+
+        for (AccessPath path : AnalyticsAccessPaths.PATHS) {
+            try {
+                List<Map<String, Object>> plan = indexHealthCheck.explain(path, samples);
+
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    namedJdbcTemplate.queryForList(path.sql(), samples);
+                }
+                long[] nanos = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    namedJdbcTemplate.queryForList(path.sql(), samples);
+                    nanos[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(nanos);
+
+                log.info("Query benchmark {}: p50={} ms p95={} ms max={} ms indexed={} plan=[{}]",
+                        path.name(),
+                        millis(nanos[nanos.length / 2]),
+                        millis(nanos[Math.min(nanos.length - 1, (int) Math.ceil(nanos.length * 0.95) - 1)]),
+                        millis(nanos[nanos.length - 1]),
+                        indexHealthCheck.usesExpectedIndexes(path, plan),
+                        indexHealthCheck.describe(plan));
+            } catch (Exception e) {
+                log.warn("Query benchmark {} failed", path.name(), e);
+            }
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
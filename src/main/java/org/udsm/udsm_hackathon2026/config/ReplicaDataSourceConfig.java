@@ -0,0 +1,127 @@
+package org.udsm.udsm_hackathon2026.config;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary plus read-replica pools, active once {@code app.datasource.replicas[0].url} is set;
+ * without it Spring Boot's single spring.datasource pool is used as before.
+ *
+ * The primary keeps the spring.datasource settings. Each replica gets its own pool, lag
+ * threshold and health-check schedule; checks run on the maintenance scheduler and a replica
+ * only takes reads after its first successful check.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * app.datasource.replicas[n].*; username and password default to the primary's
+     */
+    public record ReplicaSettings(
+            String name,
+            String url,
+            String username,
+            String password,
+            @DefaultValue("0") int poolSize,
+            @DefaultValue("5") long maxLagSeconds,
+            @DefaultValue("5000") long healthCheckIntervalMs,
+            @DefaultValue("2") int healthCheckTimeoutSeconds,
+            @DefaultValue("SHOW SLAVE STATUS") String lagQuery,
+            @DefaultValue("Seconds_Behind_Master") String lagColumn) {
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Qualifier(AsyncConfig.MAINTENANCE_SCHEDULER) TaskScheduler scheduler,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+
+        HikariDataSource primary = pool(ReplicaRoutingDataSource.PRIMARY, url, username, password,
+                driverClassName, poolSize, connectionTimeoutMs, false, meterRegistry);
+
+        List<ReplicaSettings> settings = Binder.get(environment)
+                .bind("app.datasource.replicas", Bindable.listOf(ReplicaSettings.class))
+                .orElse(List.of());
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < settings.size(); i++) {
+            ReplicaSettings replica = settings.get(i);
+            String name = replica.name() != null ? replica.name() : "replica-" + (i + 1);
+            HikariDataSource dataSource = pool(name, replica.url(),
+                    replica.username() != null ? replica.username() : username,
+                    replica.password() != null ? replica.password() : password,
+                    driverClassName,
+                    replica.poolSize() > 0 ? replica.poolSize() : poolSize,
+                    connectionTimeoutMs, true, meterRegistry);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, dataSource, replica.maxLagSeconds(),
+                    replica.healthCheckIntervalMs(), replica.healthCheckTimeoutSeconds(),
+                    replica.lagQuery(), replica.lagColumn()));
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, meterRegistry);
+        for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+            scheduler.scheduleWithFixedDelay(() -> routing.checkHealth(replica),
+                    Duration.ofMillis(replica.checkIntervalMs));
+            log.info("Read replica {} configured (max lag {}s, checked every {} ms)",
+                    replica.name, replica.maxLagSeconds, replica.checkIntervalMs);
+        }
+        return routing;
+    }
+
+    /**
+     * The application DataSource: connections are fetched on first use, once the transaction's
+     * read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password,
+                                         String driverClassName, int poolSize, long connectionTimeoutMs,
+                                         boolean readOnly, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        if (!driverClassName.isBlank()) {
+            config.setDriverClassName(driverClassName);
+        }
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setReadOnly(readOnly);
+        if (readOnly) {
+            // A replica that is down at startup is simply left out until its checks pass
+            config.setInitializationFailTimeout(-1);
+        }
+        // hikaricp.connections.* per pool, as Boot would register for its own pool
+        config.setMetricRegistry(meterRegistry);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,181 @@
+package org.udsm.udsm_hackathon2026.config;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}) to a healthy replica,
+ * round-robin, and everything else to the primary.
+ *
+ * A replica is healthy when its last check succeeded, found replication running and no more
+ * than {@code maxLagSeconds} behind, and is not older than three check intervals. With no
+ * healthy replica, reads fall back to the primary. Must be wrapped in a
+ * LazyConnectionDataSourceProxy so the read-only flag is set before a connection is chosen.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<Replica> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name, replica.dataSource);
+            replica.reads = routingCounter(meterRegistry, replica.name, "read");
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Seconds behind the primary at the last check; NaN when unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.isUsable() ? 1 : 0)
+                    .description("1 while the replica receives read-only transactions")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        this.writes = routingCounter(meterRegistry, PRIMARY, "write");
+        this.fallbacks = routingCounter(meterRegistry, PRIMARY, "fallback");
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUsable()) {
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Probe one replica and update its state; runs on the maintenance scheduler
+     */
+    void checkHealth(Replica replica) {
+        boolean wasUsable = replica.isUsable();
+        String problem = null;
+        double lag = Double.NaN;
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(replica.checkTimeoutSeconds);
+            try (ResultSet rs = statement.executeQuery(replica.lagQuery)) {
+                if (!rs.next()) {
+                    problem = "replication is not configured";
+                } else {
+                    long seconds = !replica.lagColumn.isBlank() ? rs.getLong(replica.lagColumn) : rs.getLong(1);
+                    if (rs.wasNull()) {
+                        problem = "replication is stopped";
+                    } else {
+                        lag = seconds;
+                        if (seconds > replica.maxLagSeconds) {
+                            problem = "lag " + seconds + "s exceeds " + replica.maxLagSeconds + "s";
+                        }
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            problem = "check failed: " + e.getMessage();
+        }
+
+        replica.lagSeconds = lag;
+        replica.healthy = problem == null;
+        replica.lastCheckNanos = System.nanoTime();
+
+        if (wasUsable && problem != null) {
+            log.warn("Replica {} taken out of rotation: {}", replica.name, problem);
+        } else if (!wasUsable && problem == null) {
+            log.info("Replica {} in rotation (lag {}s)", replica.name, (long) lag);
+        } else if (problem != null) {
+            log.debug("Replica {} still out of rotation: {}", replica.name, problem);
+        }
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+        primary.close();
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out, by target pool and reason")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One replica pool and its last health check
+     */
+    static final class Replica {
+
+        final String name;
+        final HikariDataSource dataSource;
+        final long maxLagSeconds;
+        final long checkIntervalMs;
+        final int checkTimeoutSeconds;
+        final String lagQuery;
+        final String lagColumn;
+
+        volatile boolean healthy;
+        volatile double lagSeconds = Double.NaN;
+        volatile long lastCheckNanos;
+        Counter reads;
+
+        Replica(String name, HikariDataSource dataSource, long maxLagSeconds, long checkIntervalMs,
+                int checkTimeoutSeconds, String lagQuery, String lagColumn) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.maxLagSeconds = maxLagSeconds;
+            this.checkIntervalMs = checkIntervalMs;
+            this.checkTimeoutSeconds = checkTimeoutSeconds;
+            this.lagQuery = lagQuery;
+            this.lagColumn = lagColumn;
+        }
+
+        /** Healthy, and checked recently enough for that to still hold */
+        boolean isUsable() {
+            return healthy && System.nanoTime() - lastCheckNanos < checkIntervalMs * 3_000_000L;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.udsm.udsm_hackathon2026.config;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import org.udsm.udsm_hackathon2026.repository.MetricsRollupRepository;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Times every query MetricsQueryRouter routes, once on raw metrics and once on
+ * metrics_daily_rollup, against the configured database. Off by default; run with
+ * {@code --app.db.rollup-benchmark.enabled=true}.
+ *
+ * With {@code app.db.rollup-benchmark.synthetic-rows} set, it first inserts that many synthetic
+ * metrics rows (load_id {@value #SYNTHETIC_LOAD_ID}, spread over 5000 articles, 20 countries
+ * and three years) and rebuilds the rollup for those days. Only point that at a scratch
+ * database; remove the rows afterwards with
+ * {@code DELETE FROM metrics WHERE load_id = 'rollup-benchmark'} and a rollup rebuild.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.db.rollup-benchmark.enabled", havingValue = "true")
+public class RollupBenchmark implements ApplicationRunner {
+
+    static final String SYNTHETIC_LOAD_ID = "rollup-benchmark";
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int INSERT_BATCH = 1_000_000;
+    private static final int SYNTHETIC_DAYS = 3 * 365;
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricRepository metricRepository;
+    private final MetricsRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long syntheticRows;
+    private final int iterations;
+
+    public RollupBenchmark(JdbcTemplate jdbcTemplate,
+                           MetricRepository metricRepository,
+                           MetricsRollupRepository rollupRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.db.rollup-benchmark.synthetic-rows:0}") long syntheticRows,
+                           @Value("${app.db.benchmark.iterations:20}") int iterations) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricRepository = metricRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.syntheticRows = syntheticRows;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (syntheticRows > 0) {
+            generate();
+        }
+        Long rawRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM metrics", Long.class);
+        Long rollupRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM metrics_daily_rollup", Long.class);
+        log.info("Rollup benchmark: {} metrics rows, {} rollup rows, {} iterations per query",
+                rawRows, rollupRows, iterations);
+
+        // The busiest article, so the per-article paths read the most rows
+        List<Long> busiest = jdbcTemplate.queryForList(
+                "SELECT submission_id FROM metrics_daily_rollup WHERE submission_id <> 0 " +
+                "GROUP BY submission_id ORDER BY SUM(total) DESC LIMIT 1", Long.class);
+        Long article = busiest.isEmpty() ? 0L : busiest.get(0);
+        LocalDate today = LocalDate.now();
+        String fromDay = today.minusDays(90).format(DAY_FORMATTER);
+        String toDay = today.format(DAY_FORMATTER);
+        String fromMonth = today.minusMonths(12).format(MONTH_FORMATTER);
+        String toMonth = today.format(MONTH_FORMATTER);
+
+        Map<String, Supplier<Object>> raw = new LinkedHashMap<>();
+        Map<String, Supplier<Object>> rollup = new LinkedHashMap<>();
+        raw.put("sumTotalDownloads", metricRepository::sumTotalDownloads);
+        rollup.put("sumTotalDownloads", () -> rollupRepository.sumByAssocType(515L));
+        raw.put("findTopDownloadCountries", () -> metricRepository.findTopDownloadCountries(10));
+        rollup.put("findTopDownloadCountries", () -> rollupRepository.findTopCountries(515L, 10));
+        raw.put("findTopReadArticles", () -> metricRepository.findTopReadArticles(10));
+        rollup.put("findTopReadArticles", () -> rollupRepository.findTopArticles(1048585L, 10));
+        raw.put("aggregateByCountryAndDateRange", () -> metricRepository.aggregateByCountryAndDateRange(1048585L, fromDay, toDay, null));
+        rollup.put("aggregateByCountryAndDateRange", () -> rollupRepository.aggregateByCountryAndDateRange(1048585L, fromDay, toDay, null));
+        raw.put("aggregateByCountryAndDateRange(article)", () -> metricRepository.aggregateByCountryAndDateRange(1048585L, fromDay, toDay, article));
+        rollup.put("aggregateByCountryAndDateRange(article)", () -> rollupRepository.aggregateByCountryAndDateRange(1048585L, fromDay, toDay, article));
+        raw.put("getMonthlySeries", () -> metricRepository.getMonthlySeries(fromMonth, toMonth));
+        rollup.put("getMonthlySeries", () -> rollupRepository.getMonthlySeries(null, fromMonth, toMonth));
+        raw.put("getMonthlySeries(article)", () -> metricRepository.getMonthlySeriesByArticle(article, fromMonth, toMonth));
+        rollup.put("getMonthlySeries(article)", () -> rollupRepository.getMonthlySeries(article, fromMonth, toMonth));
+        raw.put("findFirstMonth", metricRepository::findFirstMonth);
+        rollup.put("findFirstMonth", () -> rollupRepository.findFirstMonth(null));
+
+        for (String name : raw.keySet()) {
+            try {
+                long[] rawNanos = time(raw.get(name));
+                long[] rollupNanos = time(rollup.get(name));
+                log.info("Rollup benchmark {}: raw p50={} ms p95={} ms, rollup p50={} ms p95={} ms",
+                        name, millis(p(rawNanos, 0.5)), millis(p(rawNanos, 0.95)),
+                        millis(p(rollupNanos, 0.5)), millis(p(rollupNanos, 0.95)));
+            } catch (Exception e) {
+                log.warn("Rollup benchmark {} failed", name, e);
+            }
+        }
+    }
+
+    /**
+     * Insert syntheticRows rows in batches from MariaDB's seq_* sequence tables, then rebuild the
+     * rollup month by month over the synthetic days
+     */
+    private void generate() {
+        log.info("Rollup benchmark: inserting {} synthetic metrics rows", syntheticRows);
+        long start = System.currentTimeMillis();
+        for (long offset = 0; offset < syntheticRows; offset += INSERT_BATCH) {
+            long batch = Math.min(INSERT_BATCH, syntheticRows - offset);
+            jdbcTemplate.update(
+                    "INSERT INTO metrics (load_id, context_id, submission_id, assoc_id, assoc_type, day, month, " +
+                    "country_id, metric_type, metric) " +
+                    "SELECT ?, 1, 1 + (s.seq + ?) % 5000, 1 + (s.seq + ?) % 5000, " +
+                    "ELT(1 + s.seq % 3, 256, 515, 1048585), " +
+                    "DATE_FORMAT(CURDATE() - INTERVAL ((s.seq + ?) * 7919) % ? DAY, '%Y%m%d'), " +
+                    "DATE_FORMAT(CURDATE() - INTERVAL ((s.seq + ?) * 7919) % ? DAY, '%Y%m'), " +
+                    "ELT(1 + (s.seq * 31) % 20, 'TZ','KE','UG','NG','ZA','US','GB','IN','DE','FR'," +
+                    "'CN','BR','RW','ET','GH','CA','AU','JP','EG','MW'), 'ojs::counter', 1 " +
+                    "FROM seq_1_to_" + batch + " s",
+                    SYNTHETIC_LOAD_ID, offset, offset, offset, SYNTHETIC_DAYS, offset, SYNTHETIC_DAYS);
+        }
+        log.info("Rollup benchmark: inserted in {} ms, rebuilding the rollup", System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        YearMonth month = YearMonth.now().minusMonths(SYNTHETIC_DAYS / 30 + 1);
+        while (!month.isAfter(YearMonth.now())) {
+            String from = month.atDay(1).format(DAY_FORMATTER);
+            String to = month.atEndOfMonth().format(DAY_FORMATTER);
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.rebuildDays(from, to));
+            month = month.plusMonths(1);
+        }
+        log.info("Rollup benchmark: rollup rebuilt in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private long[] time(Supplier<Object> query) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            query.get();
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long p(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * quantile) - 1)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
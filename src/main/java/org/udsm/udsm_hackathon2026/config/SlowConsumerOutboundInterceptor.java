@@ -0,0 +1,174 @@
+package org.udsm.udsm_hackathon2026.config;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Slow-consumer policy for the clientOutboundChannel.
+ *
+ * Snapshot destinations (geo maps, stats) are conflated per session: while a frame for
+ * (session, destination) is still waiting for an outbound thread, a newer frame replaces
+ * it and the stale one is skipped when its turn comes. When the bounded outbound executor
+ * is full, only such snapshot frames are dropped (a later snapshot supersedes them); every
+ * other frame (CONNECTED, RECEIPT, ERROR, replies, replays, live events) is sent on the
+ * calling thread, where the session's send time and buffer limits still apply.
+ */
+@Slf4j
+@Component
+public class SlowConsumerOutboundInterceptor implements ExecutorChannelInterceptor {
+
+    private final List<String> conflatePatterns;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /** sessionId -> destination|subscription -> latest pending frame */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Message<?>>> pending = new ConcurrentHashMap<>();
+
+    private final Counter conflatedFrames;
+    private final Counter droppedFrames;
+    private final Counter callerRunFrames;
+    private final Counter slowSessionsClosed;
+
+    public SlowConsumerOutboundInterceptor(
+            @Value("${app.websocket.conflate-destinations:}") List<String> conflatePatterns,
+            MeterRegistry meterRegistry) {
+        this.conflatePatterns = conflatePatterns;
+        this.conflatedFrames = Counter.builder("websocket.outbound.frames")
+                .description("Outbound STOMP frames not delivered to a session")
+                .tag("outcome", "conflated")
+                .register(meterRegistry);
+        this.droppedFrames = Counter.builder("websocket.outbound.frames")
+                .description("Outbound STOMP frames not delivered to a session")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.callerRunFrames = Counter.builder("websocket.outbound.frames.caller-runs")
+                .description("Outbound STOMP frames sent on the publishing thread because the outbound queue was full")
+                .register(meterRegistry);
+        this.slowSessionsClosed = Counter.builder("websocket.sessions.closed.slow")
+                .description("Sessions closed for exceeding the send time or buffer limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = accessor.getSessionId();
+        String key = conflationKey(accessor);
+        if (sessionId != null && key != null) {
+            pending.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(key, message);
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (ex != null) {
+            release(message);
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = accessor.getSessionId();
+        String key = conflationKey(accessor);
+        if (sessionId == null || key == null) {
+            return message;
+        }
+
+        ConcurrentHashMap<String, Message<?>> frames = pending.get(sessionId);
+        if (frames == null) {
+            return message;
+        }
+
+        Message<?> latest = frames.get(key);
+        if (latest != null && latest != message) {
+            // A newer snapshot for this subscription is already queued behind us
+            conflatedFrames.increment();
+            return null;
+        }
+        frames.remove(key, message);
+        return message;
+    }
+
+    /**
+     * Used by the bounded outbound executor when its queue is full
+     */
+    public RejectedExecutionHandler rejectionPolicy() {
+        return (task, executor) -> {
+            if (task instanceof MessageHandlingRunnable frame && isConflatable(frame.getMessage())) {
+                release(frame.getMessage());
+                onDropped(executor);
+            } else if (!executor.isShutdown()) {
+                callerRunFrames.increment();
+                task.run();
+            }
+        };
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        pending.remove(event.getSessionId());
+        if (CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            slowSessionsClosed.increment();
+            log.warn("Closed slow WebSocket session {}", event.getSessionId());
+        }
+    }
+
+    private void onDropped(ThreadPoolExecutor executor) {
+        droppedFrames.increment();
+        log.debug("Outbound queue full ({} queued), dropping snapshot frame", executor.getQueue().size());
+    }
+
+    private boolean isConflatable(Message<?> message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        return accessor.getSessionId() != null && conflationKey(accessor) != null;
+    }
+
+    private void release(Message<?> message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = accessor.getSessionId();
+        String key = conflationKey(accessor);
+        if (sessionId != null && key != null) {
+            ConcurrentHashMap<String, Message<?>> frames = pending.get(sessionId);
+            if (frames != null) {
+                frames.remove(key, message);
+            }
+        }
+    }
+
+    /**
+     * destination + subscription for conflatable snapshot frames, null for everything else
+     */
+    private String conflationKey(SimpMessageHeaderAccessor accessor) {
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return null;
+        }
+        for (String pattern : conflatePatterns) {
+            if (pathMatcher.match(pattern, destination)) {
+                return destination + "|" + accessor.getSubscriptionId();
+            }
+        }
+        return null;
+    }
+}
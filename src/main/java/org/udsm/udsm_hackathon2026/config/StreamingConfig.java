@@ -0,0 +1,30 @@
+package org.udsm.udsm_hackathon2026.config;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs StreamingResponseBody writers on the bounded streaming executor instead of an
+ * unbounded default, with a timeout long enough for full listings and exports.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor streamingExecutor;
+    private final long timeoutMs;
+
+    public StreamingConfig(@Qualifier(AsyncConfig.STREAMING_EXECUTOR) AsyncTaskExecutor streamingExecutor,
+                           @Value("${app.streaming.timeout-ms:600000}") long timeoutMs) {
+        this.streamingExecutor = streamingExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
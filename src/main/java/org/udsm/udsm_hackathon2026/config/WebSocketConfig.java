@@ -1,17 +1,71 @@
 package org.udsm.udsm_hackathon2026.config;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.udsm.udsm_hackathon2026.publisher.SnapshotStore;
+import org.udsm.udsm_hackathon2026.publisher.SseStreamRegistry;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final SlowConsumerOutboundInterceptor slowConsumerInterceptor;
+    private final BinaryFrameEncodingInterceptor binaryEncodingInterceptor;
+    private final SseStreamRegistry sseStreamRegistry;
+    private final SnapshotStore snapshotStore;
+    private final InboundRateLimitInterceptor rateLimitInterceptor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.websocket.send-time-limit-ms:15000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${app.websocket.compression.enabled:false}")
+    private boolean compressionEnabled;
+
+    @Value("${app.websocket.outbound.core-pool-size:4}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    public WebSocketConfig(SlowConsumerOutboundInterceptor slowConsumerInterceptor,
+                           BinaryFrameEncodingInterceptor binaryEncodingInterceptor,
+                           SseStreamRegistry sseStreamRegistry,
+                           SnapshotStore snapshotStore,
+                           InboundRateLimitInterceptor rateLimitInterceptor,
+                           MeterRegistry meterRegistry) {
+        this.slowConsumerInterceptor = slowConsumerInterceptor;
+        this.binaryEncodingInterceptor = binaryEncodingInterceptor;
+        this.sseStreamRegistry = sseStreamRegistry;
+        this.snapshotStore = snapshotStore;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
+        registry.enableSimpleBroker("/topic", "/queue");
         registry.setApplicationDestinationPrefixes("/app");
+
+        // Mirror /topic updates to the SSE hubs (/api/v1/stream/**) and the subscribe-time snapshots
+        registry.configureBrokerChannel().interceptors(sseStreamRegistry, snapshotStore);
     }
 
     @Override
@@ -19,5 +73,55 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+
+        // Native WebSocket (no SockJS fallback); permessage-deflate when enabled and offered by the client
+        registry.addEndpoint("/ws-native")
+                .setHandshakeHandler(new CompressionHandshakeHandler(compressionEnabled))
+                .setAllowedOriginPatterns("*");
+
+        // Native WebSocket with CBOR-encoded MESSAGE bodies
+        registry.addEndpoint("/ws-binary")
+                .setHandshakeHandler(new CompressionHandshakeHandler(compressionEnabled))
+                .addInterceptors(binaryEncodingInterceptor.binaryHandshakeInterceptor())
+                .setAllowedOriginPatterns("*");
+    }
+
+    /**
+     * Per-session limits: a session whose buffered frames exceed the buffer limit, or that
+     * stays blocked on a send longer than the time limit, is closed (SESSION_NOT_RELIABLE)
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(rateLimitInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Binary re-encoding runs first so conflation tracks the frame that is actually sent
+        registration.taskExecutor(outboundExecutor())
+                .interceptors(binaryEncodingInterceptor, slowConsumerInterceptor);
+    }
+
+    private ThreadPoolTaskExecutor outboundExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(outboundCorePoolSize);
+        executor.setMaxPoolSize(outboundMaxPoolSize);
+        executor.setQueueCapacity(outboundQueueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("ws-outbound-");
+        executor.setRejectedExecutionHandler(slowConsumerInterceptor.rejectionPolicy());
+
+        Gauge.builder("websocket.outbound.queue.size", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Frames waiting for a clientOutboundChannel thread")
+                .register(meterRegistry);
+        return executor;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package org.udsm.udsm_hackathon2026.controller;
 import org.udsm.udsm_hackathon2026.dto.ArticleListDto;
 import org.udsm.udsm_hackathon2026.dto.ArticleMetricsResponseDto;
+import org.udsm.udsm_hackathon2026.dto.CursorPage;
 import org.udsm.udsm_hackathon2026.dto.GeographicalMetricsDto;
 import org.udsm.udsm_hackathon2026.dto.MonthlyMetricsDto;
 import org.udsm.udsm_hackathon2026.service.ArticleAnalyticsService;
@@ -13,8 +14,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 
@@ -53,10 +56,34 @@ public class ArticleAnalyticsController {
                     content = @Content(mediaType = "application/json")
             )
     })
-    public ResponseEntity<List<ArticleListDto>> getAllArticles() {
-        log.info("GET /api/v1/articles - Fetching all articles for listing");
-        List<ArticleListDto> articles = articleService.getAllArticlesForListing();
-        return ResponseEntity.ok(articles);
+    public ResponseEntity<StreamingResponseBody> getAllArticles() {
+        log.info("GET /api/v1/articles - Streaming all articles for listing");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(articleService::streamArticlesForListing);
+    }
+
+    @GetMapping("/page")
+    @Operation(
+            summary = "Get articles page by page",
+            description = "Keyset-paginated article listing in title order. " +
+                         "Pass the returned nextCursor as 'cursor' to fetch the next page; it is null on the last page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    public ResponseEntity<CursorPage<ArticleListDto>> getArticlesPage(
+            @Parameter(description = "nextCursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped at app.listing.max-page-size)", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("GET /api/v1/articles/page - cursor={}, limit={}", cursor, limit);
+        try {
+            return ResponseEntity.ok(articleService.getArticlesForListingPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // ══════════════════════════════════════════════════════════════
@@ -9,12 +9,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.udsm.udsm_hackathon2026.dto.CursorPage;
 import org.udsm.udsm_hackathon2026.dto.author.AuthorListDto;
 import org.udsm.udsm_hackathon2026.service.AuthorListService;
 
-import java.util.List;
 
 @Slf4j
 @RestController
@@ -59,17 +61,40 @@ public class AuthorController {
             content = @Content(mediaType = "application/json")
         )
     })
-    public ResponseEntity<List<AuthorListDto>> getAllAuthors() {
-        log.info("GET /api/v1/authors - Fetching all authors");
-        
+    public ResponseEntity<StreamingResponseBody> getAllAuthors() {
+        log.info("GET /api/v1/authors - Streaming all authors");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(authorListService::streamAllAuthors);
+    }
+
+    /**
+     * Get authors page by page
+     * 
+     * Endpoint: GET /api/v1/authors/page?cursor=...&limit=50
+     * 
+     * Keyset pagination on author_id; nextCursor is null on the last page
+     */
+    @GetMapping("/page")
+    @Operation(
+        summary = "Get authors page by page",
+        description = "Keyset-paginated author listing in author ID order. " +
+                     "Pass the returned nextCursor as 'cursor' to fetch the next page; it is null on the last page."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    public ResponseEntity<CursorPage<AuthorListDto>> getAuthorsPage(
+            @Parameter(description = "nextCursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped at app.listing.max-page-size)", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("GET /api/v1/authors/page - cursor={}, limit={}", cursor, limit);
         try {
-            List<AuthorListDto> authors = authorListService.getAllAuthors();
-            log.info("Successfully retrieved {} authors", authors.size());
-            return ResponseEntity.ok(authors);
-            
-        } catch (Exception e) {
-            log.error("Error fetching authors", e);
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.ok(authorListService.getAuthorsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -6,14 +6,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.udsm.udsm_hackathon2026.dto.GlobalGeoDistributionDTO;
-import org.udsm.udsm_hackathon2026.service.CountryCoordinatesService;
+import org.udsm.udsm_hackathon2026.service.GlobalGeoDistributionService;
 import org.udsm.udsm_hackathon2026.service.MetricsService;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,7 +28,7 @@ import java.util.Map;
 public class GlobalMapController {
     
     private final MetricsService metricsService;
-    private final CountryCoordinatesService coordinatesService;
+    private final GlobalGeoDistributionService globalGeoDistributionService;
     
     /**
      * Get global geographical distribution of reads (all articles aggregated)
@@ -38,61 +37,21 @@ public class GlobalMapController {
     @GetMapping("/map/reads")
     @Operation(
         summary = "Get Global Read Distribution with Coordinates",
-        description = "Returns aggregated read counts by country across ALL articles with lat/lng coordinates for map visualization. Data is cached in Redis for real-time performance."
+        description = "Returns aggregated read counts by country across ALL articles with lat/lng coordinates for map visualization. Served from the same pre-serialized document broadcast on the live geo topic until the data changes."
     )
     @ApiResponse(
         responseCode = "200",
         description = "Successfully retrieved global read distribution",
         content = @Content(schema = @Schema(implementation = GlobalGeoDistributionDTO.class))
     )
-    public ResponseEntity<GlobalGeoDistributionDTO> getGlobalReadDistribution() {
+    public ResponseEntity<byte[]> getGlobalReadDistribution() {
         try {
             log.info("GET /api/v1/global/map/reads - Fetching global read distribution with coordinates");
             
-            // Get aggregated data from Redis (all articles combined)
-            Map<String, Long> geoData = metricsService.getReadershipGeoAll();
-            
-            // Calculate total
-            long totalReads = geoData.values().stream().mapToLong(Long::longValue).sum();
-            
-            // Build enriched country metrics with coordinates
-            List<GlobalGeoDistributionDTO.CountryMetric> countries = new ArrayList<>();
-            
-            for (Map.Entry<String, Long> entry : geoData.entrySet()) {
-                String countryCode = entry.getKey();
-                Long count = entry.getValue();
-                
-                // Get coordinates for this country
-                CountryCoordinatesService.CountryCoords coords = coordinatesService.getCoordinates(countryCode);
-                
-                // Calculate percentage
-                double percentage = totalReads > 0 ? (count * 100.0 / totalReads) : 0.0;
-                percentage = Math.round(percentage * 100.0) / 100.0; // Round to 2 decimals
-                
-                countries.add(GlobalGeoDistributionDTO.CountryMetric.builder()
-                    .countryCode(countryCode)
-                    .countryName(coords.name)
-                    .count(count)
-                    .latitude(coords.latitude)
-                    .longitude(coords.longitude)
-                    .percentage(percentage)
-                    .build());
-            }
-            
-            // Sort by count (descending)
-            countries.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
-            
-            GlobalGeoDistributionDTO response = GlobalGeoDistributionDTO.builder()
-                .type("reads")
-                .timestamp(java.time.Instant.now())
-                .total(totalReads)
-                .countryCount(countries.size())
-                .countries(countries)
-                .build();
-            
-            log.debug("Global reads: {} total across {} countries", totalReads, countries.size());
-            
-            return ResponseEntity.ok(response);
+            // Same pre-serialized document that /topic/reads/geo broadcasts for this data version
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(globalGeoDistributionService.serialized(true));
             
         } catch (Exception e) {
             log.error("Error fetching global read distribution", e);
@@ -107,61 +66,21 @@ public class GlobalMapController {
     @GetMapping("/map/downloads")
     @Operation(
         summary = "Get Global Download Distribution with Coordinates",
-        description = "Returns aggregated download counts by country across ALL articles with lat/lng coordinates for map visualization. Data is cached in Redis for real-time performance."
+        description = "Returns aggregated download counts by country across ALL articles with lat/lng coordinates for map visualization. Served from the same pre-serialized document broadcast on the live geo topic until the data changes."
     )
     @ApiResponse(
         responseCode = "200",
         description = "Successfully retrieved global download distribution",
         content = @Content(schema = @Schema(implementation = GlobalGeoDistributionDTO.class))
     )
-    public ResponseEntity<GlobalGeoDistributionDTO> getGlobalDownloadDistribution() {
+    public ResponseEntity<byte[]> getGlobalDownloadDistribution() {
         try {
             log.info("GET /api/v1/global/map/downloads - Fetching global download distribution with coordinates");
             
-            // Get aggregated data from Redis (all articles combined)
-            Map<String, Long> geoData = metricsService.getDownloadsGeoAll();
-            
-            // Calculate total
-            long totalDownloads = geoData.values().stream().mapToLong(Long::longValue).sum();
-            
-            // Build enriched country metrics with coordinates
-            List<GlobalGeoDistributionDTO.CountryMetric> countries = new ArrayList<>();
-            
-            for (Map.Entry<String, Long> entry : geoData.entrySet()) {
-                String countryCode = entry.getKey();
-                Long count = entry.getValue();
-                
-                // Get coordinates for this country
-                CountryCoordinatesService.CountryCoords coords = coordinatesService.getCoordinates(countryCode);
-                
-                // Calculate percentage
-                double percentage = totalDownloads > 0 ? (count * 100.0 / totalDownloads) : 0.0;
-                percentage = Math.round(percentage * 100.0) / 100.0;
-                
-                countries.add(GlobalGeoDistributionDTO.CountryMetric.builder()
-                    .countryCode(countryCode)
-                    .countryName(coords.name)
-                    .count(count)
-                    .latitude(coords.latitude)
-                    .longitude(coords.longitude)
-                    .percentage(percentage)
-                    .build());
-            }
-            
-            // Sort by count (descending)
-            countries.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
-            
-            GlobalGeoDistributionDTO response = GlobalGeoDistributionDTO.builder()
-                .type("downloads")
-                .timestamp(java.time.Instant.now())
-                .total(totalDownloads)
-                .countryCount(countries.size())
-                .countries(countries)
-                .build();
-            
-            log.debug("Global downloads: {} total across {} countries", totalDownloads, countries.size());
-            
-            return ResponseEntity.ok(response);
+            // Same pre-serialized document that /topic/downloads/geo broadcasts for this data version
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(globalGeoDistributionService.serialized(false));
             
         } catch (Exception e) {
             log.error("Error fetching global download distribution", e);
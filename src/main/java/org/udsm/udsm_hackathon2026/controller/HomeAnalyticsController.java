@@ -7,13 +7,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.udsm.udsm_hackathon2026.dto.CountryCountDto;
+import org.udsm.udsm_hackathon2026.dto.HomeBundleDto;
 import org.udsm.udsm_hackathon2026.dto.MonthlyMetricsDto;
 import org.udsm.udsm_hackathon2026.dto.TopArticleDto;
 import org.udsm.udsm_hackathon2026.dto.TopDownloadsDto;
 import org.udsm.udsm_hackathon2026.service.GeneralAnalyticsService;
+import org.udsm.udsm_hackathon2026.service.HomeBundleService;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +28,46 @@ import java.util.Map;
 public class HomeAnalyticsController {
 
     private final GeneralAnalyticsService analyticsService;
+    private final HomeBundleService homeBundleService;
+
+    @Operation(
+            summary = "Get the complete home dashboard",
+            description = "Returns totals, top countries, top articles and monthly metrics in one document, " +
+                         "computed from a single aggregate query. Send the returned ETag in If-None-Match " +
+                         "to get 304 Not Modified while the data has not changed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved the home bundle",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HomeBundleDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Bundle unchanged since the version in If-None-Match"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/home/bundle")
+    public ResponseEntity<byte[]> getHomeBundle(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        HomeBundleService.Bundle bundle = homeBundleService.getBundle();
+        String etag = "\"" + bundle.etag() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bundle.json());
+    }
 
     @Operation(
             summary = "Get total downloads",
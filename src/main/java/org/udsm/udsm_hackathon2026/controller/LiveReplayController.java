@@ -0,0 +1,72 @@
+package org.udsm.udsm_hackathon2026.controller;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+import org.udsm.udsm_hackathon2026.publisher.LiveEventReplayBuffer;
+import org.udsm.udsm_hackathon2026.publisher.WebSocketPublisher;
+import java.util.Map;
+
+/**
+ * Replays live events a client missed while disconnected, straight from memory.
+ *
+ * Frontend Usage:
+ *    stompClient.subscribe('/user/queue/live/replay', callback)
+ *    stompClient.send('/app/live/replay', {}, JSON.stringify({
+ *      topic: '/topic/reads/live',
+ *      afterSequence: 10452,    // last EnrichedEventDto.sequence seen
+ *      epoch: 1760867580123     // its EnrichedEventDto.streamEpoch
+ *    }))
+ *
+ * Replies arrive in batches: {topic, epoch, latestSequence, gap, complete, events: [...]}.
+ * gap=true means some events are missing (overwritten, or the server restarted) and the client
+ * should resync over REST; after a restart the batches hold every event of the new epoch.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class LiveReplayController {
+
+    public static final String REPLAY_QUEUE = "/queue/live/replay";
+
+    private static final int BATCH_SIZE = 200;
+
+    private final LiveEventReplayBuffer replayBuffer;
+    private final WebSocketPublisher webSocketPublisher;
+
+    @MessageMapping("/live/replay")
+    public void replay(@Payload Map<String, Object> request, SimpMessageHeaderAccessor headers) {
+        String sessionId = headers.getSessionId();
+        try {
+            String topic = (String) request.get("topic");
+            if (topic == null || !replayBuffer.isReplayable(topic)) {
+                log.warn("Replay requested for unsupported topic {} by session {}", topic, sessionId);
+                return;
+            }
+            long afterSequence = request.get("afterSequence") instanceof Number n ? n.longValue() : 0L;
+            Long epoch = request.get("epoch") instanceof Number n ? n.longValue() : null;
+
+            int sent = 0;
+            boolean gap = false;
+            LiveEventReplayBuffer.Replay replay;
+            do {
+                replay = replayBuffer.since(topic, epoch, afterSequence, BATCH_SIZE);
+                webSocketPublisher.sendToSession(sessionId, REPLAY_QUEUE, replayBuffer.encode(topic, replay));
+                sent += replay.frames().size();
+                gap |= replay.gap();
+                if (!replay.frames().isEmpty()) {
+                    afterSequence = replay.frames().get(replay.frames().size() - 1).sequence();
+                }
+                // Later batches continue in the current epoch
+                epoch = replayBuffer.epoch();
+            } while (!replay.complete() && !replay.frames().isEmpty());
+
+            log.debug("Replayed {} events on {} to session {} (gap={})", sent, topic, sessionId, gap);
+
+        } catch (Exception e) {
+            log.error("Error replaying live events for session {}", sessionId, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.udsm.udsm_hackathon2026.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.udsm.udsm_hackathon2026.publisher.SseStreamRegistry;
+
+/**
+ * Server-Sent Events mirror of the live STOMP topics for read-only displays.
+ * GET /api/v1/stream/reads/geo streams the same updates as /topic/reads/geo.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/stream")
+@RequiredArgsConstructor
+@Tag(name = "Live Streams", description = "Server-Sent Events for live topics (read-only dashboards)")
+@CrossOrigin(origins = "*")
+public class LiveStreamController {
+
+    private final SseStreamRegistry streamRegistry;
+
+    @GetMapping(path = "/{*topic}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream a live topic",
+        description = "Streams updates of /topic/{topic} as Server-Sent Events. Reconnecting clients send Last-Event-ID to resume from a short in-memory buffer."
+    )
+    public ResponseEntity<SseEmitter> stream(
+            @PathVariable String topic,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        String destination = "/topic" + topic;
+        if (!streamRegistry.isAllowed(destination)) {
+            log.warn("GET /api/v1/stream{} - topic not available for streaming", topic);
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(streamRegistry.subscribe(destination, lastEventId));
+    }
+}
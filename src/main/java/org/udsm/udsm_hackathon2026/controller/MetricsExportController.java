@@ -0,0 +1,134 @@
+package org.udsm.udsm_hackathon2026.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.udsm.udsm_hackathon2026.service.MetricsExportService;
+import org.udsm.udsm_hackathon2026.service.MetricsExportService.Filter;
+import org.udsm.udsm_hackathon2026.service.MetricsExportService.Format;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Raw data exports. Security is not enforced for /api/v1, so this endpoint guards itself:
+ * it is off unless app.export.enabled is set, and every request must send app.export.api-key
+ * in the X-API-Key header.
+ */
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Exports", description = "Bulk exports of raw usage data for data requests")
+public class MetricsExportController {
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private final MetricsExportService exportService;
+
+    @Value("${app.export.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.export.api-key:}")
+    private String apiKey;
+
+    // ══════════════════════════════════════════════════════════════
+    // Raw metrics rows as CSV or NDJSON, optionally gzipped
+    // ══════════════════════════════════════════════════════════════
+
+    @GetMapping("/metrics")
+    @Operation(
+            summary = "Export raw metrics",
+            description = "Streams metrics rows (article, event type, day, month, country, region, city, count) " +
+                         "matching the filters as CSV or newline-delimited JSON. The export is written while it is " +
+                         "read from the database, so there is no size limit; disconnecting cancels it."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export stream"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or wrong X-API-Key", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Exports are disabled", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many exports running; retry later", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportMetrics(
+            @Parameter(description = "Export API key (app.export.api-key)")
+            @RequestHeader(value = API_KEY_HEADER, required = false) String requestApiKey,
+            @Parameter(description = "Only this article (submission ID)", example = "123")
+            @RequestParam(required = false) Long articleId,
+            @Parameter(description = "First day, YYYYMMDD", example = "20260101")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "Last day, YYYYMMDD", example = "20260131")
+            @RequestParam(required = false) String to,
+            @Parameter(description = "READ, DOWNLOAD or READERSHIP; omit for all")
+            @RequestParam(required = false) String eventType,
+            @Parameter(description = "2-letter country code", example = "TZ")
+            @RequestParam(required = false) String country,
+            @Parameter(description = "csv or ndjson")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Gzip the file")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        if (!enabled) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!authorized(requestApiKey)) {
+            log.warn("GET /api/v1/exports/metrics - rejected: missing or wrong {}", API_KEY_HEADER);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Filter filter = new Filter(articleId, from, to, eventType, country);
+        Format exportFormat;
+        try {
+            exportFormat = Format.valueOf(format.toUpperCase());
+            exportService.validate(filter);
+        } catch (IllegalArgumentException e) {
+            log.warn("GET /api/v1/exports/metrics - rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("GET /api/v1/exports/metrics - {} {} gzip={}", exportFormat, filter, gzip);
+
+        String extension = exportFormat == Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == Format.CSV
+                        ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                        : MediaType.parseMediaType("application/x-ndjson");
+        String filename = "metrics-export." + extension + (gzip ? ".gz" : "");
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(out -> {
+                    // The slot is taken on the async thread, so a body that never runs holds none.
+                    // Nothing is written yet, so the exception still turns into a 429
+                    if (!exportService.tryAcquire()) {
+                        log.warn("GET /api/v1/exports/metrics - too many exports running");
+                        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many exports running");
+                    }
+                    exportService.export(filter, exportFormat, gzip, out);
+                });
+    }
+
+    /**
+     * Constant-time comparison; with no key configured every request is rejected
+     */
+    private boolean authorized(String requestApiKey) {
+        if (apiKey == null || apiKey.isBlank() || requestApiKey == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(apiKey.getBytes(StandardCharsets.UTF_8), requestApiKey.getBytes(StandardCharsets.UTF_8));
+    }
+}
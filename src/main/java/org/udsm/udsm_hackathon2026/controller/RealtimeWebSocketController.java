@@ -1,12 +1,18 @@
 package org.udsm.udsm_hackathon2026.controller;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
-import org.udsm.udsm_hackathon2026.dto.EnhnacedGeographicalMetricsDto;
+import org.udsm.udsm_hackathon2026.dto.EnhancedGeoBatchDto;
+import org.udsm.udsm_hackathon2026.publisher.SnapshotStore;
+import org.udsm.udsm_hackathon2026.publisher.WebSocketPublisher;
 import org.udsm.udsm_hackathon2026.service.ArticleAnalyticsService;
+import org.udsm.udsm_hackathon2026.service.DataVersionTracker;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -31,8 +37,22 @@ import java.util.Map;
  * - articleId, articleTitle, authors[]
  * - latitude, longitude
  *
+ *    Subscribing to /topic/geo/{reads|downloads}/enhanced/{articleId} immediately
+ *    delivers the latest distribution for that article (snapshot-on-subscribe).
+ *
+ *    Several articles at once (one combined reply on /user/queue/geo/batch):
+ *    stompClient.subscribe('/user/queue/geo/batch', callback)
+ *    stompClient.send('/app/geo/batch', {}, JSON.stringify({
+ *      type: 'reads',              // or 'downloads'
+ *      articleIds: [1542, 1543, 1600]
+ *    }))
+ *
  * 3. Legacy endpoints still available:
  *    stompClient.send('/app/geo/reads', {}, JSON.stringify({type: 'article', articleId: 1542}))
+ *
+ * Requests are rate limited per session (InboundRateLimitInterceptor). Results are cached per
+ * article data version, and identical requests within app.websocket.request-window-ms share
+ * one computation and one broadcast.
  */
 @Controller
 @RequiredArgsConstructor
@@ -40,7 +60,28 @@ import java.util.Map;
 public class RealtimeWebSocketController {
 
     private final ArticleAnalyticsService articleAnalyticsService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketPublisher webSocketPublisher;
+    private final DataVersionTracker versionTracker;
+    private final SnapshotStore snapshotStore;
+
+    private static final String ENHANCED_READS_TOPIC = "/topic/geo/reads/enhanced/";
+    private static final String ENHANCED_DOWNLOADS_TOPIC = "/topic/geo/downloads/enhanced/";
+    private static final String READS_TOPIC = "/topic/geo/reads/";
+    private static final String DOWNLOADS_TOPIC = "/topic/geo/downloads/";
+
+    private static final String BATCH_QUEUE = "/queue/geo/batch";
+    private static final int MAX_BATCH_SIZE = 50;
+
+    @Value("${app.websocket.request-window-ms:2000}")
+    private long requestWindowMs;
+
+    @PostConstruct
+    public void registerSnapshots() {
+        snapshotStore.registerLoader(ENHANCED_READS_TOPIC + "{articleId}",
+                destination -> enhancedReads(articleIdOf(destination)));
+        snapshotStore.registerLoader(ENHANCED_DOWNLOADS_TOPIC + "{articleId}",
+                destination -> enhancedDownloads(articleIdOf(destination)));
+    }
 
     /**
      * ENHANCED: Handle requests for geographical distribution of reads WITH article metadata
@@ -51,18 +92,13 @@ public class RealtimeWebSocketController {
         try {
             Long articleId = getLongValue(request.get("articleId"));
 
-            // Get enhanced geographical data with article metadata from cache/DB
-            List<EnhnacedGeographicalMetricsDto> geoData =
-                    articleAnalyticsService.getEnhancedGeographicalReads(articleId);
-
-            // Send to article-specific topic
-            messagingTemplate.convertAndSend("/topic/geo/reads/enhanced/" + articleId, geoData);
-
-            log.info("Sent enhanced geo reads for article {}: {} locations, title={}, authors={}",
-                    articleId,
-                    geoData.size(),
-                    geoData.isEmpty() ? "N/A" : geoData.get(0).getArticleTitle(),
-                    geoData.isEmpty() ? "N/A" : geoData.get(0).getAuthors());
+            // Send to article-specific topic; the payload is only rebuilt (and
+            // re-serialized) when the article's data version has moved on
+            if (webSocketPublisher.publishSerializedCoalesced(
+                    ENHANCED_READS_TOPIC + articleId, articleVersion(articleId), requestWindowMs,
+                    () -> articleAnalyticsService.getEnhancedGeographicalReads(articleId))) {
+                log.info("Sent enhanced geo reads for article {}", articleId);
+            }
 
         } catch (Exception e) {
             log.error("Error processing enhanced geo reads request", e);
@@ -78,21 +114,44 @@ public class RealtimeWebSocketController {
         try {
             Long articleId = getLongValue(request.get("articleId"));
 
-            // Get enhanced geographical data with article metadata from cache/DB
-            List<EnhnacedGeographicalMetricsDto > geoData =
-                    articleAnalyticsService.getEnhancedGeographicalDownloads(articleId);
+            // Send to article-specific topic; the payload is only rebuilt (and
+            // re-serialized) when the article's data version has moved on
+            if (webSocketPublisher.publishSerializedCoalesced(
+                    ENHANCED_DOWNLOADS_TOPIC + articleId, articleVersion(articleId), requestWindowMs,
+                    () -> articleAnalyticsService.getEnhancedGeographicalDownloads(articleId))) {
+                log.info("Sent enhanced geo downloads for article {}", articleId);
+            }
 
-            // Send to article-specific topic
-            messagingTemplate.convertAndSend("/topic/geo/downloads/enhanced/" + articleId, geoData);
+        } catch (Exception e) {
+            log.error("Error processing enhanced geo downloads request", e);
+        }
+    }
 
-            log.info("Sent enhanced geo downloads for article {}: {} locations, title={}, authors={}",
-                    articleId,
-                    geoData.size(),
-                    geoData.isEmpty() ? "N/A" : geoData.get(0).getArticleTitle(),
-                    geoData.isEmpty() ? "N/A" : geoData.get(0).getAuthors());
+    /**
+     * BATCH: Enhanced geographical distribution for up to 50 articles in one reply
+     * Computed with a single GROUP BY over all requested articles and a bulk metadata lookup
+     */
+    @MessageMapping("/geo/batch")
+    public void getEnhancedGeoDistributionBatch(@Payload Map<String, Object> request, SimpMessageHeaderAccessor headers) {
+        try {
+            boolean isRead = !"downloads".equalsIgnoreCase((String) request.get("type"));
+            List<Long> articleIds = ((List<?>) request.get("articleIds")).stream()
+                    .map(this::getLongValue)
+                    .distinct()
+                    .limit(MAX_BATCH_SIZE)
+                    .toList();
+
+            EnhancedGeoBatchDto batch = EnhancedGeoBatchDto.builder()
+                    .type(isRead ? "reads" : "downloads")
+                    .timestamp(Instant.now())
+                    .articles(articleAnalyticsService.getEnhancedGeographicalBatch(articleIds, isRead))
+                    .build();
+
+            webSocketPublisher.sendToSession(headers.getSessionId(), BATCH_QUEUE, batch);
+            log.info("Sent enhanced geo {} batch for {} articles", batch.getType(), articleIds.size());
 
         } catch (Exception e) {
-            log.error("Error processing enhanced geo downloads request", e);
+            log.error("Error processing enhanced geo batch request", e);
         }
     }
 
@@ -107,11 +166,12 @@ public class RealtimeWebSocketController {
 
             if ("article".equals(type)) {
                 Long articleId = getLongValue(request.get("articleId"));
-                var geoData = articleAnalyticsService.getGeographicalReads(articleId);
 
-                messagingTemplate.convertAndSend("/topic/geo/reads/" + articleId, geoData);
-                log.debug("Sent legacy geo reads distribution for article {}: {} locations",
-                        articleId, geoData.size());
+                if (webSocketPublisher.publishSerializedCoalesced(
+                        READS_TOPIC + articleId, articleVersion(articleId), requestWindowMs,
+                        () -> articleAnalyticsService.getGeographicalReads(articleId))) {
+                    log.debug("Sent legacy geo reads distribution for article {}", articleId);
+                }
             } else {
                 log.info("Requested geo distribution for all articles (reads) - not yet implemented");
             }
@@ -132,11 +192,12 @@ public class RealtimeWebSocketController {
 
             if ("article".equals(type)) {
                 Long articleId = getLongValue(request.get("articleId"));
-                var geoData = articleAnalyticsService.getGeographicalDownloads(articleId);
 
-                messagingTemplate.convertAndSend("/topic/geo/downloads/" + articleId, geoData);
-                log.debug("Sent legacy geo downloads distribution for article {}: {} locations",
-                        articleId, geoData.size());
+                if (webSocketPublisher.publishSerializedCoalesced(
+                        DOWNLOADS_TOPIC + articleId, articleVersion(articleId), requestWindowMs,
+                        () -> articleAnalyticsService.getGeographicalDownloads(articleId))) {
+                    log.debug("Sent legacy geo downloads distribution for article {}", articleId);
+                }
             } else {
                 log.info("Requested geo distribution for all articles (downloads) - not yet implemented");
             }
@@ -154,20 +215,16 @@ public class RealtimeWebSocketController {
         try {
             // Re-query the latest enhanced geo distribution for this article
             if ("READ".equalsIgnoreCase(eventType)) {
-                List<EnhnacedGeographicalMetricsDto > geoData =
-                        articleAnalyticsService.getEnhancedGeographicalReads(articleId);
-                messagingTemplate.convertAndSend("/topic/geo/reads/enhanced/" + articleId, geoData);
+                publishEnhancedReads(articleId);
 
-                log.debug("Broadcasted enhanced geo reads for article {} after {} from {} - {} locations",
-                        articleId, eventType, country, geoData.size());
+                log.debug("Broadcasted enhanced geo reads for article {} after {} from {}",
+                        articleId, eventType, country);
 
             } else if ("DOWNLOAD".equalsIgnoreCase(eventType)) {
-                List<EnhnacedGeographicalMetricsDto>  geoData =
-                        articleAnalyticsService.getEnhancedGeographicalDownloads(articleId);
-                messagingTemplate.convertAndSend("/topic/geo/downloads/enhanced/" + articleId, geoData);
+                publishEnhancedDownloads(articleId);
 
-                log.debug("Broadcasted enhanced geo downloads for article {} after {} from {} - {} locations",
-                        articleId, eventType, country, geoData.size());
+                log.debug("Broadcasted enhanced geo downloads for article {} after {} from {}",
+                        articleId, eventType, country);
             }
 
         } catch (Exception e) {
@@ -181,11 +238,11 @@ public class RealtimeWebSocketController {
     public void broadcastRealtimeEvent(Long articleId, String eventType, String country) {
         try {
             if ("READ".equalsIgnoreCase(eventType)) {
-                var geoData = articleAnalyticsService.getGeographicalReads(articleId);
-                messagingTemplate.convertAndSend("/topic/geo/reads/" + articleId, geoData);
+                webSocketPublisher.publishSerialized(READS_TOPIC + articleId, articleVersion(articleId),
+                        () -> articleAnalyticsService.getGeographicalReads(articleId));
             } else if ("DOWNLOAD".equalsIgnoreCase(eventType)) {
-                var geoData = articleAnalyticsService.getGeographicalDownloads(articleId);
-                messagingTemplate.convertAndSend("/topic/geo/downloads/" + articleId, geoData);
+                webSocketPublisher.publishSerialized(DOWNLOADS_TOPIC + articleId, articleVersion(articleId),
+                        () -> articleAnalyticsService.getGeographicalDownloads(articleId));
             }
 
             log.debug("Broadcasted legacy geo distribution for article {} after {} from {}",
@@ -196,6 +253,42 @@ public class RealtimeWebSocketController {
         }
     }
 
+    private void publishEnhancedReads(Long articleId) {
+        webSocketPublisher.publishSerialized(
+                ENHANCED_READS_TOPIC + articleId,
+                articleVersion(articleId),
+                () -> articleAnalyticsService.getEnhancedGeographicalReads(articleId));
+    }
+
+    private void publishEnhancedDownloads(Long articleId) {
+        webSocketPublisher.publishSerialized(
+                ENHANCED_DOWNLOADS_TOPIC + articleId,
+                articleVersion(articleId),
+                () -> articleAnalyticsService.getEnhancedGeographicalDownloads(articleId));
+    }
+
+    private byte[] enhancedReads(Long articleId) {
+        return webSocketPublisher.serialized(
+                ENHANCED_READS_TOPIC + articleId,
+                articleVersion(articleId),
+                () -> articleAnalyticsService.getEnhancedGeographicalReads(articleId));
+    }
+
+    private byte[] enhancedDownloads(Long articleId) {
+        return webSocketPublisher.serialized(
+                ENHANCED_DOWNLOADS_TOPIC + articleId,
+                articleVersion(articleId),
+                () -> articleAnalyticsService.getEnhancedGeographicalDownloads(articleId));
+    }
+
+    private long articleVersion(Long articleId) {
+        return versionTracker.current(DataVersionTracker.article(articleId));
+    }
+
+    private Long articleIdOf(String destination) {
+        return Long.parseLong(destination.substring(destination.lastIndexOf('/') + 1));
+    }
+
     private Long getLongValue(Object value) {
         if (value instanceof Number) {
             return ((Number) value).longValue();
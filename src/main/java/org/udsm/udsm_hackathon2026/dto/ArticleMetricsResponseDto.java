@@ -1,4 +1,5 @@
 package org.udsm.udsm_hackathon2026.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import java.util.List;
@@ -37,5 +38,9 @@ public class ArticleMetricsResponseDto {
     // Additional Info
     @Schema(description = "Date when article was published", example = "2023-05-15")
     private String datePublished;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Present and true when some metrics could not be loaded in time", example = "true")
+    private Boolean partial;
 }
 
@@ -0,0 +1,18 @@
+package org.udsm.udsm_hackathon2026.dto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a keyset-paginated listing")
+public class CursorPage<T> {
+    @Schema(description = "Items in this page, in listing order")
+    private List<T> items;
+
+    @Schema(description = "Pass as 'cursor' to fetch the next page; null on the last page", example = "MTIzNDU")
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package org.udsm.udsm_hackathon2026.dto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combined enhanced geographical distribution for several articles
+ * (answer to /app/geo/batch, e.g. for the compare-articles view)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnhancedGeoBatchDto {
+    // "reads" or "downloads"
+    private String type;
+    private Instant timestamp;
+
+    // Distribution per article id, in request order
+    private Map<Long, List<EnhnacedGeographicalMetricsDto>> articles;
+}
@@ -0,0 +1,47 @@
+package org.udsm.udsm_hackathon2026.dto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Everything the home dashboard shows, in one document")
+public class HomeBundleDto {
+
+    @Schema(description = "Data version this bundle was built from; also sent as the ETag", example = "1842-517")
+    private String version;
+
+    @Schema(description = "When this bundle was computed", example = "2026-02-14T18:30:00")
+    private LocalDateTime generatedAt;
+
+    @Schema(description = "Total number of downloads", example = "15432")
+    private Long totalDownloads;
+
+    @Schema(description = "Total number of citations", example = "2847")
+    private Long totalCitations;
+
+    @Schema(description = "Total number of readers", example = "45678")
+    private Long totalReaders;
+
+    @Schema(description = "Total number of articles", example = "1234")
+    private Long totalArticles;
+
+    @Schema(description = "Countries with the highest readership")
+    private List<CountryCountDto> topReadershipCountries;
+
+    @Schema(description = "Countries with the most downloads")
+    private List<CountryCountDto> topDownloadCountries;
+
+    @Schema(description = "Most read articles")
+    private List<TopArticleDto> topReadArticles;
+
+    @Schema(description = "Most downloaded articles")
+    private List<TopDownloadsDto> topDownloadedArticles;
+
+    @Schema(description = "Monthly views and downloads across all articles")
+    private List<MonthlyMetricsDto> monthly;
+}
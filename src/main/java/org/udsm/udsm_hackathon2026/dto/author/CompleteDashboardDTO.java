@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -34,4 +35,10 @@ public class CompleteDashboardDTO {
     
     @Schema(description = "Timestamp when this data was generated", example = "2024-02-14T18:30:00")
     private LocalDateTime lastUpdated;
+
+    @Schema(description = "Present and true when some sections could not be loaded in time", example = "true")
+    private Boolean partial;
+
+    @Schema(description = "Sections missing from a partial dashboard", example = "[\"ranking\"]")
+    private List<String> unavailableSections;
 }
@@ -12,6 +12,12 @@ import java.util.List;
 @Schema(description = "Enriched event with geo data for WebSocket broadcasting and responses")
 public class EnrichedEventDto {
     
+    @Schema(description = "Sequence number on its live topic, used to request a replay after reconnecting", example = "10452")
+    private Long sequence;
+
+    @Schema(description = "Identifies the server process that numbered the sequence; sent back with replay requests so a restart is detected", example = "1760867580123")
+    private Long streamEpoch;
+
     // Original event data
     @Schema(description = "Event type: READ or DOWNLOAD", example = "READ")
     private String eventType;
@@ -7,6 +7,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EqualsAndHashCode
 @Schema(description = "Aggregated statistics for WebSocket /topic/stats broadcasting")
 public class StatsDto {
     
@@ -0,0 +1,158 @@
+package org.udsm.udsm_hackathon2026.publisher;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Recent live event frames per live topic, kept for clients that reconnect.
+ *
+ * Each topic has a fixed-size, lock-free ring: writers claim a sequence number from an
+ * AtomicLong and publish the encoded frame into slot {@code sequence % size}. Readers
+ * only accept a slot whose frame carries the sequence they expect, so overwritten or
+ * half-published slots are skipped and reported as a gap. Replays are served from memory only.
+ *
+ * Sequences restart at 1 with every process, so each process has its own stream epoch,
+ * sent with every event; a replay request from another epoch, or past the latest sequence,
+ * is answered with everything buffered and gap=true.
+ */
+@Slf4j
+@Component
+public class LiveEventReplayBuffer {
+
+    public static final String READS_LIVE_TOPIC = "/topic/reads/live";
+    public static final String DOWNLOADS_LIVE_TOPIC = "/topic/downloads/live";
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Ring> rings;
+    private final long epoch = System.currentTimeMillis();
+
+    public LiveEventReplayBuffer(ObjectMapper objectMapper,
+                                 @Value("${app.websocket.replay-buffer-size:1024}") int bufferSize) {
+        this.objectMapper = objectMapper;
+        this.rings = Map.of(
+                READS_LIVE_TOPIC, new Ring(bufferSize),
+                DOWNLOADS_LIVE_TOPIC, new Ring(bufferSize));
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public boolean isReplayable(String topic) {
+        return rings.containsKey(topic);
+    }
+
+    /**
+     * Claims the next sequence for {@code topic}, encodes the frame with it and stores it
+     */
+    public Frame append(String topic, LongFunction<byte[]> encoder) {
+        return ring(topic).append(encoder);
+    }
+
+    /**
+     * Buffered frames with a sequence greater than {@code afterSequence}, oldest first
+     *
+     * @param clientEpoch stream epoch of the client's last event, null when unknown
+     */
+    public Replay since(String topic, Long clientEpoch, long afterSequence, int maxFrames) {
+        return ring(topic).since(clientEpoch != null && clientEpoch != epoch, afterSequence, maxFrames);
+    }
+
+    /**
+     * JSON envelope for a replay: {"topic", "epoch", "latestSequence", "gap", "complete", "events": [...]}.
+     * Buffered frames are copied in as-is, without re-serializing the events.
+     */
+    public byte[] encode(String topic, Replay replay) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("topic", topic);
+            generator.writeNumberField("epoch", epoch);
+            generator.writeNumberField("latestSequence", replay.latestSequence());
+            generator.writeBooleanField("gap", replay.gap());
+            generator.writeBooleanField("complete", replay.complete());
+            generator.writeArrayFieldStart("events");
+            for (Frame frame : replay.frames()) {
+                generator.writeRawValue(new String(frame.json(), StandardCharsets.UTF_8));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode replay for " + topic, e);
+        }
+        return out.toByteArray();
+    }
+
+    private Ring ring(String topic) {
+        Ring ring = rings.get(topic);
+        if (ring == null) {
+            throw new IllegalArgumentException("No replay buffer for " + topic);
+        }
+        return ring;
+    }
+
+    public record Frame(long sequence, byte[] json) {}
+
+    /**
+     * @param gap      true when events after the requested sequence are missing: overwritten,
+     *                 not yet written, or numbered by a previous process
+     * @param complete false when more buffered frames remain after this batch
+     */
+    public record Replay(List<Frame> frames, long latestSequence, boolean gap, boolean complete) {}
+
+    private static final class Ring {
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicReferenceArray<Frame> slots;
+
+        private Ring(int size) {
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        private Frame append(LongFunction<byte[]> encoder) {
+            long next = sequence.incrementAndGet();
+            Frame frame = new Frame(next, encoder.apply(next));
+            slots.set(index(next), frame);
+            return frame;
+        }
+
+        private Replay since(boolean epochChanged, long afterSequence, int maxFrames) {
+            long latest = sequence.get();
+            boolean gap = false;
+            if (epochChanged || afterSequence > latest) {
+                // The client's sequence belongs to a previous process: send all we have
+                afterSequence = 0;
+                gap = true;
+            }
+            long oldest = Math.max(latest - slots.length() + 1, 1);
+            long from = Math.max(afterSequence + 1, oldest);
+            gap |= afterSequence + 1 < oldest;
+
+            List<Frame> frames = new ArrayList<>();
+            long seq = from;
+            for (; seq <= latest && frames.size() < maxFrames; seq++) {
+                Frame frame = slots.get(index(seq));
+                if (frame != null && frame.sequence() == seq) {
+                    frames.add(frame);
+                } else {
+                    gap = true; // overwritten while we were reading, or claimed but not yet written
+                }
+            }
+            return new Replay(frames, latest, gap, seq > latest);
+        }
+
+        private int index(long seq) {
+            return (int) (seq % slots.length());
+        }
+    }
+}
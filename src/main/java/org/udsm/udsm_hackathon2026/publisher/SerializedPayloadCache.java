@@ -0,0 +1,96 @@
+package org.udsm.udsm_hackathon2026.publisher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pre-serialized JSON payloads keyed by (topic, data version).
+ *
+ * The same logical update is handed to every STOMP subscriber and REST caller as
+ * one shared byte[]; Jackson only runs again once the data version moves on, or once the
+ * payload is older than the max age, for changes that do not bump a version (OJS imports).
+ * Keys include client-supplied article ids, so the slots are bounded and unused ones expire.
+ */
+@Slf4j
+@Component
+public class SerializedPayloadCache {
+
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMs;
+    private final Cache<String, Slot> slots;
+
+    public SerializedPayloadCache(ObjectMapper objectMapper,
+                                  @Value("${app.websocket.payload-max-age-ms:60000}") long maxAgeMs,
+                                  @Value("${app.websocket.payload-cache.max-entries:10000}") long maxEntries,
+                                  @Value("${app.websocket.payload-cache.expire-after-access-minutes:10}") long expireAfterAccessMinutes) {
+        this.objectMapper = objectMapper;
+        this.maxAgeMs = maxAgeMs;
+        this.slots = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .build();
+    }
+
+    /**
+     * Returns the encoded payload for {@code key} at {@code version}, building and
+     * serializing it at most once per version. A newer cached version is returned as-is
+     * until it reaches the max age.
+     */
+    public byte[] get(String key, long version, Supplier<?> payloadSupplier) {
+        Slot slot = slots.get(key, k -> new Slot());
+
+        Entry entry = slot.entry;
+        if (isFresh(entry, version)) {
+            return entry.bytes();
+        }
+
+        slot.lock.lock();
+        try {
+            entry = slot.entry;
+            if (isFresh(entry, version)) {
+                return entry.bytes();
+            }
+            byte[] bytes = serialize(key, payloadSupplier.get());
+            slot.entry = new Entry(version, bytes, System.currentTimeMillis());
+            log.debug("Serialized payload for {} at version {} ({} bytes)", key, version, bytes.length);
+            return bytes;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    /**
+     * Latest encoded payload for {@code key}, or null if nothing was cached yet
+     */
+    public Entry latest(String key) {
+        Slot slot = slots.getIfPresent(key);
+        return slot != null ? slot.entry : null;
+    }
+
+    private boolean isFresh(Entry entry, long version) {
+        return entry != null && entry.version() >= version
+                && System.currentTimeMillis() - entry.builtAt() < maxAgeMs;
+    }
+
+    private byte[] serialize(String key, Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize payload for " + key, e);
+        }
+    }
+
+    public record Entry(long version, byte[] bytes, long builtAt) {}
+
+    private static final class Slot {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Entry entry;
+    }
+}
@@ -0,0 +1,131 @@
+package org.udsm.udsm_hackathon2026.publisher;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Latest snapshot per live destination, sent to a session as soon as it subscribes.
+ *
+ * Kept current from the broker channel: every update broadcast on a snapshot destination
+ * replaces the stored payload. Destinations that have not been broadcast since startup
+ * fall back to a loader registered by the owning service.
+ */
+@Slf4j
+@Component
+public class SnapshotStore implements ChannelInterceptor {
+
+    private final MessageChannel clientOutboundChannel;
+    private final List<String> snapshotTopics;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Function<String, byte[]>> loaders = new ConcurrentHashMap<>();
+
+    /** destination -> latest JSON payload */
+    private final Cache<String, byte[]> snapshots = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public SnapshotStore(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                         @Value("${app.websocket.snapshot-destinations}") List<String> snapshotTopics) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.snapshotTopics = snapshotTopics;
+    }
+
+    /**
+     * Register a loader for destinations matching {@code pattern}, used when nothing was broadcast yet
+     */
+    public void registerLoader(String pattern, Function<String, byte[]> loader) {
+        loaders.put(pattern, loader);
+    }
+
+    /**
+     * Forget the stored payload, e.g. when the data changed without a broadcast;
+     * the next subscriber gets a fresh one from the registered loader
+     */
+    public void invalidate(String destination) {
+        snapshots.invalidate(destination);
+    }
+
+    public byte[] latest(String destination) {
+        byte[] payload = snapshots.getIfPresent(destination);
+        if (payload != null) {
+            return payload;
+        }
+
+        for (Map.Entry<String, Function<String, byte[]>> entry : loaders.entrySet()) {
+            if (pathMatcher.match(entry.getKey(), destination)) {
+                payload = entry.getValue().apply(destination);
+                if (payload != null) {
+                    snapshots.asMap().putIfAbsent(destination, payload);
+                }
+                return payload;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void postSend(Message<?> message, MessageChannel channel, boolean sent) {
+        if (!sent || !(message.getPayload() instanceof byte[] json)) {
+            return;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null && isSnapshotTopic(destination)) {
+            snapshots.put(destination, json);
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = subscribe.getDestination();
+        if (destination == null || !isSnapshotTopic(destination)) {
+            return;
+        }
+
+        try {
+            byte[] payload = latest(destination);
+            if (payload == null) {
+                return;
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(subscribe.getSessionId());
+            accessor.setSubscriptionId(subscribe.getSubscriptionId());
+            accessor.setDestination(destination);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+            clientOutboundChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+
+            log.debug("Sent snapshot of {} to session {} ({} bytes)", destination, subscribe.getSessionId(), payload.length);
+        } catch (Exception e) {
+            log.error("Failed to send snapshot of {} to session {}", destination, subscribe.getSessionId(), e);
+        }
+    }
+
+    private boolean isSnapshotTopic(String destination) {
+        for (String pattern : snapshotTopics) {
+            if (pathMatcher.match(pattern, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package org.udsm.udsm_hackathon2026.publisher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.udsm.udsm_hackathon2026.config.AsyncConfig;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-Sent Events fan-out for read-only dashboards.
+ *
+ * Sits on the STOMP broker channel, so every update published to an allowed /topic
+ * destination is also handed, already serialized, to the matching SSE hub.
+ * Hubs are created on first subscription and dropped after a period without clients.
+ * Every client is written by its own task on a virtual thread, so a client blocked on a
+ * full TCP window parks only that thread.
+ */
+@Slf4j
+@Component
+public class SseStreamRegistry implements ChannelInterceptor {
+
+    private static final long HUB_IDLE_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final List<String> allowedTopics;
+    private final int bufferSize;
+    private final int clientQueueSize;
+    private final long emitterTimeoutMs;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, SseTopicHub> hubs = new ConcurrentHashMap<>();
+    private final SimpleAsyncTaskExecutor writerExecutor = new SimpleAsyncTaskExecutor("sse-writer-");
+
+    public SseStreamRegistry(@Value("${app.sse.topics}") List<String> allowedTopics,
+                             @Value("${app.sse.buffer-size:64}") int bufferSize,
+                             @Value("${app.sse.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                             @Value("${app.sse.client-queue-size:256}") int clientQueueSize,
+                             MeterRegistry meterRegistry) {
+        this.allowedTopics = allowedTopics;
+        this.bufferSize = bufferSize;
+        this.clientQueueSize = clientQueueSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+
+        writerExecutor.setVirtualThreads(true);
+
+        Gauge.builder("sse.clients", hubs,
+                        h -> h.values().stream().mapToInt(SseTopicHub::clientCount).sum())
+                .description("Connected Server-Sent Events clients")
+                .register(meterRegistry);
+    }
+
+    public boolean isAllowed(String topic) {
+        for (String pattern : allowedTopics) {
+            if (pathMatcher.match(pattern, topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasClients(String topic) {
+        SseTopicHub hub = hubs.get(topic);
+        return hub != null && hub.clientCount() > 0;
+    }
+
+    /**
+     * Open a stream on an allowed topic, resuming after {@code lastEventId} (the Last-Event-ID
+     * header, may be null) when it comes from the current hub and is still buffered
+     */
+    public SseEmitter subscribe(String topic, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        while (true) {
+            SseTopicHub hub = hubs.computeIfAbsent(topic, t -> new SseTopicHub(t, bufferSize, clientQueueSize, writerExecutor));
+            if (hub.subscribe(emitter, lastEventId)) {
+                break;
+            }
+            // Closed as idle between lookup and subscribe; the next lookup creates a new hub
+            hubs.remove(topic, hub);
+        }
+        log.debug("SSE client subscribed to {} (Last-Event-ID {})", topic, lastEventId);
+        return emitter;
+    }
+
+    @Override
+    public void postSend(Message<?> message, MessageChannel channel, boolean sent) {
+        if (!sent || hubs.isEmpty() || !(message.getPayload() instanceof byte[] json)) {
+            return;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        SseTopicHub hub = destination != null ? hubs.get(destination) : null;
+        if (hub != null) {
+            hub.publish(json);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and drops hubs nobody listens to
+     */
+    @Scheduled(fixedDelay = 15000, scheduler = AsyncConfig.REALTIME_SCHEDULER)
+    public void heartbeat() {
+        long cutoff = System.currentTimeMillis() - HUB_IDLE_MS;
+        for (Map.Entry<String, SseTopicHub> entry : hubs.entrySet()) {
+            if (entry.getValue().closeIfIdle(cutoff)) {
+                hubs.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        hubs.values().forEach(SseTopicHub::heartbeat);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hubs.values().forEach(SseTopicHub::completeAll);
+        writerExecutor.close();
+    }
+}
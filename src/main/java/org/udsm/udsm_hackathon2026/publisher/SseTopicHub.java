@@ -0,0 +1,244 @@
+package org.udsm.udsm_hackathon2026.publisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fan-out hub for one live topic.
+ *
+ * Each update is encoded into an SSE frame once, appended to a small ring buffer and
+ * queued for every client. Each client has its own bounded queue, drained by its own
+ * writer task, so a slow client only delays itself; a client whose queue overflows is
+ * disconnected and resumes with Last-Event-ID from the ring buffer when it reconnects.
+ *
+ * Event ids are {@code <hubEpoch>-<sequence>}. Sequences restart whenever a hub is
+ * recreated (after being idle, or in a new process), so an id from another epoch has no
+ * resume point and the client starts from the latest update.
+ */
+@Slf4j
+class SseTopicHub {
+
+    /** Seeded with the clock so epochs differ across restarts, incremented so they differ within one */
+    private static final AtomicLong EPOCHS = new AtomicLong(System.currentTimeMillis());
+
+    private final String topic;
+    private final long epoch = EPOCHS.incrementAndGet();
+    private final Executor writerExecutor;
+    private final int clientQueueSize;
+    private final Event[] ring;
+    /** Guards the ring, lastEventId, closed and queueing to clients, so every client sees events in order */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    private long lastEventId;
+    private boolean closed;
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    SseTopicHub(String topic, int bufferSize, int clientQueueSize, Executor writerExecutor) {
+        this.topic = topic;
+        this.ring = new Event[bufferSize];
+        this.clientQueueSize = clientQueueSize;
+        this.writerExecutor = writerExecutor;
+    }
+
+    /**
+     * Append an already-serialized JSON update and queue it for every client
+     */
+    void publish(byte[] json) {
+        lock.lock();
+        try {
+            long id = ++lastEventId;
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                    .id(epoch + "-" + id)
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+            ring[(int) (id % ring.length)] = new Event(id, frame);
+            for (Client client : clients) {
+                client.offer(frame);
+            }
+        } finally {
+            lock.unlock();
+        }
+        lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Register an emitter. Without a usable Last-Event-ID (missing, malformed or from another
+     * epoch) the client starts from the latest update.
+     *
+     * @return false when the hub was closed for being idle; the caller must use a new hub
+     */
+    boolean subscribe(SseEmitter emitter, String lastEventIdHeader) {
+        Long lastSeenEventId = sequenceOf(lastEventIdHeader);
+        Client client = new Client(emitter);
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            long resumeFrom = lastSeenEventId != null && lastSeenEventId <= lastEventId
+                    ? lastSeenEventId
+                    : Math.max(lastEventId - 1, 0);
+            // Buffered events after resumeFrom, as many as the client queue holds
+            long oldest = Math.max(Math.max(lastEventId - ring.length, resumeFrom), lastEventId - clientQueueSize) + 1;
+            for (long id = oldest; id <= lastEventId; id++) {
+                Event event = ring[(int) (id % ring.length)];
+                if (event != null && event.id() == id) {
+                    client.offer(event.frame());
+                }
+            }
+            clients.add(client);
+        } finally {
+            lock.unlock();
+        }
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(client::close);
+        emitter.onError(e -> client.close());
+        lastActivity = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Sequence of a Last-Event-ID issued by this hub, null for anything else
+     */
+    private Long sequenceOf(String eventId) {
+        if (eventId == null) {
+            return null;
+        }
+        String prefix = epoch + "-";
+        String id = eventId.trim();
+        if (!id.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (Client client : clients) {
+            client.ping(ping);
+        }
+    }
+
+    int clientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Close the hub if it had no clients since {@code cutoff}; a closed hub accepts no subscriptions
+     */
+    boolean closeIfIdle(long cutoff) {
+        lock.lock();
+        try {
+            if (clients.isEmpty() && lastActivity < cutoff) {
+                closed = true;
+            }
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void completeAll() {
+        for (Client client : clients) {
+            client.close();
+            client.emitter.complete();
+        }
+    }
+
+    private record Event(long id, Set<ResponseBodyEmitter.DataWithMediaType> frame) {}
+
+    private final class Client {
+        private final SseEmitter emitter;
+        private final ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private boolean closed;
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            synchronized (pending) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= clientQueueSize) {
+                    log.warn("SSE client on {} fell {} events behind, disconnecting", topic, pending.size());
+                    close();
+                    emitter.complete();
+                    return;
+                }
+                pending.add(frame);
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Only for clients with nothing queued; the others receive data anyway
+         */
+        private void ping(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            synchronized (pending) {
+                if (closed || !pending.isEmpty()) {
+                    return;
+                }
+                pending.add(frame);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                writerExecutor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Sends queued frames in order; at most one drain per client runs at a time
+         */
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                synchronized (pending) {
+                    frame = pending.poll();
+                    if (frame == null) {
+                        draining.set(false);
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(frame);
+                } catch (Exception e) {
+                    log.debug("SSE client on {} disconnected: {}", topic, e.getMessage());
+                    close();
+                    emitter.completeWithError(e);
+                    synchronized (pending) {
+                        draining.set(false);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (pending) {
+                closed = true;
+                pending.clear();
+            }
+            clients.remove(this);
+        }
+    }
+}
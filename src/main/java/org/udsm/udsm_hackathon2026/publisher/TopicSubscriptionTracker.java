@@ -0,0 +1,73 @@
+package org.udsm.udsm_hackathon2026.publisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which destinations currently have STOMP subscribers (or SSE clients),
+ * so periodic broadcasters can skip work nobody will receive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicSubscriptionTracker {
+
+    private final SseStreamRegistry sseStreamRegistry;
+
+    /** destination -> "sessionId/subscriptionId" */
+    private final Map<String, Set<String>> subscribers = new ConcurrentHashMap<>();
+
+    /** "sessionId/subscriptionId" -> destination, for UNSUBSCRIBE frames that only carry the id */
+    private final Map<String, String> destinations = new ConcurrentHashMap<>();
+
+    public boolean hasSubscribers(String destination) {
+        Set<String> sessions = subscribers.get(destination);
+        return (sessions != null && !sessions.isEmpty()) || sseStreamRegistry.hasClients(destination);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return;
+        }
+        String key = accessor.getSessionId() + "/" + accessor.getSubscriptionId();
+        destinations.put(key, destination);
+        subscribers.computeIfAbsent(destination, d -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        remove(accessor.getSessionId() + "/" + accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + "/";
+        destinations.keySet().stream()
+                .filter(key -> key.startsWith(prefix))
+                .toList()
+                .forEach(this::remove);
+    }
+
+    private void remove(String key) {
+        String destination = destinations.remove(key);
+        if (destination == null) {
+            return;
+        }
+        subscribers.computeIfPresent(destination, (d, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
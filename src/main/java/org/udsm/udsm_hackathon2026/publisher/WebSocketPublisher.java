@@ -1,9 +1,18 @@
 package org.udsm.udsm_hackathon2026.publisher;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 import org.udsm.udsm_hackathon2026.dto.WebSocketPayload;
+import java.time.Duration;
+import java.util.function.Supplier;
 
 
 @Slf4j
@@ -11,9 +20,106 @@ import org.udsm.udsm_hackathon2026.dto.WebSocketPayload;
 @RequiredArgsConstructor
 public class WebSocketPublisher {
     private final SimpMessagingTemplate messagingTemplate;
+    private final SerializedPayloadCache payloadCache;
+
+    /**
+     * topic -> version and time of the last on-request publish; bounded, since topics carry
+     * client-supplied article ids, and only needed for the length of a coalescing window
+     */
+    private final Cache<String, Published> lastPublished = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .build();
 
     public void publish(String topic, WebSocketPayload payload) {
         log.debug("Publishing to {}: {}", topic, payload);
         messagingTemplate.convertAndSend(topic, payload);
     }
-}
\ No newline at end of file
+
+    /**
+     * Publish a versioned payload that is serialized once and shared with every
+     * other consumer (broadcasts and REST) of the same topic and version.
+     */
+    public void publishSerialized(String topic, long version, Supplier<?> payloadSupplier) {
+        byte[] bytes = serialized(topic, version, payloadSupplier);
+        log.debug("Publishing pre-serialized payload to {} (version {}, {} bytes)", topic, version, bytes.length);
+        messagingTemplate.send(topic, jsonMessage(bytes));
+    }
+
+    /**
+     * Like {@link #publishSerialized}, but skips the broadcast when the same version was already
+     * published to {@code topic} within {@code windowMs}. Used for client-triggered requests, so
+     * a burst of identical requests results in one query and one broadcast.
+     *
+     * @return true if the payload was broadcast
+     */
+    public boolean publishSerializedCoalesced(String topic, long version, long windowMs, Supplier<?> payloadSupplier) {
+        long now = System.currentTimeMillis();
+        boolean[] due = new boolean[1];
+        lastPublished.asMap().compute(topic, (t, previous) -> {
+            if (previous != null && previous.version() == version && now - previous.timestamp() < windowMs) {
+                return previous;
+            }
+            due[0] = true;
+            return new Published(version, now);
+        });
+
+        if (!due[0]) {
+            log.debug("Skipping duplicate publish to {} (version {})", topic, version);
+            return false;
+        }
+        publishSerialized(topic, version, payloadSupplier);
+        return true;
+    }
+
+    /**
+     * Publish a payload that the caller already encoded as JSON
+     */
+    public void publishBytes(String topic, byte[] json) {
+        log.debug("Publishing {} bytes to {}", json.length, topic);
+        messagingTemplate.send(topic, jsonMessage(json));
+    }
+
+    /**
+     * Send a JSON payload to a single session's user destination (e.g. /queue/live/replay).
+     * Works for anonymous sessions: the client subscribes to /user/queue/... and the session id
+     * stands in for the user name.
+     */
+    public void sendToSession(String sessionId, String destination, byte[] json) {
+        Message<byte[]> message = jsonMessage(json, sessionId);
+        messagingTemplate.send("/user/" + sessionId + destination, message);
+    }
+
+    /**
+     * Convert and send a payload to a single session's user destination
+     */
+    public void sendToSession(String sessionId, String destination, Object payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, destination, payload, accessor.getMessageHeaders());
+    }
+
+    /**
+     * Encoded payload for a topic at a data version, shared with {@link #publishSerialized}
+     */
+    public byte[] serialized(String topic, long version, Supplier<?> payloadSupplier) {
+        return payloadCache.get(topic, version, payloadSupplier);
+    }
+
+    private Message<byte[]> jsonMessage(byte[] bytes) {
+        return jsonMessage(bytes, null);
+    }
+
+    private Message<byte[]> jsonMessage(byte[] bytes, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (sessionId != null) {
+            accessor.setSessionId(sessionId);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(bytes, accessor.getMessageHeaders());
+    }
+
+    private record Published(long version, long timestamp) {}
+}
@@ -1,13 +1,19 @@
 package org.udsm.udsm_hackathon2026.repository;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Article Repository using JdbcTemplate for native queries
  * No JPA entity needed since we're using raw SQL
+ * Read-only throughout, so it is served by a read replica when one is configured
  */
 @Repository
+@Transactional(readOnly = true)
 public class ArticleRepository {
 
     private final JdbcTemplate jdbcTemplate;
@@ -16,25 +22,44 @@ public class ArticleRepository {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    private static final String LISTING_SELECT = "SELECT " +
+            "s.submission_id AS id, " +
+            "ps.setting_value AS name " +
+            "FROM submissions s " +
+            "JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "JOIN publication_settings ps ON p.publication_id = ps.publication_id " +
+            "    AND ps.setting_name = 'title' AND ps.locale = 'en_US' " +
+            "WHERE s.status = 3 ";
+
+    private static final String LISTING_ORDER = "ORDER BY ps.setting_value, s.submission_id";
+
     /**
-     * Get all articles with ID and name (title) only
-     * No categories since database doesn't have them set up
+     * One page of published articles (id, name) in (title, id) order, starting after the
+     * given key; pass null for the first page
      */
-    public List<Object[]> findAllArticlesForListing() {
-        String sql = "SELECT " +
-                "s.submission_id AS id, " +
-                "ps.setting_value AS name " +
-                "FROM submissions s " +
-                "JOIN publications p ON s.current_publication_id = p.publication_id " +
-                "JOIN publication_settings ps ON p.publication_id = ps.publication_id " +
-                "    AND ps.setting_name = 'title' AND ps.locale = 'en_US' " +
-                "WHERE s.status = 3 " +
-                "ORDER BY ps.setting_value";
-
+    public List<Object[]> findArticlesForListingAfter(String afterName, Long afterId, int limit) {
+        String sql;
+        Object[] args;
+        if (afterName == null || afterId == null) {
+            sql = LISTING_SELECT + LISTING_ORDER + " LIMIT ?";
+            args = new Object[] { limit };
+        } else {
+            sql = LISTING_SELECT +
+                    "AND (ps.setting_value > ? OR (ps.setting_value = ? AND s.submission_id > ?)) " +
+                    LISTING_ORDER + " LIMIT ?";
+            args = new Object[] { afterName, afterName, afterId, limit };
+        }
         return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] {
                 rs.getLong("id"),
                 rs.getString("name")
-        });
+        }, args);
+    }
+
+    /**
+     * Every published article (id, name) in (title, id) order, read through a forward-only cursor
+     */
+    public void streamArticlesForListing(int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(StreamingQueries.forwardOnly(LISTING_SELECT + LISTING_ORDER, fetchSize), handler);
     }
 
     /**
@@ -65,10 +90,45 @@ public class ArticleRepository {
     }
 
     /**
-     * Get all author names for an article
+     * Title, abstract and current publication id for several published articles; ids of
+     * unpublished or missing articles get no row
+     * Returns rows of (id, name, abstract, publication_id)
      */
-    public List<String> findAuthorNamesByPublicationId(Long publicationId) {
+    public List<Object[]> findArticleSummariesByIds(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return List.of();
+        }
         String sql = "SELECT " +
+                "s.submission_id AS id, " +
+                "MAX(CASE WHEN ps.setting_name = 'title' THEN ps.setting_value END) AS name, " +
+                "MAX(CASE WHEN ps.setting_name = 'abstract' THEN ps.setting_value END) AS abstract, " +
+                "p.publication_id " +
+                "FROM submissions s " +
+                "JOIN publications p ON s.current_publication_id = p.publication_id " +
+                "LEFT JOIN publication_settings ps ON p.publication_id = ps.publication_id " +
+                "    AND ps.locale = 'en_US' AND ps.setting_name IN ('title', 'abstract') " +
+                "WHERE s.submission_id IN (" + placeholders(articleIds.size()) + ") " +
+                "AND s.status = 3 " +
+                "GROUP BY s.submission_id, p.publication_id";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] {
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("abstract"),
+                rs.getLong("publication_id")
+        }, articleIds.toArray());
+    }
+
+    /**
+     * Author names for several publications, in author order
+     * Returns rows of (publication_id, author_name)
+     */
+    public List<Object[]> findAuthorNamesByPublicationIds(Collection<Long> publicationIds) {
+        if (publicationIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT " +
+                "a.publication_id, " +
                 "COALESCE( " +
                 "    MAX(CASE WHEN aus.setting_name = 'preferredPublicName' THEN aus.setting_value END), " +
                 "    CONCAT( " +
@@ -79,12 +139,18 @@ public class ArticleRepository {
                 ") AS author_name " +
                 "FROM authors a " +
                 "LEFT JOIN author_settings aus ON a.author_id = aus.author_id " +
-                "WHERE a.publication_id = ? " +
+                "WHERE a.publication_id IN (" + placeholders(publicationIds.size()) + ") " +
                 "AND a.include_in_browse = 1 " +
-                "GROUP BY a.author_id, a.seq " +
-                "ORDER BY a.seq";
+                "GROUP BY a.publication_id, a.author_id, a.seq " +
+                "ORDER BY a.publication_id, a.seq";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] {
+                rs.getLong("publication_id"),
+                rs.getString("author_name")
+        }, publicationIds.toArray());
+    }
 
-        return jdbcTemplate.query(sql, (rs, rowNum) ->
-                rs.getString("author_name"), publicationId);
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package org.udsm.udsm_hackathon2026.repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+/**
+ * Author listing with names, affiliation and country pivoted from author_settings in SQL,
+ * in author_id order. Rows are (author_id, email, given_name, family_name, affiliation, country).
+ */
+@Repository
+@Transactional(readOnly = true)
+public class AuthorListingRepository {
+
+    private static final String LISTING_SELECT = "SELECT a.author_id, a.email, " +
+            "MAX(CASE WHEN s.setting_name = 'givenName' THEN s.setting_value END) AS given_name, " +
+            "MAX(CASE WHEN s.setting_name = 'familyName' THEN s.setting_value END) AS family_name, " +
+            "MAX(CASE WHEN s.setting_name = 'affiliation' THEN s.setting_value END) AS affiliation, " +
+            "MAX(CASE WHEN s.setting_name = 'country' THEN s.setting_value END) AS country " +
+            "FROM authors a " +
+            "LEFT JOIN author_settings s ON s.author_id = a.author_id " +
+            "    AND s.setting_name IN ('givenName', 'familyName', 'affiliation', 'country') ";
+
+    private static final String LISTING_GROUP = "GROUP BY a.author_id, a.email ORDER BY a.author_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuthorListingRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to {@code limit} authors with author_id greater than {@code afterId} (null for the first page)
+     */
+    public List<Object[]> findPageAfter(Long afterId, int limit) {
+        return jdbcTemplate.query(
+                LISTING_SELECT +
+                "WHERE a.author_id > ? " +
+                LISTING_GROUP + " LIMIT ?",
+                (rs, rowNum) -> new Object[] {
+                        rs.getLong("author_id"),
+                        rs.getString("email"),
+                        rs.getString("given_name"),
+                        rs.getString("family_name"),
+                        rs.getString("affiliation"),
+                        rs.getString("country")
+                },
+                afterId != null ? afterId : 0L, limit);
+    }
+
+    /**
+     * Every author, read through a forward-only cursor
+     */
+    public void streamAll(int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(StreamingQueries.forwardOnly(LISTING_SELECT + LISTING_GROUP, fetchSize), handler);
+    }
+}
@@ -3,20 +3,20 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.udsm.udsm_hackathon2026.model.Author;
 import java.util.List;
 
+/**
+ * Query methods run read-only (and so on a replica when one is configured) also when called
+ * outside a service transaction, as the dashboard fan-out branches do.
+ * Native statements are constants so AnalyticsAccessPaths can EXPLAIN and benchmark them.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface AuthorRepository extends JpaRepository<Author, Long> {
     List<Author> findByPublicationIdOrderBySeqAsc(Long publicationId);
     
-    /**
-     * Get all distinct authors for the authors list endpoint
-     * Returns all unique authors ordered by author_id
-     */
-    @Query("SELECT DISTINCT a FROM Author a ORDER BY a.authorId ASC")
-    List<Author> findAllDistinctAuthors();
-    
     // ============= Dashboard Metrics Queries =============
     
     /**
@@ -64,49 +64,53 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     /**
      * Calculate average review days for published articles
      */
-    @Query(value = "SELECT AVG(DATEDIFF(p.date_published, s.date_submitted)) " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
-                   "AND s.date_submitted IS NOT NULL",
-           nativeQuery = true)
+    String CALCULATE_AVERAGE_REVIEW_DAYS = "SELECT AVG(DATEDIFF(p.date_published, s.date_submitted)) " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
+            "AND s.date_submitted IS NOT NULL";
+
+    @Query(value = CALCULATE_AVERAGE_REVIEW_DAYS, nativeQuery = true)
     Double calculateAverageReviewDays(@Param("email") String email);
     
     /**
      * Find fastest review time (minimum days)
      */
-    @Query(value = "SELECT MIN(DATEDIFF(p.date_published, s.date_submitted)) " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
-                   "AND s.date_submitted IS NOT NULL",
-           nativeQuery = true)
+    String FIND_FASTEST_REVIEW_DAYS = "SELECT MIN(DATEDIFF(p.date_published, s.date_submitted)) " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
+            "AND s.date_submitted IS NOT NULL";
+
+    @Query(value = FIND_FASTEST_REVIEW_DAYS, nativeQuery = true)
     Long findFastestReviewDays(@Param("email") String email);
     
     /**
      * Find longest review time (maximum days)
      */
-    @Query(value = "SELECT MAX(DATEDIFF(p.date_published, s.date_submitted)) " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
-                   "AND s.date_submitted IS NOT NULL",
-           nativeQuery = true)
+    String FIND_LONGEST_REVIEW_DAYS = "SELECT MAX(DATEDIFF(p.date_published, s.date_submitted)) " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
+            "AND s.date_submitted IS NOT NULL";
+
+    @Query(value = FIND_LONGEST_REVIEW_DAYS, nativeQuery = true)
     Long findLongestReviewDays(@Param("email") String email);
     
     /**
      * Find submissions currently in review with days pending
      * Returns: submission_id, days_pending
      */
-    @Query(value = "SELECT s.submission_id, DATEDIFF(CURDATE(), s.date_submitted) as days_pending " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "WHERE a.email = :email AND s.status = 1 AND s.date_submitted IS NOT NULL " +
-                   "ORDER BY days_pending DESC",
-           nativeQuery = true)
+    String FIND_CURRENT_IN_REVIEW = "SELECT s.submission_id, DATEDIFF(CURDATE(), s.date_submitted) as days_pending " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "WHERE a.email = :email AND s.status = 1 AND s.date_submitted IS NOT NULL " +
+            "ORDER BY days_pending DESC";
+
+    @Query(value = FIND_CURRENT_IN_REVIEW, nativeQuery = true)
     List<Object[]> findCurrentInReview(@Param("email") String email);
     
     // ============= Productivity Queries =============
@@ -114,40 +118,43 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     /**
      * Count articles published this year
      */
-    @Query(value = "SELECT COUNT(DISTINCT s.submission_id) " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE a.email = :email AND s.status = 3 " +
-                   "AND YEAR(p.date_published) = YEAR(CURDATE())",
-           nativeQuery = true)
+    String COUNT_ARTICLES_THIS_YEAR = "SELECT COUNT(DISTINCT s.submission_id) " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE a.email = :email AND s.status = 3 " +
+            "AND YEAR(p.date_published) = YEAR(CURDATE())";
+
+    @Query(value = COUNT_ARTICLES_THIS_YEAR, nativeQuery = true)
     Long countArticlesThisYear(@Param("email") String email);
     
     /**
      * Count articles published this month
      */
-    @Query(value = "SELECT COUNT(DISTINCT s.submission_id) " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE a.email = :email AND s.status = 3 " +
-                   "AND YEAR(p.date_published) = YEAR(CURDATE()) " +
-                   "AND MONTH(p.date_published) = MONTH(CURDATE())",
-           nativeQuery = true)
+    String COUNT_ARTICLES_THIS_MONTH = "SELECT COUNT(DISTINCT s.submission_id) " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE a.email = :email AND s.status = 3 " +
+            "AND YEAR(p.date_published) = YEAR(CURDATE()) " +
+            "AND MONTH(p.date_published) = MONTH(CURDATE())";
+
+    @Query(value = COUNT_ARTICLES_THIS_MONTH, nativeQuery = true)
     Long countArticlesThisMonth(@Param("email") String email);
     
     /**
      * Get yearly breakdown of publications
      * Returns: year, count
      */
-    @Query(value = "SELECT YEAR(p.date_published) as year, COUNT(DISTINCT s.submission_id) as count " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
-                   "GROUP BY YEAR(p.date_published) " +
-                   "ORDER BY year DESC",
-           nativeQuery = true)
+    String FIND_YEARLY_BREAKDOWN = "SELECT YEAR(p.date_published) as year, COUNT(DISTINCT s.submission_id) as count " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE a.email = :email AND s.status = 3 AND p.date_published IS NOT NULL " +
+            "GROUP BY YEAR(p.date_published) " +
+            "ORDER BY year DESC";
+
+    @Query(value = FIND_YEARLY_BREAKDOWN, nativeQuery = true)
     List<Object[]> findYearlyBreakdown(@Param("email") String email);
     
     // ============= Ranking Queries =============
@@ -156,20 +163,21 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
      * Calculate all authors' scores for ranking
      * Returns: email, total_submissions, published_count, acceptance_rate, recent_count, score
      */
-    @Query(value = "SELECT " +
-                   "a.email, " +
-                   "COUNT(DISTINCT s.submission_id) as total_submissions, " +
-                   "SUM(CASE WHEN s.status = 3 THEN 1 ELSE 0 END) as published_count, " +
-                   "CASE WHEN COUNT(DISTINCT s.submission_id) > 0 " +
-                   "THEN (SUM(CASE WHEN s.status = 3 THEN 1 ELSE 0 END) * 100.0 / COUNT(DISTINCT s.submission_id)) " +
-                   "ELSE 0 END as acceptance_rate, " +
-                   "SUM(CASE WHEN p.date_published >= DATE_SUB(CURDATE(), INTERVAL 1 YEAR) AND s.status = 3 " +
-                   "THEN 1 ELSE 0 END) as recent_count " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "LEFT JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "GROUP BY a.email",
-           nativeQuery = true)
+    String CALCULATE_ALL_AUTHORS_SCORES = "SELECT " +
+            "a.email, " +
+            "COUNT(DISTINCT s.submission_id) as total_submissions, " +
+            "SUM(CASE WHEN s.status = 3 THEN 1 ELSE 0 END) as published_count, " +
+            "CASE WHEN COUNT(DISTINCT s.submission_id) > 0 " +
+            "THEN (SUM(CASE WHEN s.status = 3 THEN 1 ELSE 0 END) * 100.0 / COUNT(DISTINCT s.submission_id)) " +
+            "ELSE 0 END as acceptance_rate, " +
+            "SUM(CASE WHEN p.date_published >= DATE_SUB(CURDATE(), INTERVAL 1 YEAR) AND s.status = 3 " +
+            "THEN 1 ELSE 0 END) as recent_count " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "LEFT JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "GROUP BY a.email";
+
+    @Query(value = CALCULATE_ALL_AUTHORS_SCORES, nativeQuery = true)
     List<Object[]> calculateAllAuthorsScores();
     
     /**
@@ -184,24 +192,26 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
      * Get all submissions with timeline details for an author
      * Returns: submission_id, status, stage_id, date_submitted, date_published
      */
-    @Query(value = "SELECT s.submission_id, s.status, s.stage_id, s.date_submitted, p.date_published " +
-                   "FROM authors a " +
-                   "JOIN submissions s ON a.publication_id = s.current_publication_id " +
-                   "LEFT JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE a.email = :email " +
-                   "ORDER BY s.date_submitted DESC",
-           nativeQuery = true)
+    String FIND_SUBMISSION_TIMELINE = "SELECT s.submission_id, s.status, s.stage_id, s.date_submitted, p.date_published " +
+            "FROM authors a " +
+            "JOIN submissions s ON a.publication_id = s.current_publication_id " +
+            "LEFT JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE a.email = :email " +
+            "ORDER BY s.date_submitted DESC";
+
+    @Query(value = FIND_SUBMISSION_TIMELINE, nativeQuery = true)
     List<Object[]> findSubmissionTimeline(@Param("email") String email);
     
     /**
      * Calculate average days in each stage across all submissions
      * Returns: stage_id, avg_days
      */
-    @Query(value = "SELECT s.stage_id, AVG(DATEDIFF(COALESCE(p.date_published, CURDATE()), s.date_submitted)) as avg_days " +
-                   "FROM submissions s " +
-                   "LEFT JOIN publications p ON s.current_publication_id = p.publication_id " +
-                   "WHERE s.date_submitted IS NOT NULL " +
-                   "GROUP BY s.stage_id",
-           nativeQuery = true)
+    String FIND_AVERAGE_DAYS_PER_STAGE = "SELECT s.stage_id, AVG(DATEDIFF(COALESCE(p.date_published, CURDATE()), s.date_submitted)) as avg_days " +
+            "FROM submissions s " +
+            "LEFT JOIN publications p ON s.current_publication_id = p.publication_id " +
+            "WHERE s.date_submitted IS NOT NULL " +
+            "GROUP BY s.stage_id";
+
+    @Query(value = FIND_AVERAGE_DAYS_PER_STAGE, nativeQuery = true)
     List<Object[]> findAverageDaysPerStage();
 }
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.udsm.udsm_hackathon2026.model.Metric;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,59 +19,113 @@ public interface MetricRepository extends JpaRepository<Metric, Long> {
      * metrics.country_id = ISO 2-letter country code
      * metrics.submission_id = the article
      * metrics.day = date string like '20260213'
+     *
+     * Each statement is also a constant, so AnalyticsAccessPaths can EXPLAIN and benchmark
+     * exactly what runs here.
      */
 
     // ── Total downloads: SUM(metric) where assoc_type = 515 ──
-    @Query(value = "SELECT COALESCE(SUM(m.metric), 0) FROM metrics m WHERE m.assoc_type = 515",
-            nativeQuery = true)
+    String SUM_TOTAL_DOWNLOADS = "SELECT COALESCE(SUM(m.metric), 0) FROM metrics m WHERE m.assoc_type = 515";
+
+    @Query(value = SUM_TOTAL_DOWNLOADS, nativeQuery = true)
     long sumTotalDownloads();
 
-    @Query(value = "SELECT COALESCE(SUM(m.metric), 0) FROM metrics m WHERE m.assoc_type = 1048585",
-            nativeQuery = true)
+    String SUM_TOTAL_READERS = "SELECT COALESCE(SUM(m.metric), 0) FROM metrics m WHERE m.assoc_type = 1048585";
+
+    @Query(value = SUM_TOTAL_READERS, nativeQuery = true)
     long sumTotalReaders();
 
+    // ── Distinct countries with any readership or download ──
+    String FIND_DISTINCT_COUNTRIES = "SELECT DISTINCT m.country_id FROM metrics m " +
+            "WHERE m.assoc_type IN (256, 1048585, 515) " +
+            "AND m.country_id IS NOT NULL AND m.country_id <> ''";
+
+    @Query(value = FIND_DISTINCT_COUNTRIES, nativeQuery = true)
+    List<String> findDistinctCountries();
+
+    // ── Home bundle: every home-page aggregate in one round trip ──
+    // Rows of (dim, key, reads 1048585, downloads 515, legacy readership 256):
+    //   dim = 'month'   key = metrics.month (NULL month rows still count towards totals)
+    //   dim = 'country' key = country code
+    //   dim = 'article' key = submission_id
+    //   dim = 'count'   key = 'citations' | 'articles', count in the reads column
+    String GET_HOME_BUNDLE_AGGREGATES = "SELECT 'month' AS dim, m.month AS k, " +
+            "SUM(CASE WHEN m.assoc_type = 1048585 THEN m.metric ELSE 0 END) AS r_total, " +
+            "SUM(CASE WHEN m.assoc_type = 515 THEN m.metric ELSE 0 END) AS d_total, " +
+            "SUM(CASE WHEN m.assoc_type = 256 THEN m.metric ELSE 0 END) AS l_total " +
+            "FROM metrics m " +
+            "WHERE m.assoc_type IN (256, 515, 1048585) " +
+            "GROUP BY m.month " +
+            "UNION ALL " +
+            "SELECT 'country', COALESCE(NULLIF(m.country_id, ''), 'Unknown'), " +
+            "SUM(CASE WHEN m.assoc_type = 1048585 THEN m.metric ELSE 0 END), " +
+            "SUM(CASE WHEN m.assoc_type = 515 THEN m.metric ELSE 0 END), " +
+            "SUM(CASE WHEN m.assoc_type = 256 THEN m.metric ELSE 0 END) " +
+            "FROM metrics m " +
+            "WHERE m.assoc_type IN (256, 515) AND m.country_id IS NOT NULL " +
+            "GROUP BY m.country_id " +
+            "UNION ALL " +
+            "SELECT 'article', CAST(m.submission_id AS CHAR), " +
+            "SUM(CASE WHEN m.assoc_type = 1048585 THEN m.metric ELSE 0 END), " +
+            "SUM(CASE WHEN m.assoc_type = 515 THEN m.metric ELSE 0 END), " +
+            "0 " +
+            "FROM metrics m " +
+            "WHERE m.assoc_type IN (515, 1048585) AND m.submission_id IS NOT NULL " +
+            "GROUP BY m.submission_id " +
+            "UNION ALL " +
+            "SELECT 'count', 'citations', COUNT(*), 0, 0 FROM citations " +
+            "UNION ALL " +
+            "SELECT 'count', 'articles', COUNT(*), 0, 0 FROM publications";
+
+    @Query(value = GET_HOME_BUNDLE_AGGREGATES, nativeQuery = true)
+    List<Object[]> getHomeBundleAggregates();
+
     // ── Top readership countries ──
-    @Query(value = "SELECT COALESCE(NULLIF(m.country_id, ''), 'Unknown') AS country, " +
+    String FIND_TOP_READERSHIP_COUNTRIES = "SELECT m.country_id AS country, " +
             "SUM(m.metric) AS total " +
             "FROM metrics m " +
-            "WHERE m.assoc_type = 256 AND m.country_id IS NOT NULL " +
+            "WHERE m.assoc_type = 256 AND m.country_id <> '' " +
             "GROUP BY m.country_id " +
             "ORDER BY total DESC " +
-            "LIMIT :limit",
-            nativeQuery = true)
+            "LIMIT :limit";
+
+    @Query(value = FIND_TOP_READERSHIP_COUNTRIES, nativeQuery = true)
     List<Object[]> findTopReadershipCountries(@Param("limit") int limit);
 
     // ── Top download countries ──
-    @Query(value = "SELECT COALESCE(NULLIF(m.country_id, ''), 'Unknown') AS country, " +
+    String FIND_TOP_DOWNLOAD_COUNTRIES = "SELECT m.country_id AS country, " +
             "SUM(m.metric) AS total " +
             "FROM metrics m " +
-            "WHERE m.assoc_type = 515 AND m.country_id IS NOT NULL " +
+            "WHERE m.assoc_type = 515 AND m.country_id <> '' " +
             "GROUP BY m.country_id " +
             "ORDER BY total DESC " +
-            "LIMIT :limit",
-            nativeQuery = true)
+            "LIMIT :limit";
+
+    @Query(value = FIND_TOP_DOWNLOAD_COUNTRIES, nativeQuery = true)
     List<Object[]> findTopDownloadCountries(@Param("limit") int limit);
 
     // ── Top read articles (by submission_id) ──
-    @Query(value = "SELECT m.submission_id, SUM(m.metric) AS total " +
+    String FIND_TOP_READ_ARTICLES = "SELECT m.submission_id, SUM(m.metric) AS total " +
             "FROM metrics m " +
             "WHERE m.assoc_type = 1048585 AND m.submission_id IS NOT NULL " +
             "GROUP BY m.submission_id " +
             "ORDER BY total DESC " +
-            "LIMIT :limit",
-            nativeQuery = true)
+            "LIMIT :limit";
+
+    @Query(value = FIND_TOP_READ_ARTICLES, nativeQuery = true)
     List<Object[]> findTopReadArticles(@Param("limit") int limit);
 
     // ── Aggregate by country for a date range (readership or downloads) ──
-    @Query(value = "SELECT COALESCE(NULLIF(m.country_id, ''), 'Unknown') AS country, " +
+    String AGGREGATE_BY_COUNTRY_AND_DATE_RANGE = "SELECT COALESCE(NULLIF(m.country_id, ''), 'Unknown') AS country, " +
             "SUM(m.metric) AS total " +
             "FROM metrics m " +
             "WHERE m.assoc_type = :assocType " +
             "AND m.day BETWEEN :fromDay AND :toDay " +
             "AND (:submissionId IS NULL OR m.submission_id = :submissionId) " +
             "GROUP BY m.country_id " +
-            "ORDER BY total DESC",
-            nativeQuery = true)
+            "ORDER BY total DESC";
+
+    @Query(value = AGGREGATE_BY_COUNTRY_AND_DATE_RANGE, nativeQuery = true)
     List<Object[]> aggregateByCountryAndDateRange(@Param("assocType") long assocType,
                                                   @Param("fromDay") String fromDay,
                                                   @Param("toDay") String toDay,
@@ -84,39 +139,42 @@ public interface MetricRepository extends JpaRepository<Metric, Long> {
      * Get total downloads for a specific article
      * assoc_type = 515 typically represents file downloads in OJS
      */
-    @Query(value = "SELECT COALESCE(SUM(m.metric), 0) " +
+    String GET_TOTAL_DOWNLOADS_BY_ARTICLE = "SELECT COALESCE(SUM(m.metric), 0) " +
             "FROM metrics m " +
             "WHERE m.submission_id = :submissionId " +
-            "AND m.assoc_type = 515",
-            nativeQuery = true)
+            "AND m.assoc_type = 515";
+
+    @Query(value = GET_TOTAL_DOWNLOADS_BY_ARTICLE, nativeQuery = true)
     long getTotalDownloadsByArticle(@Param("submissionId") Long submissionId);
 
     /**
      * Get total reads/views for a specific article
      * assoc_type = 1048585 represents article views
      */
-    @Query(value = "SELECT COALESCE(SUM(m.metric), 0) " +
+    String GET_TOTAL_READS_BY_ARTICLE = "SELECT COALESCE(SUM(m.metric), 0) " +
             "FROM metrics m " +
             "WHERE m.submission_id = :submissionId " +
-            "AND m.assoc_type = 1048585",
-            nativeQuery = true)
+            "AND m.assoc_type = 1048585";
+
+    @Query(value = GET_TOTAL_READS_BY_ARTICLE, nativeQuery = true)
     long getTotalReadsByArticle(@Param("submissionId") Long submissionId);
 
     /**
      * Get total readers (unique views) for a specific article
      * For simplicity, using the sum of metrics as proxy for total readers
      */
-    @Query(value = "SELECT COALESCE(SUM(m.metric), 0) " +
+    String GET_TOTAL_READERS_BY_ARTICLE = "SELECT COALESCE(SUM(m.metric), 0) " +
             "FROM metrics m " +
             "WHERE m.submission_id = :submissionId " +
-            "AND m.assoc_type = 1048585",
-            nativeQuery = true)
+            "AND m.assoc_type = 1048585";
+
+    @Query(value = GET_TOTAL_READERS_BY_ARTICLE, nativeQuery = true)
     long getTotalReadersByArticle(@Param("submissionId") Long submissionId);
 
     /**
      * Get geographical distribution of reads for a specific article
      */
-    @Query(value = "SELECT " +
+    String GET_GEOGRAPHICAL_READS_BY_ARTICLE = "SELECT " +
             "COALESCE(NULLIF(m.country_id, ''), 'Unknown') AS country, " +
             "COALESCE(NULLIF(m.region, ''), 'Unknown') AS region, " +
             "COALESCE(NULLIF(m.city, ''), 'Unknown') AS city, " +
@@ -125,14 +183,15 @@ public interface MetricRepository extends JpaRepository<Metric, Long> {
             "WHERE m.submission_id = :submissionId " +
             "AND m.assoc_type = 1048585 " +
             "GROUP BY m.country_id, m.region, m.city " +
-            "ORDER BY total DESC",
-            nativeQuery = true)
+            "ORDER BY total DESC";
+
+    @Query(value = GET_GEOGRAPHICAL_READS_BY_ARTICLE, nativeQuery = true)
     List<Object[]> getGeographicalReadsByArticle(@Param("submissionId") Long submissionId);
 
     /**
      * Get geographical distribution of downloads for a specific article
      */
-    @Query(value = "SELECT " +
+    String GET_GEOGRAPHICAL_DOWNLOADS_BY_ARTICLE = "SELECT " +
             "COALESCE(NULLIF(m.country_id, ''), 'Unknown') AS country, " +
             "COALESCE(NULLIF(m.region, ''), 'Unknown') AS region, " +
             "COALESCE(NULLIF(m.city, ''), 'Unknown') AS city, " +
@@ -141,127 +200,79 @@ public interface MetricRepository extends JpaRepository<Metric, Long> {
             "WHERE m.submission_id = :submissionId " +
             "AND m.assoc_type = 515 " +
             "GROUP BY m.country_id, m.region, m.city " +
-            "ORDER BY total DESC",
-            nativeQuery = true)
+            "ORDER BY total DESC";
+
+    @Query(value = GET_GEOGRAPHICAL_DOWNLOADS_BY_ARTICLE, nativeQuery = true)
     List<Object[]> getGeographicalDownloadsByArticle(@Param("submissionId") Long submissionId);
 
+    /**
+     * Geographical distribution for several articles in one pass (reads: 1048585, downloads: 515)
+     * Returns rows of (submission_id, country, region, city, total)
+     */
+    String GET_GEOGRAPHICAL_DISTRIBUTION_BY_ARTICLES = "SELECT " +
+            "m.submission_id AS submission_id, " +
+            "COALESCE(NULLIF(m.country_id, ''), 'Unknown') AS country, " +
+            "COALESCE(NULLIF(m.region, ''), 'Unknown') AS region, " +
+            "COALESCE(NULLIF(m.city, ''), 'Unknown') AS city, " +
+            "SUM(m.metric) AS total " +
+            "FROM metrics m " +
+            "WHERE m.submission_id IN (:submissionIds) " +
+            "AND m.assoc_type = :assocType " +
+            "GROUP BY m.submission_id, m.country_id, m.region, m.city " +
+            "ORDER BY m.submission_id, total DESC";
+
+    @Query(value = GET_GEOGRAPHICAL_DISTRIBUTION_BY_ARTICLES, nativeQuery = true)
+    List<Object[]> getGeographicalDistributionByArticles(@Param("submissionIds") Collection<Long> submissionIds,
+                                                         @Param("assocType") int assocType);
+
     // ══════════════════════════════════════════════════════════════
-    // ENHANCED: MONTHLY VIEWS AND DOWNLOADS COMBINED
+    // MONTHLY VIEWS AND DOWNLOADS (one conditional-aggregation pass)
     // ══════════════════════════════════════════════════════════════
 
     /**
-     * Get monthly views AND downloads statistics for an article
-     * Returns data grouped by month for comprehensive time-series visualization
+     * Views (1048585) and downloads (515) per month for months in [fromMonth, toMonth] (YYYYMM)
+     * Returns rows of (month, views, downloads); months without data are absent
      */
-    @Query(value = "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") views " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") downloads ON views.month = downloads.month " +
-            "UNION " +
-            "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") downloads " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") views ON downloads.month = views.month " +
-            "WHERE views.month IS NULL " +
-            "ORDER BY month ASC",
-            nativeQuery = true)
-    List<Object[]> getMonthlyMetricsByArticle(@Param("submissionId") Long submissionId);
+    String GET_MONTHLY_SERIES = "SELECT m.month, " +
+            "SUM(CASE WHEN m.assoc_type = 1048585 THEN m.metric ELSE 0 END) AS views, " +
+            "SUM(CASE WHEN m.assoc_type = 515 THEN m.metric ELSE 0 END) AS downloads " +
+            "FROM metrics m " +
+            "WHERE m.assoc_type IN (515, 1048585) " +
+            "AND m.month BETWEEN :fromMonth AND :toMonth " +
+            "GROUP BY m.month";
+
+    @Query(value = GET_MONTHLY_SERIES, nativeQuery = true)
+    List<Object[]> getMonthlySeries(@Param("fromMonth") String fromMonth, @Param("toMonth") String toMonth);
 
     /**
-     * Get monthly views AND downloads statistics for an article filtered by year
-     * Returns data grouped by month for a specific year
+     * Same as {@link #getMonthlySeries} for one article
      */
-    @Query(value = "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") views " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") downloads ON views.month = downloads.month " +
-            "UNION " +
-            "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") downloads " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.submission_id = :submissionId " +
-            "    AND m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") views ON downloads.month = views.month " +
-            "WHERE views.month IS NULL " +
-            "ORDER BY month ASC",
-            nativeQuery = true)
-    List<Object[]> getMonthlyMetricsByArticleAndYear(@Param("submissionId") Long submissionId, @Param("year") Integer year);
-
-    @Query(value = """
+    String GET_MONTHLY_SERIES_BY_ARTICLE = "SELECT m.month, " +
+            "SUM(CASE WHEN m.assoc_type = 1048585 THEN m.metric ELSE 0 END) AS views, " +
+            "SUM(CASE WHEN m.assoc_type = 515 THEN m.metric ELSE 0 END) AS downloads " +
+            "FROM metrics m " +
+            "WHERE m.submission_id = :submissionId " +
+            "AND m.assoc_type IN (515, 1048585) " +
+            "AND m.month BETWEEN :fromMonth AND :toMonth " +
+            "GROUP BY m.month";
+
+    @Query(value = GET_MONTHLY_SERIES_BY_ARTICLE, nativeQuery = true)
+    List<Object[]> getMonthlySeriesByArticle(@Param("submissionId") Long submissionId,
+                                             @Param("fromMonth") String fromMonth,
+                                             @Param("toMonth") String toMonth);
+
+    String FIND_FIRST_MONTH = "SELECT MIN(m.month) FROM metrics m WHERE m.assoc_type IN (515, 1048585)";
+
+    @Query(value = FIND_FIRST_MONTH, nativeQuery = true)
+    String findFirstMonth();
+
+    String FIND_FIRST_MONTH_BY_ARTICLE = "SELECT MIN(m.month) FROM metrics m " +
+            "WHERE m.submission_id = :submissionId AND m.assoc_type IN (515, 1048585)";
+
+    @Query(value = FIND_FIRST_MONTH_BY_ARTICLE, nativeQuery = true)
+    String findFirstMonthByArticle(@Param("submissionId") Long submissionId);
+
+    String FIND_TOP_DOWNLOADED_ARTICLES = """
         SELECT m.submission_id, SUM(m.metric) AS total
         FROM metrics m
         WHERE m.assoc_type = 515
@@ -269,115 +280,8 @@ public interface MetricRepository extends JpaRepository<Metric, Long> {
         GROUP BY m.submission_id
         ORDER BY total DESC
         LIMIT :limit
-        """,
-            nativeQuery = true)
-    List<Object[]> findTopDownloadedArticles(@Param("limit") int limit);
-
-    // ══════════════════════════════════════════════════════════════
-    // GENERAL ANALYTICS: TOTAL MONTHLY METRICS FOR ALL ARTICLES
-    // ══════════════════════════════════════════════════════════════
+        """;
 
-    /**
-     * Get total monthly views AND downloads statistics for ALL articles combined
-     * Returns data grouped by month for comprehensive dashboard analytics
-     */
-    @Query(value = "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") views " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") downloads ON views.month = downloads.month " +
-            "UNION " +
-            "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") downloads " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    GROUP BY m.month " +
-            ") views ON downloads.month = views.month " +
-            "WHERE views.month IS NULL " +
-            "ORDER BY month ASC",
-            nativeQuery = true)
-    List<Object[]> getTotalMonthlyMetrics();
-
-    /**
-     * Get total monthly views AND downloads statistics for ALL articles filtered by year
-     * Returns data grouped by month for a specific year across all articles
-     */
-    @Query(value = "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") views " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") downloads ON views.month = downloads.month " +
-            "UNION " +
-            "SELECT " +
-            "COALESCE(views.month, downloads.month) AS month, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 1, 4) AS UNSIGNED) AS year, " +
-            "CAST(SUBSTRING(COALESCE(views.month, downloads.month), 5, 2) AS UNSIGNED) AS month_num, " +
-            "COALESCE(views.total_views, 0) AS views, " +
-            "COALESCE(downloads.total_downloads, 0) AS downloads " +
-            "FROM ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_downloads " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 515 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") downloads " +
-            "LEFT JOIN ( " +
-            "    SELECT m.month, SUM(m.metric) AS total_views " +
-            "    FROM metrics m " +
-            "    WHERE m.assoc_type = 1048585 " +
-            "    AND m.month IS NOT NULL " +
-            "    AND CAST(SUBSTRING(m.month, 1, 4) AS UNSIGNED) = :year " +
-            "    GROUP BY m.month " +
-            ") views ON downloads.month = views.month " +
-            "WHERE views.month IS NULL " +
-            "ORDER BY month ASC",
-            nativeQuery = true)
-    List<Object[]> getTotalMonthlyMetricsByYear(@Param("year") Integer year);
+    @Query(value = FIND_TOP_DOWNLOADED_ARTICLES, nativeQuery = true)
+    List<Object[]> findTopDownloadedArticles(@Param("limit") int limit);
 }
\ No newline at end of file
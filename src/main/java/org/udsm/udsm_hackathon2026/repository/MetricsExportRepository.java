@@ -0,0 +1,86 @@
+package org.udsm.udsm_hackathon2026.repository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Raw metrics rows for data exports, read through a forward-only cursor.
+ * Rows are (submission_id, assoc_type, day, month, country_id, region, city, metric_type, metric).
+ */
+@Slf4j
+@Repository
+@Transactional(readOnly = true)
+public class MetricsExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MetricsExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stream rows matching the filters (null = no filter on that column). There is no ORDER BY, so
+     * the server can send rows as it finds them instead of sorting the whole result first.
+     * If the handler throws, the running statement is cancelled before the exception propagates,
+     * so an abandoned export does not keep reading the rest of the result on the server.
+     */
+    public void stream(Long submissionId, List<Long> assocTypes, String fromDay, String toDay, String countryId,
+                       int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT m.submission_id, m.assoc_type, m.day, m.month, m.country_id, m.region, m.city, " +
+                "m.metric_type, m.metric " +
+                "FROM metrics m WHERE m.assoc_type IN (");
+        List<Object> args = new ArrayList<>();
+        for (int i = 0; i < assocTypes.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(assocTypes.get(i));
+        }
+        sql.append(")");
+        if (submissionId != null) {
+            sql.append(" AND m.submission_id = ?");
+            args.add(submissionId);
+        }
+        if (fromDay != null) {
+            sql.append(" AND m.day >= ?");
+            args.add(fromDay);
+        }
+        if (toDay != null) {
+            sql.append(" AND m.day <= ?");
+            args.add(toDay);
+        }
+        if (countryId != null) {
+            sql.append(" AND m.country_id = ?");
+            args.add(countryId);
+        }
+
+        jdbcTemplate.execute(StreamingQueries.forwardOnly(sql.toString(), fetchSize, args.toArray()),
+                (PreparedStatement statement) -> {
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            try {
+                                handler.processRow(rs);
+                            } catch (RuntimeException e) {
+                                cancel(statement);
+                                throw e;
+                            }
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private static void cancel(PreparedStatement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            log.debug("Could not cancel export query", e);
+        }
+    }
+}
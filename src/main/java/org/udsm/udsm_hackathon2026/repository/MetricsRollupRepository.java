@@ -0,0 +1,210 @@
+package org.udsm.udsm_hackathon2026.repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * metrics_daily_rollup: SUM(metric) per (submission_id, assoc_type, day, country_id).
+ *
+ * The query methods return the same row shapes as their MetricRepository counterparts,
+ * so callers can switch between raw and rollup reads without changing their mapping.
+ */
+@Repository
+public class MetricsRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MetricsRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // MAINTENANCE
+    // ══════════════════════════════════════════════════════════════
+
+    /**
+     * Add {@code delta} to one rollup cell, creating it when missing
+     */
+    public void increment(Long submissionId, long assocType, String day, String countryId, long delta) {
+        jdbcTemplate.update(
+                "INSERT INTO metrics_daily_rollup (submission_id, assoc_type, day, month, country_id, total) " +
+                "VALUES (?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE total = total + VALUES(total)",
+                submissionId != null ? submissionId : 0L,
+                assocType,
+                day,
+                day.substring(0, 6),
+                countryId != null ? countryId : "",
+                delta);
+    }
+
+    /**
+     * Recompute the rollup for days in [fromDay, toDay] from raw metrics; run inside a transaction
+     */
+    public int rebuildDays(String fromDay, String toDay) {
+        jdbcTemplate.update("DELETE FROM metrics_daily_rollup WHERE day BETWEEN ? AND ?", fromDay, toDay);
+        return jdbcTemplate.update(
+                "INSERT INTO metrics_daily_rollup (submission_id, assoc_type, day, month, country_id, total) " +
+                "SELECT COALESCE(m.submission_id, 0), m.assoc_type, m.day, LEFT(m.day, 6), " +
+                "COALESCE(m.country_id, ''), SUM(m.metric) " +
+                "FROM metrics m " +
+                "WHERE m.assoc_type IN (256, 515, 1048585) " +
+                "AND m.day BETWEEN ? AND ? " +
+                "GROUP BY COALESCE(m.submission_id, 0), m.assoc_type, m.day, COALESCE(m.country_id, '')",
+                fromDay, toDay);
+    }
+
+    /**
+     * Earliest day present in raw metrics of the rolled-up types, or null when there is none
+     */
+    public String findFirstMetricDay() {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(m.day) FROM metrics m WHERE m.assoc_type IN (256, 515, 1048585)", String.class);
+    }
+
+    /**
+     * Stream SUM(metric) per (submission_id, country_id, day, assoc_type) from raw metrics for
+     * days in [fromDay, toDay]; NULL submission_id and country_id come back as 0 and ''
+     */
+    public void streamDailyCells(String fromDay, String toDay, RowCallbackHandler handler) {
+        jdbcTemplate.query(
+                "SELECT COALESCE(m.submission_id, 0) AS submission_id, COALESCE(m.country_id, '') AS country_id, " +
+                "m.day, m.assoc_type, SUM(m.metric) AS total " +
+                "FROM metrics m " +
+                "WHERE m.assoc_type IN (256, 515, 1048585) " +
+                "AND m.day BETWEEN ? AND ? " +
+                "GROUP BY COALESCE(m.submission_id, 0), COALESCE(m.country_id, ''), m.day, m.assoc_type",
+                handler, fromDay, toDay);
+    }
+
+    /**
+     * The load_ids among {@code loadIds} that exist in metrics, as seen by the current transaction
+     */
+    public List<String> findExistingLoadIds(Collection<String> loadIds) {
+        if (loadIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT m.load_id FROM metrics m WHERE m.load_id IN (" +
+                String.join(",", Collections.nCopies(loadIds.size(), "?")) + ")",
+                String.class, loadIds.toArray());
+    }
+
+    public String getState(String name) {
+        List<String> values = jdbcTemplate.queryForList(
+                "SELECT value FROM metrics_rollup_state WHERE name = ?", String.class, name);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public void setState(String name, String value) {
+        jdbcTemplate.update(
+                "INSERT INTO metrics_rollup_state (name, value) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE value = VALUES(value)",
+                name, value);
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // QUERIES
+    // ══════════════════════════════════════════════════════════════
+
+    public long sumByAssocType(long assocType) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(r.total), 0) FROM metrics_daily_rollup r WHERE r.assoc_type = ?",
+                Long.class, assocType);
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Rows of (country, total), highest first; the '' cell (metrics without a country) is left out
+     */
+    public List<Object[]> findTopCountries(long assocType, int limit) {
+        return jdbcTemplate.query(
+                "SELECT r.country_id AS country, SUM(r.total) AS total " +
+                "FROM metrics_daily_rollup r " +
+                "WHERE r.assoc_type = ? AND r.country_id <> '' " +
+                "GROUP BY r.country_id " +
+                "ORDER BY total DESC " +
+                "LIMIT ?",
+                (rs, rowNum) -> new Object[] { rs.getString("country"), rs.getLong("total") },
+                assocType, limit);
+    }
+
+    /**
+     * Rows of (submission_id, total), highest first
+     */
+    public List<Object[]> findTopArticles(long assocType, int limit) {
+        return jdbcTemplate.query(
+                "SELECT r.submission_id, SUM(r.total) AS total " +
+                "FROM metrics_daily_rollup r " +
+                "WHERE r.assoc_type = ? AND r.submission_id <> 0 " +
+                "GROUP BY r.submission_id " +
+                "ORDER BY total DESC " +
+                "LIMIT ?",
+                (rs, rowNum) -> new Object[] { rs.getLong("submission_id"), rs.getLong("total") },
+                assocType, limit);
+    }
+
+    /**
+     * Rows of (country, total) for days in [fromDay, toDay], optionally for one article
+     */
+    public List<Object[]> aggregateByCountryAndDateRange(long assocType, String fromDay, String toDay,
+                                                         Long submissionId) {
+        List<Object> args = new ArrayList<>(List.of(assocType, fromDay, toDay));
+        String articleFilter = "";
+        if (submissionId != null) {
+            articleFilter = "AND r.submission_id = ? ";
+            args.add(submissionId);
+        }
+        return jdbcTemplate.query(
+                "SELECT COALESCE(NULLIF(r.country_id, ''), 'Unknown') AS country, SUM(r.total) AS total " +
+                "FROM metrics_daily_rollup r " +
+                "WHERE r.assoc_type = ? " +
+                "AND r.day BETWEEN ? AND ? " +
+                articleFilter +
+                "GROUP BY r.country_id " +
+                "ORDER BY total DESC",
+                (rs, rowNum) -> new Object[] { rs.getString("country"), rs.getLong("total") },
+                args.toArray());
+    }
+
+    /**
+     * Rows of (month, views, downloads) for months in [fromMonth, toMonth], optionally for one article
+     */
+    public List<Object[]> getMonthlySeries(Long submissionId, String fromMonth, String toMonth) {
+        List<Object> args = new ArrayList<>();
+        String articleFilter = "";
+        if (submissionId != null) {
+            articleFilter = "AND r.submission_id = ? ";
+            args.add(submissionId);
+        }
+        args.add(fromMonth);
+        args.add(toMonth);
+        return jdbcTemplate.query(
+                "SELECT r.month, " +
+                "SUM(CASE WHEN r.assoc_type = 1048585 THEN r.total ELSE 0 END) AS views, " +
+                "SUM(CASE WHEN r.assoc_type = 515 THEN r.total ELSE 0 END) AS downloads " +
+                "FROM metrics_daily_rollup r " +
+                "WHERE r.assoc_type IN (515, 1048585) " +
+                articleFilter +
+                "AND r.month BETWEEN ? AND ? " +
+                "GROUP BY r.month",
+                (rs, rowNum) -> new Object[] { rs.getString("month"), rs.getLong("views"), rs.getLong("downloads") },
+                args.toArray());
+    }
+
+    public String findFirstMonth(Long submissionId) {
+        if (submissionId == null) {
+            return jdbcTemplate.queryForObject(
+                    "SELECT MIN(r.month) FROM metrics_daily_rollup r WHERE r.assoc_type IN (515, 1048585)",
+                    String.class);
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(r.month) FROM metrics_daily_rollup r " +
+                "WHERE r.submission_id = ? AND r.assoc_type IN (515, 1048585)",
+                String.class, submissionId);
+    }
+}
@@ -0,0 +1,30 @@
+package org.udsm.udsm_hackathon2026.repository;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Statements for reading large results row by row. With a positive fetch size the MariaDB
+ * driver streams the result in batches of that many rows instead of buffering all of it,
+ * so memory stays flat however many rows the query returns.
+ */
+public final class StreamingQueries {
+
+    private StreamingQueries() {
+    }
+
+    /**
+     * Forward-only, read-only statement with the given fetch size and positional arguments
+     */
+    public static PreparedStatementCreator forwardOnly(String sql, int fetchSize, Object... args) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        };
+    }
+}
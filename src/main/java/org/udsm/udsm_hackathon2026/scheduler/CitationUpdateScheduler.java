@@ -1,8 +1,10 @@
 package org.udsm.udsm_hackathon2026.scheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.udsm.udsm_hackathon2026.config.AsyncConfig;
 import org.udsm.udsm_hackathon2026.dto.CitationResponse;
 import org.udsm.udsm_hackathon2026.service.CrossrefCitationService;
 import java.util.List;
@@ -12,16 +14,27 @@ import java.util.List;
 @Slf4j
 public class CitationUpdateScheduler {
     private final CrossrefCitationService citationService;
+    private final ScheduledJobMonitor jobMonitor;
     private boolean schedulerEnabled=true;
 
+    @Value("${citation.scheduler.cron:0 0 */6 * * *}")
+    private String updateCron;
 
-    @Scheduled(cron = "${citation.scheduler.cron:0 0 */6 * * *}")
+    @Value("${citation.summary.cron:0 0 9 * * *}")
+    private String summaryCron;
+
+
+    @Scheduled(cron = "${citation.scheduler.cron:0 0 */6 * * *}", scheduler = AsyncConfig.CITATION_SCHEDULER)
     public void updateStaleCitations() {
         if (!schedulerEnabled) {
             log.debug("Citation scheduler is disabled");
             return;
         }
 
+        jobMonitor.runCron("citation-update", updateCron, this::runCitationUpdate);
+    }
+
+    private void runCitationUpdate() {
         log.info("Starting scheduled citation update");
 
         try {
@@ -53,12 +66,16 @@ public class CitationUpdateScheduler {
      * Daily summary of citation changes
      * Runs at 9:00 AM every day
      */
-    @Scheduled(cron = "${citation.summary.cron:0 0 9 * * *}")
+    @Scheduled(cron = "${citation.summary.cron:0 0 9 * * *}", scheduler = AsyncConfig.CITATION_SCHEDULER)
     public void dailyCitationSummary() {
         if (!schedulerEnabled) {
             return;
         }
 
+        jobMonitor.runCron("citation-summary", summaryCron, this::runCitationSummary);
+    }
+
+    private void runCitationSummary() {
         log.info("Generating daily citation summary");
 
         try {
@@ -0,0 +1,120 @@
+package org.udsm.udsm_hackathon2026.scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps scheduled jobs with an overlap guard and metrics.
+ *
+ * Per job (tag {@code job}):
+ * - scheduled.job.duration  run time, tagged outcome=success|failure
+ * - scheduled.job.lag       how late a run started compared to its schedule
+ * - scheduled.job.overlap   runs skipped because the previous run was still going
+ * - scheduled.job.running   1 while a run is in progress
+ */
+@Slf4j
+@Component
+public class ScheduledJobMonitor {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, JobState> jobs = new ConcurrentHashMap<>();
+
+    public ScheduledJobMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a fixed-delay job; it is due {@code delay} after the previous run finished
+     */
+    public void runFixedDelay(String job, Duration delay, Runnable task) {
+        JobState state = state(job);
+        LocalDateTime previousEnd = state.lastEnd;
+        run(job, state, previousEnd != null ? previousEnd.plus(delay) : null, task);
+    }
+
+    /**
+     * Run a cron job; it is due at the first cron fire time after the previous start
+     */
+    public void runCron(String job, String cron, Runnable task) {
+        JobState state = state(job);
+        LocalDateTime previousStart = state.lastStart;
+        LocalDateTime due = previousStart != null ? CronExpression.parse(cron).next(previousStart) : null;
+        run(job, state, due, task);
+    }
+
+    private void run(String job, JobState state, LocalDateTime due, Runnable task) {
+        if (!state.running.compareAndSet(false, true)) {
+            state.overlaps.increment();
+            log.warn("Skipping scheduled job '{}': previous run still in progress", job);
+            return;
+        }
+
+        LocalDateTime start = LocalDateTime.now();
+        if (due != null) {
+            Duration lag = Duration.between(due, start);
+            state.lag.record(lag.isNegative() ? Duration.ZERO : lag);
+        }
+
+        long startNanos = System.nanoTime();
+        String outcome = "success";
+        try {
+            state.lastStart = start;
+            task.run();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            Timer.builder("scheduled.job.duration")
+                    .description("Scheduled job run time")
+                    .tag("job", job)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            state.lastEnd = LocalDateTime.now();
+            state.running.set(false);
+        }
+    }
+
+    private JobState state(String job) {
+        return jobs.computeIfAbsent(job, this::newState);
+    }
+
+    private JobState newState(String job) {
+        JobState state = new JobState(
+                Timer.builder("scheduled.job.lag")
+                        .description("Delay between when a scheduled job was due and when it started")
+                        .tag("job", job)
+                        .register(meterRegistry),
+                Counter.builder("scheduled.job.overlap")
+                        .description("Runs skipped because the previous run was still in progress")
+                        .tag("job", job)
+                        .register(meterRegistry));
+        Gauge.builder("scheduled.job.running", state.running, running -> running.get() ? 1 : 0)
+                .description("1 while the job is running")
+                .tag("job", job)
+                .register(meterRegistry);
+        return state;
+    }
+
+    private static final class JobState {
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final Timer lag;
+        private final Counter overlaps;
+        private volatile LocalDateTime lastStart;
+        private volatile LocalDateTime lastEnd;
+
+        private JobState(Timer lag, Counter overlaps) {
+            this.lag = lag;
+            this.overlaps = overlaps;
+        }
+    }
+}
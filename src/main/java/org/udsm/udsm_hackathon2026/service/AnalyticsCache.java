@@ -0,0 +1,335 @@
+package org.udsm.udsm_hackathon2026.service;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.udsm.udsm_hackathon2026.config.AsyncConfig;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Two-level cache for analytics reads: a local Caffeine tier in front of a Redis tier shared by
+ * all instances.
+ *
+ * Every entry is keyed by the current version of the data it depends on: one article, all
+ * articles (GLOBAL) or citations, plus an EPOCH that every entry depends on. Ingestion bumps the
+ * article version at once, so the next read of anything derived from it misses and is
+ * recomputed, while everything else stays cached. Scopes every event touches (GLOBAL, the live
+ * geo counters) are only marked and bumped together on a short tick, at most once per interval,
+ * so under steady ingestion their entries still hit. Versions live in Redis (INCR); the INCRs and
+ * the pub/sub message naming the scopes go out in one pipeline. Each instance keeps the versions
+ * it has seen in memory, so a local hit costs no network round trip; they are re-read every
+ * minute in case a message was lost. An outdated version orphans its shared entries, so the
+ * shared TTL is minutes.
+ *
+ * Without Redis nothing is cached. Values are shared between callers and must not be modified.
+ */
+@Slf4j
+@Component
+public class AnalyticsCache {
+
+    /** Anything computed over all articles */
+    public static final String GLOBAL = "global";
+    /** Citation counts */
+    public static final String CITATIONS = "citations";
+    /** Every entry; bumped when data changes outside ingestion (nightly rebuilds) */
+    public static final String EPOCH = "epoch";
+
+    private static final String KEY_PREFIX = "analytics:cache:";
+    private static final String VERSION_PREFIX = "analytics:version:";
+    private static final String CHANNEL = "analytics:invalidate";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration sharedTtl;
+
+    private final Cache<String, Object> local;
+    /** scope -> latest version seen by this instance */
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+    /** Scopes to bump on the next coalescing tick */
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Counter localHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public AnalyticsCache(StringRedisTemplate redisTemplate,
+                          ObjectMapper objectMapper,
+                          RedisMessageListenerContainer listenerContainer,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.analytics-cache.enabled:true}") boolean enabled,
+                          @Value("${app.analytics-cache.local.max-entries:20000}") long localMaxEntries,
+                          @Value("${app.analytics-cache.local.ttl-minutes:60}") long localTtlMinutes,
+                          @Value("${app.analytics-cache.shared.ttl-minutes:10}") long sharedTtlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.sharedTtl = Duration.ofMinutes(sharedTtlMinutes);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(Duration.ofMinutes(localTtlMinutes))
+                .build();
+
+        this.localHits = requests(meterRegistry, "local");
+        this.sharedHits = requests(meterRegistry, "shared");
+        this.misses = requests(meterRegistry, "miss");
+        this.bypasses = requests(meterRegistry, "bypass");
+
+        if (enabled) {
+            listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(CHANNEL));
+        }
+    }
+
+    public static String article(Long articleId) {
+        return DataVersionTracker.article(articleId);
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // READS
+    // ══════════════════════════════════════════════════════════════
+
+    public long getLong(String name, String key, String scope, LongSupplier loader) {
+        return get(name, key, scope, objectMapper.constructType(Long.class), loader::getAsLong);
+    }
+
+    public <E> List<E> getList(String name, String key, String scope, Class<E> elementType,
+                               Supplier<List<E>> loader) {
+        return get(name, key, scope,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, elementType), loader);
+    }
+
+    /**
+     * Map values keep their iteration order
+     */
+    public <V> Map<String, V> getMap(String name, String key, String scope, Class<V> valueType,
+                                     Supplier<Map<String, V>> loader) {
+        return get(name, key, scope,
+                objectMapper.getTypeFactory().constructMapType(LinkedHashMap.class, String.class, valueType), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String name, String key, String scope, JavaType type, Supplier<T> loader) {
+        Long epoch = enabled ? version(EPOCH) : null;
+        Long version = epoch != null ? version(scope) : null;
+        if (version == null) {
+            bypasses.increment();
+            return loader.get();
+        }
+
+        String cacheKey = KEY_PREFIX + name + ":" + key + ":" + epoch + "." + version;
+        Object cached = local.getIfPresent(cacheKey);
+        if (cached != null) {
+            localHits.increment();
+            return (T) cached;
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(cacheKey);
+            if (json != null) {
+                T value = objectMapper.readValue(json, type);
+                local.put(cacheKey, value);
+                sharedHits.increment();
+                return value;
+            }
+        } catch (Exception e) {
+            log.debug("Shared analytics cache read failed for {}: {}", cacheKey, e.getMessage());
+        }
+
+        misses.increment();
+        T value = loader.get();
+        if (value != null) {
+            // Stored under the version read before loading: if the data changed meanwhile, the
+            // bump already moved readers to a new key
+            local.put(cacheKey, value);
+            try {
+                redisTemplate.opsForValue().set(cacheKey, objectMapper.writeValueAsString(value), sharedTtl);
+            } catch (Exception e) {
+                log.debug("Shared analytics cache write failed for {}: {}", cacheKey, e.getMessage());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Version of a scope plus EPOCH, as seen by this instance; moves forward whenever either is
+     * bumped on any instance. Null when caching is disabled or Redis is unreachable
+     */
+    public Long sharedVersion(String scope) {
+        Long epoch = enabled ? version(EPOCH) : null;
+        Long version = epoch != null ? version(scope) : null;
+        return version != null ? epoch + version : null;
+    }
+
+    /**
+     * Current version of a scope, read from Redis the first time; null when Redis is unreachable
+     */
+    private Long version(String scope) {
+        Long version = versions.get(scope);
+        if (version != null) {
+            return version;
+        }
+        try {
+            String stored = redisTemplate.opsForValue().get(VERSION_PREFIX + scope);
+            return versions.merge(scope, stored != null ? Long.parseLong(stored) : 0L, Math::max);
+        } catch (Exception e) {
+            log.debug("Analytics cache version lookup failed for {}: {}", scope, e.getMessage());
+            return null;
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // INVALIDATION
+    // ══════════════════════════════════════════════════════════════
+
+    /**
+     * A metric was recorded for this article (null = unknown article): the article now, GLOBAL
+     * on the next tick
+     */
+    public void invalidateArticle(Long articleId) {
+        if (articleId != null) {
+            bump(article(articleId));
+        }
+        invalidateSoon(GLOBAL);
+    }
+
+    /**
+     * Data of a scope that changes with nearly every event moved; bumped on the next tick
+     */
+    public void invalidateSoon(String scope) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.add(scope);
+                }
+            });
+        } else {
+            dirty.add(scope);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics-cache.coalesce-ms:1000}",
+            scheduler = AsyncConfig.REALTIME_SCHEDULER)
+    public void flushCoalesced() {
+        List<String> scopes = new ArrayList<>();
+        for (String scope : dirty) {
+            if (dirty.remove(scope)) {
+                scopes.add(scope);
+            }
+        }
+        if (!scopes.isEmpty()) {
+            publish(scopes.toArray(String[]::new));
+        }
+    }
+
+    public void invalidateCitations() {
+        bump(CITATIONS);
+    }
+
+    /**
+     * Data changed in a way ingestion did not see (rollup reconcile, cube refresh)
+     */
+    public void invalidateAll() {
+        bump(EPOCH);
+    }
+
+    private void bump(String... scopes) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Readers must not recompute under the new version before the change is visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(scopes);
+                }
+            });
+        } else {
+            publish(scopes);
+        }
+    }
+
+    /**
+     * INCR every scope and announce them in one pipeline; the message only names the scopes,
+     * as the new versions are not known until the pipeline returns
+     */
+    private void publish(String... scopes) {
+        byte[] message = String.join(";", scopes).getBytes(StandardCharsets.UTF_8);
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String scope : scopes) {
+                    connection.stringCommands().incr((VERSION_PREFIX + scope).getBytes(StandardCharsets.UTF_8));
+                }
+                connection.publish(CHANNEL.getBytes(StandardCharsets.UTF_8), message);
+                return null;
+            });
+            for (int i = 0; i < scopes.length; i++) {
+                versions.merge(scopes[i], ((Number) results.get(i)).longValue(), Math::max);
+            }
+        } catch (Exception e) {
+            // Versions could not move forward, so no local entry can be trusted any more
+            log.warn("Analytics cache invalidation of {} failed, clearing the local tier: {}",
+                    String.join(",", scopes), e.getMessage());
+            local.invalidateAll();
+        }
+    }
+
+    /**
+     * Forget the versions seen so far so they are re-read from Redis; bounds how long a missed
+     * pub/sub message can keep this instance on an old version
+     */
+    @Scheduled(fixedDelayString = "${app.analytics-cache.version-resync-ms:60000}",
+            scheduler = AsyncConfig.REALTIME_SCHEDULER)
+    public void resyncVersions() {
+        versions.clear();
+    }
+
+    /**
+     * Scopes bumped by any instance, this one included; their versions are re-read from Redis
+     * on next use. Entries of the older "scope=version" form are accepted too.
+     */
+    private void onInvalidation(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String entry : body.split(";")) {
+            int separator = entry.indexOf('=');
+            String scope = separator >= 0 ? entry.substring(0, separator) : entry;
+            if (!scope.isEmpty()) {
+                versions.remove(scope);
+            }
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("analytics.cache.requests")
+                .description("Analytics cache lookups by the tier that answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,19 +1,25 @@
 package org.udsm.udsm_hackathon2026.service;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.udsm.udsm_hackathon2026.dto.*;
 import org.udsm.udsm_hackathon2026.repository.ArticleRepository;
 import org.udsm.udsm_hackathon2026.repository.CitationRepository;
 import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import org.udsm.udsm_hackathon2026.service.ArticleMetadataService.ArticleMetadata;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 
 @Service
@@ -24,31 +30,73 @@ public class ArticleAnalyticsService {
     private final MetricRepository metricRepository;
     private final CitationRepository citationRepository;
     private final CrossrefCitationService citationService;
-    private final StringRedisTemplate stringRedisTemplate; // Simple String-based Redis
+    private final ArticleMetadataService articleMetadataService;
     private final CountryCoordinatesService coordinatesService;
     private final ObjectMapper objectMapper; // For JSON serialization
+    private final FanOut fanOut;
+    private final MonthlyTimeSeriesService monthlyTimeSeriesService;
+    private final MetricsQueryRouter queryRouter;
+    private final AnalyticsCache analyticsCache;
 
-    private static final String ARTICLE_METADATA_KEY = "article:metadata:";
-    private static final long CACHE_TTL_HOURS = 24;
+    @Value("${app.listing.fetch-size:500}")
+    private int listingFetchSize;
+
+    @Value("${app.listing.max-page-size:200}")
+    private int listingMaxPageSize;
 
     /**
-     * Get all articles for listing (ID and name only - no categories)
+     * Write every published article (ID and name) as a JSON array, row by row from a
+     * forward-only cursor, so memory use does not grow with the number of articles
      */
-    public List<ArticleListDto> getAllArticlesForListing() {
-        log.info("Fetching all articles for listing");
+    public void streamArticlesForListing(OutputStream out) throws IOException {
+        log.info("Streaming all articles for listing");
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            articleRepository.streamArticlesForListing(listingFetchSize, rs -> {
+                try {
+                    generator.writeObject(new ArticleListDto(rs.getLong("id"), rs.getString("name")));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
 
-        List<Object[]> rows = articleRepository.findAllArticlesForListing();
-        List<ArticleListDto> articles = new ArrayList<>();
+    /**
+     * One page of the article listing in title order
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public CursorPage<ArticleListDto> getArticlesForListingPage(String cursor, int limit) {
+        String afterName = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('\n');
+                afterName = decoded.substring(0, separator);
+                afterId = Long.parseLong(decoded.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
 
-        for (Object[] row : rows) {
-            Long id = ((Number) row[0]).longValue();
-            String name = (String) row[1];
+        int pageSize = Math.clamp(limit, 1, listingMaxPageSize);
+        List<ArticleListDto> articles = new ArrayList<>();
+        for (Object[] row : articleRepository.findArticlesForListingAfter(afterName, afterId, pageSize)) {
+            articles.add(new ArticleListDto(((Number) row[0]).longValue(), (String) row[1]));
+        }
 
-            articles.add(new ArticleListDto(id, name));
+        String nextCursor = null;
+        if (articles.size() == pageSize) {
+            ArticleListDto last = articles.get(articles.size() - 1);
+            String key = (last.getName() != null ? last.getName() : "") + "\n" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
         }
 
-        log.info("Found {} articles for listing", articles.size());
-        return articles;
+        log.info("Found {} articles for listing page", articles.size());
+        return new CursorPage<>(articles, nextCursor);
     }
 
     /**
@@ -57,59 +105,68 @@ public class ArticleAnalyticsService {
     public ArticleMetricsResponseDto getArticleMetrics(Long articleId) {
         log.info("Fetching complete metrics for article ID: {}", articleId);
 
-        // Get article basic info
-        List<Object[]> articleRows = articleRepository.findArticleDetailsById(articleId);
-        if (articleRows.isEmpty()) {
-            log.error("Article with ID {} not found", articleId);
-            throw new RuntimeException("Article with ID " + articleId + " not found");
-        }
-
-        Object[] row = articleRows.get(0);
-        Long id = ((Number) row[0]).longValue();
-        String name = (String) row[1];
-        String abstractText = row[2] != null ? (String) row[2] : "";
-        String datePublished = row[3] != null ? row[3].toString() : null;
-        Long publicationId = row[4] != null ? ((Number) row[4]).longValue() : null;
-
-        // Get authors
-        List<String> authors = new ArrayList<>();
-        if (publicationId != null) {
-            authors = articleRepository.findAuthorNamesByPublicationId(publicationId);
-        }
-
-        // Cache article metadata in Redis for future use
-        cacheArticleMetadata(articleId, name, authors);
+        try (FanOut.Scope scope = fanOut.open()) {
+            // Counts and authors only need the article id, so they run while the details are loaded
+            FanOut.Branch<Long> totalDownloads = scope.fork("downloads",
+                    () -> queryRouter.sumDownloadsByArticle(articleId), 0L);
+            FanOut.Branch<Long> totalReaders = scope.fork("readers",
+                    () -> queryRouter.sumReadersByArticle(articleId), 0L);
+            FanOut.Branch<List<String>> authors = scope.fork("authors",
+                    () -> articleMetadataService.get(articleId).authors(), List.of());
+
+            // Get article basic info
+            List<Object[]> articleRows = articleRepository.findArticleDetailsById(articleId);
+            if (articleRows.isEmpty()) {
+                log.error("Article with ID {} not found", articleId);
+                throw new RuntimeException("Article with ID " + articleId + " not found");
+            }
 
-        // Get metrics
-        Long totalDownloads = metricRepository.getTotalDownloadsByArticle(articleId);
-        Long totalReaders = metricRepository.getTotalReadersByArticle(articleId);
+            Object[] row = articleRows.get(0);
+            Long id = ((Number) row[0]).longValue();
+            String name = (String) row[1];
+            String abstractText = row[2] != null ? (String) row[2] : "";
+            String datePublished = row[3] != null ? row[3].toString() : null;
+            Long publicationId = row[4] != null ? ((Number) row[4]).longValue() : null;
+
+            // Citations (Crossref on a stale count) depend on the publication
+            Long totalCitations = 0L;
+            if (publicationId != null) {
+                FanOut.Branch<Long> citationsBranch = scope.fork("citations", () -> {
+                    CitationResponse citationResponse = citationService.getOrUpdateCitationCount(publicationId);
+                    return citationResponse.getCitationCount() != null ? citationResponse.getCitationCount() : 0L;
+                }, 0L);
+                totalCitations = citationsBranch.join();
+            }
 
-        // Get citations
-        Long totalCitations = 0L;
-        if (publicationId != null) {
-            CitationResponse citationResponse = citationService.getOrUpdateCitationCount(publicationId);
-            totalCitations = citationResponse.getCitationCount() != null ? citationResponse.getCitationCount() : 0L;
+            ArticleMetricsResponseDto response = ArticleMetricsResponseDto.builder()
+                    .id(id)
+                    .name(name)
+                    .abstract_(abstractText)
+                    .authors(authors.join())
+                    .totalDownloads(totalDownloads.join())
+                    .totalCitations(totalCitations)
+                    .totalReaders(totalReaders.join())
+                    .datePublished(datePublished)
+                    .partial(scope.isPartial() ? Boolean.TRUE : null)
+                    .build();
+
+            if (scope.isPartial()) {
+                log.warn("Returning partial metrics for article {}: {} unavailable", articleId, scope.fallbackBranches());
+            }
+            log.info("Successfully fetched metrics for article: {}", name);
+            return response;
         }
-
-        ArticleMetricsResponseDto response = new ArticleMetricsResponseDto(
-                id,
-                name,
-                abstractText,
-                authors,
-                totalDownloads,
-                totalCitations,
-                totalReaders,
-                datePublished
-        );
-
-        log.info("Successfully fetched metrics for article: {}", name);
-        return response;
     }
 
     /**
      * Get geographical distribution of reads for an article (LEGACY - basic version)
      */
     public List<GeographicalMetricsDto> getGeographicalReads(Long articleId) {
+        return analyticsCache.getList("geoReads", articleId.toString(), AnalyticsCache.article(articleId),
+                GeographicalMetricsDto.class, () -> loadGeographicalReads(articleId));
+    }
+
+    private List<GeographicalMetricsDto> loadGeographicalReads(Long articleId) {
         log.info("Fetching geographical reads for article ID: {}", articleId);
 
         List<Object[]> rows = metricRepository.getGeographicalReadsByArticle(articleId);
@@ -131,6 +188,11 @@ public class ArticleAnalyticsService {
      * Get geographical distribution of downloads for an article (LEGACY - basic version)
      */
     public List<GeographicalMetricsDto> getGeographicalDownloads(Long articleId) {
+        return analyticsCache.getList("geoDownloads", articleId.toString(), AnalyticsCache.article(articleId),
+                GeographicalMetricsDto.class, () -> loadGeographicalDownloads(articleId));
+    }
+
+    private List<GeographicalMetricsDto> loadGeographicalDownloads(Long articleId) {
         log.info("Fetching geographical downloads for article ID: {}", articleId);
 
         List<Object[]> rows = metricRepository.getGeographicalDownloadsByArticle(articleId);
@@ -152,10 +214,14 @@ public class ArticleAnalyticsService {
      * Get ENHANCED geographical distribution of reads with article metadata
      */
     public List<EnhnacedGeographicalMetricsDto> getEnhancedGeographicalReads(Long articleId) {
+        return analyticsCache.getList("enhancedGeoReads", articleId.toString(), AnalyticsCache.article(articleId),
+                EnhnacedGeographicalMetricsDto.class, () -> loadEnhancedGeographicalReads(articleId));
+    }
+
+    private List<EnhnacedGeographicalMetricsDto> loadEnhancedGeographicalReads(Long articleId) {
         log.info("Fetching enhanced geographical reads for article ID: {}", articleId);
 
-        // Get article metadata (from cache or DB)
-        ArticleMetadata metadata = getArticleMetadata(articleId);
+        ArticleMetadata metadata = articleMetadataService.get(articleId);
 
         // Get geographical data
         List<Object[]> rows = metricRepository.getGeographicalReadsByArticle(articleId);
@@ -184,8 +250,8 @@ public class ArticleAnalyticsService {
                     .city(city)
                     .count(count)
                     .articleId(articleId)
-                    .articleTitle(metadata.getTitle())
-                    .authors(metadata.getAuthors())
+                    .articleTitle(metadata.titleOr("Unknown Article"))
+                    .authors(metadata.authors())
                     .latitude(coords.latitude)
                     .longitude(coords.longitude)
                     .percentage(percentage)
@@ -200,10 +266,14 @@ public class ArticleAnalyticsService {
      * Get ENHANCED geographical distribution of downloads with article metadata
      */
     public List<EnhnacedGeographicalMetricsDto> getEnhancedGeographicalDownloads(Long articleId) {
+        return analyticsCache.getList("enhancedGeoDownloads", articleId.toString(), AnalyticsCache.article(articleId),
+                EnhnacedGeographicalMetricsDto.class, () -> loadEnhancedGeographicalDownloads(articleId));
+    }
+
+    private List<EnhnacedGeographicalMetricsDto> loadEnhancedGeographicalDownloads(Long articleId) {
         log.info("Fetching enhanced geographical downloads for article ID: {}", articleId);
 
-        // Get article metadata (from cache or DB)
-        ArticleMetadata metadata = getArticleMetadata(articleId);
+        ArticleMetadata metadata = articleMetadataService.get(articleId);
 
         // Get geographical data
         List<Object[]> rows = metricRepository.getGeographicalDownloadsByArticle(articleId);
@@ -232,8 +302,8 @@ public class ArticleAnalyticsService {
                     .city(city)
                     .count(count)
                     .articleId(articleId)
-                    .articleTitle(metadata.getTitle())
-                    .authors(metadata.getAuthors())
+                    .articleTitle(metadata.titleOr("Unknown Article"))
+                    .authors(metadata.authors())
                     .latitude(coords.latitude)
                     .longitude(coords.longitude)
                     .percentage(percentage)
@@ -245,124 +315,83 @@ public class ArticleAnalyticsService {
     }
 
     /**
-     * Get monthly views AND downloads - ENHANCED VERSION
-     * @param articleId The article ID
-     * @param year Optional year filter. If null, returns all years
+     * Get ENHANCED geographical distribution for several articles at once
+     * One GROUP BY over all requested articles plus bulk metadata lookup, instead of one query pair per article
+     *
+     * @return distribution per article id, in request order (articles without data map to an empty list)
      */
-    public List<MonthlyMetricsDto> getMonthlyMetrics(Long articleId, Integer year) {
-        log.info("Fetching monthly views and downloads for article ID: {} for year: {}", articleId, year);
+    public Map<Long, List<EnhnacedGeographicalMetricsDto>> getEnhancedGeographicalBatch(List<Long> articleIds, boolean isRead) {
+        log.info("Fetching enhanced geographical {} for {} articles", isRead ? "reads" : "downloads", articleIds.size());
 
-        List<Object[]> rows;
-        if (year != null) {
-            rows = metricRepository.getMonthlyMetricsByArticleAndYear(articleId, year);
-        } else {
-            rows = metricRepository.getMonthlyMetricsByArticle(articleId);
+        Map<Long, List<EnhnacedGeographicalMetricsDto>> result = new LinkedHashMap<>();
+        if (articleIds.isEmpty()) {
+            return result;
         }
 
-        List<MonthlyMetricsDto> monthlyMetrics = new ArrayList<>();
+        Map<Long, ArticleMetadata> metadata = articleMetadataService.getAll(articleIds);
+        List<Object[]> rows = metricRepository.getGeographicalDistributionByArticles(articleIds, isRead ? 1048585 : 515);
 
+        // Totals per article for percentages
+        Map<Long, Long> totals = new HashMap<>();
         for (Object[] row : rows) {
-            String month = (String) row[0];
-            Integer yearValue = ((Number) row[1]).intValue();
-            Integer monthNum = ((Number) row[2]).intValue();
-            Long views = ((Number) row[3]).longValue();
-            Long downloads = ((Number) row[4]).longValue();
-
-            monthlyMetrics.add(new MonthlyMetricsDto(month, yearValue, monthNum, views, downloads));
+            totals.merge(((Number) row[0]).longValue(), ((Number) row[4]).longValue(), Long::sum);
         }
 
-        log.info("Found {} months of data for article {} (year: {})", monthlyMetrics.size(), articleId, year);
-        return monthlyMetrics;
-    }
-
-    /**
-     * Get monthly views AND downloads - LEGACY VERSION (for backward compatibility)
-     */
-    public List<MonthlyMetricsDto> getMonthlyMetrics(Long articleId) {
-        return getMonthlyMetrics(articleId, null);
-    }
-
-    /**
-     * Cache article metadata in Redis as JSON string
-     */
-    private void cacheArticleMetadata(Long articleId, String title, List<String> authors) {
-        try {
-            String key = ARTICLE_METADATA_KEY + articleId;
+        for (Long articleId : articleIds) {
+            result.put(articleId, new ArrayList<>());
+        }
 
-            // Create metadata map
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("title", title);
-            metadata.put("authors", authors);
+        for (Object[] row : rows) {
+            Long articleId = ((Number) row[0]).longValue();
+            String countryCode = (String) row[1];
+            Long count = ((Number) row[4]).longValue();
+            long total = totals.getOrDefault(articleId, 0L);
+            ArticleMetadata article = metadata.get(articleId);
 
-            // Serialize to JSON string
-            String jsonValue = objectMapper.writeValueAsString(metadata);
+            CountryCoordinatesService.CountryCoords coords = coordinatesService.getCoordinates(countryCode);
 
-            // Store in Redis
-            stringRedisTemplate.opsForValue().set(key, jsonValue, CACHE_TTL_HOURS, TimeUnit.HOURS);
-            log.debug("Cached metadata for article {} in Redis", articleId);
+            double percentage = total > 0 ? (count * 100.0 / total) : 0.0;
+            percentage = Math.round(percentage * 100.0) / 100.0;
 
-        } catch (Exception e) {
-            log.warn("Failed to cache article metadata in Redis for article {}", articleId, e);
+            result.computeIfAbsent(articleId, id -> new ArrayList<>()).add(EnhnacedGeographicalMetricsDto.builder()
+                    .countryCode(countryCode)
+                    .countryName(coords.name)
+                    .region((String) row[2])
+                    .city((String) row[3])
+                    .count(count)
+                    .articleId(articleId)
+                    .articleTitle(article.titleOr("Unknown Article"))
+                    .authors(article.authors())
+                    .latitude(coords.latitude)
+                    .longitude(coords.longitude)
+                    .percentage(percentage)
+                    .build());
         }
+
+        log.info("Found {} enhanced geographical locations across {} articles", rows.size(), articleIds.size());
+        return result;
     }
 
     /**
-     * Get article metadata from Redis cache (JSON string) or database
+     * Get monthly views AND downloads - ENHANCED VERSION
+     * @param articleId The article ID
+     * @param year Optional year filter. If null, returns all years
      */
-    private ArticleMetadata getArticleMetadata(Long articleId) {
-        try {
-            // Try to get from cache first
-            String key = ARTICLE_METADATA_KEY + articleId;
-            String jsonValue = stringRedisTemplate.opsForValue().get(key);
-
-            if (jsonValue != null) {
-                // Deserialize from JSON
-                Map<String, Object> cached = objectMapper.readValue(
-                        jsonValue,
-                        new TypeReference<Map<String, Object>>() {}
-                );
-
-                log.debug("Retrieved article metadata from Redis cache for article {}", articleId);
-                return new ArticleMetadata(
-                        (String) cached.get("title"),
-                        (List<String>) cached.get("authors")
-                );
-            }
-        } catch (Exception e) {
-            log.warn("Failed to retrieve from Redis cache, falling back to database", e);
-        }
-
-        // Cache miss - fetch from database
-        log.debug("Cache miss for article {}, fetching from database", articleId);
-        List<Object[]> articleRows = articleRepository.findArticleDetailsById(articleId);
-
-        if (articleRows.isEmpty()) {
-            log.error("Article with ID {} not found", articleId);
-            return new ArticleMetadata("Unknown Article", new ArrayList<>());
-        }
-
-        Object[] row = articleRows.get(0);
-        String title = (String) row[1];
-        Long publicationId = row[4] != null ? ((Number) row[4]).longValue() : null;
-
-        List<String> authors = new ArrayList<>();
-        if (publicationId != null) {
-            authors = articleRepository.findAuthorNamesByPublicationId(publicationId);
-        }
+    public List<MonthlyMetricsDto> getMonthlyMetrics(Long articleId, Integer year) {
+        log.info("Fetching monthly views and downloads for article ID: {} for year: {}", articleId, year);
 
-        // Cache it for next time
-        cacheArticleMetadata(articleId, title, authors);
+        List<MonthlyMetricsDto> monthlyMetrics = analyticsCache.getList("monthlySeries",
+                articleId + "|" + year, AnalyticsCache.article(articleId), MonthlyMetricsDto.class,
+                () -> monthlyTimeSeriesService.getMonthlySeries(articleId, year));
 
-        return new ArticleMetadata(title, authors);
+        log.info("Found {} months of data for article {} (year: {})", monthlyMetrics.size(), articleId, year);
+        return monthlyMetrics;
     }
 
     /**
-     * Inner class for article metadata
+     * Get monthly views AND downloads - LEGACY VERSION (for backward compatibility)
      */
-    @lombok.Data
-    @lombok.AllArgsConstructor
-    private static class ArticleMetadata {
-        private String title;
-        private List<String> authors;
+    public List<MonthlyMetricsDto> getMonthlyMetrics(Long articleId) {
+        return getMonthlyMetrics(articleId, null);
     }
-}
\ No newline at end of file
+}
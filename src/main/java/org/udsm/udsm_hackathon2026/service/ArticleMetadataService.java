@@ -0,0 +1,305 @@
+package org.udsm.udsm_hackathon2026.service;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.config.ConnectionBulkhead;
+import org.udsm.udsm_hackathon2026.dto.ArticleInfoDto;
+import org.udsm.udsm_hackathon2026.repository.ArticleRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Title, abstract and authors of published articles (submission ids), for every place that
+ * decorates metrics with article details. Unpublished and unknown ids get
+ * {@link ArticleMetadata#unknown}, so nothing about submissions in review leaks out.
+ *
+ * Reads are served from an in-process Caffeine tier of immutable records. Misses go to a Redis
+ * tier shared by all instances, holding a compact binary encoding, and only then to the database
+ * (two queries however many ids are missing). Entries older than the refresh interval are still
+ * returned, and reloaded from the database in the background on that access, so hot articles never
+ * wait for a load after the first one; entries nobody reads expire.
+ */
+@Slf4j
+@Service
+public class ArticleMetadataService {
+
+    /** v2: published articles only; v1 entries may hold details of unpublished ones */
+    private static final String KEY_PREFIX = "article:meta:v2:";
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HAS_TITLE = 1;
+    private static final int HAS_ABSTRACT = 2;
+
+    /**
+     * Immutable article details; title and abstract are null when unknown, authors in author order
+     */
+    public record ArticleMetadata(long articleId, String title, String articleAbstract, List<String> authors) {
+
+        public ArticleMetadata {
+            authors = List.copyOf(authors);
+        }
+
+        static ArticleMetadata unknown(long articleId) {
+            return new ArticleMetadata(articleId, null, null, List.of());
+        }
+
+        public String titleOr(String fallback) {
+            return title != null ? title : fallback;
+        }
+
+        public ArticleInfoDto toInfoDto() {
+            return ArticleInfoDto.builder()
+                    .articleId(articleId)
+                    .title(title)
+                    .articleAbstract(articleAbstract)
+                    .authors(authors)
+                    .build();
+        }
+    }
+
+    private final ArticleRepository articleRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration sharedTtl;
+    private final LoadingCache<Long, ArticleMetadata> local;
+
+    private final Counter sharedHits;
+    private final Counter databaseLoads;
+
+    public ArticleMetadataService(ArticleRepository articleRepository,
+                                  StringRedisTemplate redisTemplate,
+                                  @Qualifier("taskExecutor") AsyncTaskExecutor taskExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.article-metadata.local.max-entries:50000}") long localMaxEntries,
+                                  @Value("${app.article-metadata.refresh-after-minutes:30}") long refreshAfterMinutes,
+                                  @Value("${app.article-metadata.expire-after-hours:6}") long expireAfterHours,
+                                  @Value("${app.article-metadata.shared.ttl-hours:24}") long sharedTtlHours) {
+        this.articleRepository = articleRepository;
+        this.redisTemplate = redisTemplate;
+        this.sharedTtl = Duration.ofHours(sharedTtlHours);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .refreshAfterWrite(Duration.ofMinutes(refreshAfterMinutes))
+                .expireAfterWrite(Duration.ofHours(expireAfterHours))
+                // Refreshes must not take connections from request handling
+                .executor(task -> taskExecutor.execute(
+                        () -> ConnectionBulkhead.run(ConnectionBulkhead.Workload.BACKGROUND, task)))
+                .recordStats()
+                .build(new Loader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "articleMetadata");
+        this.sharedHits = loads(meterRegistry, "shared");
+        this.databaseLoads = loads(meterRegistry, "database");
+    }
+
+    public ArticleMetadata get(Long articleId) {
+        return local.get(articleId);
+    }
+
+    /**
+     * Metadata for every id, in request order; one Redis round trip and two queries at most for
+     * the ids not held locally
+     */
+    public Map<Long, ArticleMetadata> getAll(Collection<Long> articleIds) {
+        Map<Long, ArticleMetadata> loaded = local.getAll(articleIds);
+        Map<Long, ArticleMetadata> result = new LinkedHashMap<>();
+        for (Long articleId : articleIds) {
+            result.put(articleId, loaded.getOrDefault(articleId, ArticleMetadata.unknown(articleId)));
+        }
+        return result;
+    }
+
+    private final class Loader implements CacheLoader<Long, ArticleMetadata> {
+
+        @Override
+        public ArticleMetadata load(Long articleId) {
+            return loadAll(Set.of(articleId)).get(articleId);
+        }
+
+        @Override
+        public Map<Long, ArticleMetadata> loadAll(Set<? extends Long> articleIds) {
+            Map<Long, ArticleMetadata> result = readShared(articleIds);
+            List<Long> misses = new ArrayList<>();
+            for (Long articleId : articleIds) {
+                if (!result.containsKey(articleId)) {
+                    misses.add(articleId);
+                }
+            }
+            if (!misses.isEmpty()) {
+                Map<Long, ArticleMetadata> fromDatabase = loadFromDatabase(misses);
+                writeShared(fromDatabase.values());
+                result.putAll(fromDatabase);
+            }
+            return result;
+        }
+
+        /**
+         * Refresh-ahead: always from the database, so changed titles and authors propagate
+         */
+        @Override
+        public ArticleMetadata reload(Long articleId, ArticleMetadata oldValue) {
+            ArticleMetadata metadata = loadFromDatabase(List.of(articleId)).get(articleId);
+            writeShared(List.of(metadata));
+            return metadata;
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // DATABASE
+    // ══════════════════════════════════════════════════════════════
+
+    private Map<Long, ArticleMetadata> loadFromDatabase(Collection<Long> articleIds) {
+        List<Object[]> rows = articleRepository.findArticleSummariesByIds(articleIds);
+        List<Long> publicationIds = rows.stream().map(row -> (Long) row[3]).toList();
+
+        Map<Long, List<String>> authorsByPublication = new HashMap<>();
+        for (Object[] row : articleRepository.findAuthorNamesByPublicationIds(publicationIds)) {
+            String name = row[1] != null ? ((String) row[1]).trim() : "";
+            if (!name.isEmpty()) {
+                authorsByPublication.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(name);
+            }
+        }
+
+        Map<Long, ArticleMetadata> result = new HashMap<>();
+        for (Object[] row : rows) {
+            Long articleId = (Long) row[0];
+            result.put(articleId, new ArticleMetadata(articleId, (String) row[1], (String) row[2],
+                    authorsByPublication.getOrDefault((Long) row[3], List.of())));
+        }
+        // Unknown and unpublished ids are cached too, so lists containing them do not query on every read
+        for (Long articleId : articleIds) {
+            result.computeIfAbsent(articleId, ArticleMetadata::unknown);
+        }
+        databaseLoads.increment(articleIds.size());
+        log.debug("Loaded metadata for {} articles from the database ({} found)", articleIds.size(), rows.size());
+        return result;
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // SHARED TIER
+    // ══════════════════════════════════════════════════════════════
+
+    private Map<Long, ArticleMetadata> readShared(Set<? extends Long> articleIds) {
+        Map<Long, ArticleMetadata> result = new HashMap<>();
+        List<Long> ids = List.copyOf(articleIds);
+        try {
+            byte[][] keys = ids.stream().map(ArticleMetadataService::key).toArray(byte[][]::new);
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(keys));
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                ArticleMetadata metadata = decode(ids.get(i), values.get(i));
+                if (metadata != null) {
+                    result.put(ids.get(i), metadata);
+                }
+            }
+            sharedHits.increment(result.size());
+        } catch (Exception e) {
+            log.debug("Shared article metadata read failed for {} articles: {}", ids.size(), e.getMessage());
+        }
+        return result;
+    }
+
+    private void writeShared(Collection<ArticleMetadata> entries) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (ArticleMetadata metadata : entries) {
+                    connection.stringCommands().setEx(key(metadata.articleId()), sharedTtl.toSeconds(), encode(metadata));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.debug("Shared article metadata write failed for {} articles: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    private static byte[] key(long articleId) {
+        return (KEY_PREFIX + articleId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * version, flags, [title], [abstract], author count, authors; strings as length-prefixed UTF-8
+     */
+    private static byte[] encode(ArticleMetadata metadata) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte((metadata.title() != null ? HAS_TITLE : 0) | (metadata.articleAbstract() != null ? HAS_ABSTRACT : 0));
+            if (metadata.title() != null) {
+                writeString(out, metadata.title());
+            }
+            if (metadata.articleAbstract() != null) {
+                writeString(out, metadata.articleAbstract());
+            }
+            out.writeShort(metadata.authors().size());
+            for (String author : metadata.authors()) {
+                writeString(out, author);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode metadata of article " + metadata.articleId(), e);
+        }
+    }
+
+    /**
+     * @return null when absent or written in another format, so the entry is reloaded
+     */
+    private static ArticleMetadata decode(long articleId, byte[] value) {
+        if (value == null || value.length == 0 || value[0] != FORMAT_VERSION) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value, 1, value.length - 1))) {
+            int flags = in.readUnsignedByte();
+            String title = (flags & HAS_TITLE) != 0 ? readString(in) : null;
+            String articleAbstract = (flags & HAS_ABSTRACT) != 0 ? readString(in) : null;
+            int authorCount = in.readUnsignedShort();
+            List<String> authors = new ArrayList<>(authorCount);
+            for (int i = 0; i < authorCount; i++) {
+                authors.add(readString(in));
+            }
+            return new ArticleMetadata(articleId, title, articleAbstract, authors);
+        } catch (IOException e) {
+            log.debug("Ignoring unreadable shared metadata of article {}: {}", articleId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static Counter loads(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("article.metadata.loads")
+                .description("Article metadata entries loaded into the local tier, by where they came from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -1,13 +1,21 @@
 package org.udsm.udsm_hackathon2026.service;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.dto.CursorPage;
 import org.udsm.udsm_hackathon2026.dto.author.AuthorListDto;
 import org.udsm.udsm_hackathon2026.model.Author;
 import org.udsm.udsm_hackathon2026.model.AuthorSetting;
+import org.udsm.udsm_hackathon2026.repository.AuthorListingRepository;
 import org.udsm.udsm_hackathon2026.repository.AuthorRepository;
 import org.udsm.udsm_hackathon2026.repository.AuthorSettingRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -24,88 +32,84 @@ public class AuthorListService {
 
     private final AuthorRepository authorRepository;
     private final AuthorSettingRepository authorSettingRepository;
+    private final AuthorListingRepository authorListingRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.listing.fetch-size:500}")
+    private int listingFetchSize;
+
+    @Value("${app.listing.max-page-size:200}")
+    private int listingMaxPageSize;
 
     /**
-     * Get all authors with their complete details
-     * 
-     * Fetches from:
-     * - authors table: author_id, email
-     * - author_settings table: givenName, familyName, affiliation, country
-     * 
-     * @return List of authors with complete information
+     * Write every author with their details as a JSON array
+     *
+     * Names, affiliation and country are pivoted from author_settings in the same query and
+     * rows are written as they arrive from a forward-only cursor, so memory use does not
+     * grow with the number of authors.
      */
-    public List<AuthorListDto> getAllAuthors() {
-        log.info("Fetching all authors with details");
-        
-        // Step 1: Get all distinct authors from authors table
-        List<Author> authors = authorRepository.findAllDistinctAuthors();
-        
-        if (authors.isEmpty()) {
-            log.info("No authors found in database");
-            return List.of();
+    public void streamAllAuthors(OutputStream out) throws IOException {
+        log.info("Streaming all authors with details");
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            authorListingRepository.streamAll(listingFetchSize, rs -> {
+                try {
+                    generator.writeObject(toListDto(rs.getLong("author_id"), rs.getString("email"),
+                            rs.getString("given_name"), rs.getString("family_name"),
+                            rs.getString("affiliation"), rs.getString("country")));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
         }
-        
-        log.info("Found {} authors in database", authors.size());
-        
-        // Step 2: Get author IDs for bulk fetch
-        List<Long> authorIds = authors.stream()
-                .map(Author::getAuthorId)
-                .toList();
-        
-        // Step 3: Fetch author settings (names, affiliation, country)
-        List<String> settingNames = List.of(
-            "givenName",      // First name
-            "familyName",     // Last name
-            "affiliation",    // Institution/Affiliation
-            "country"         // Country
-        );
-        
-        List<AuthorSetting> authorSettings = authorSettingRepository
-                .findByAuthorIdInAndSettingNameIn(authorIds, settingNames);
-        
-        log.info("Found {} author settings entries", authorSettings.size());
-        
-        // Step 4: Group settings by author_id for easy lookup
-        Map<Long, Map<String, String>> authorSettingsMap = authorSettings.stream()
-                .collect(Collectors.groupingBy(
-                    AuthorSetting::getAuthorId,
-                    Collectors.toMap(
-                        AuthorSetting::getSettingName,
-                        as -> as.getSettingValue() != null ? as.getSettingValue() : "",
-                        (existing, replacement) -> existing // Keep first locale if duplicates
-                    )
-                ));
-        
-        // Step 5: Build AuthorListDto for each author
-        List<AuthorListDto> authorList = new ArrayList<>();
-        
-        for (Author author : authors) {
-            Map<String, String> settings = authorSettingsMap.getOrDefault(
-                author.getAuthorId(), 
-                Map.of()
-            );
-            
-            String givenName = settings.getOrDefault("givenName", "");
-            String familyName = settings.getOrDefault("familyName", "");
-            String fullName = buildFullName(givenName, familyName);
-            String affiliation = settings.getOrDefault("affiliation", "");
-            String country = settings.getOrDefault("country", "");
-            
-            authorList.add(AuthorListDto.builder()
-                    .authorId(author.getAuthorId())
-                    .givenName(givenName)
-                    .familyName(familyName)
-                    .fullName(fullName)
-                    .email(author.getEmail())
-                    .affiliation(affiliation)
-                    .country(country)
-                    .build());
+    }
+
+    /**
+     * One page of authors in author_id order
+     *
+     * @param cursor nextCursor of the previous page (the last author_id), or null for the first page
+     */
+    public CursorPage<AuthorListDto> getAuthorsPage(String cursor, int limit) {
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
         }
-        
-        log.info("Successfully built author list with {} entries", authorList.size());
-        return authorList;
+
+        int pageSize = Math.clamp(limit, 1, listingMaxPageSize);
+        List<AuthorListDto> authors = new ArrayList<>();
+        for (Object[] row : authorListingRepository.findPageAfter(afterId, pageSize)) {
+            authors.add(toListDto((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                    (String) row[4], (String) row[5]));
+        }
+
+        String nextCursor = authors.size() == pageSize
+                ? authors.get(authors.size() - 1).getAuthorId().toString()
+                : null;
+        log.info("Found {} authors for listing page", authors.size());
+        return new CursorPage<>(authors, nextCursor);
     }
-    
+
+    private AuthorListDto toListDto(Long authorId, String email, String givenName, String familyName,
+                                    String affiliation, String country) {
+        givenName = givenName != null ? givenName : "";
+        familyName = familyName != null ? familyName : "";
+        return AuthorListDto.builder()
+                .authorId(authorId)
+                .givenName(givenName)
+                .familyName(familyName)
+                .fullName(buildFullName(givenName, familyName))
+                .email(email)
+                .affiliation(affiliation != null ? affiliation : "")
+                .country(country != null ? country : "")
+                .build();
+    }
+
     /**
      * Get author by ID with complete details
      * 
@@ -12,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import java.time.LocalDateTime;
@@ -27,6 +28,8 @@ public class CrossrefCitationService {
     private final PublicationRepository publicationRepository;
     private final PublicationCitationRepositoryHistory historyRepository;
     private final RestTemplate restTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AnalyticsCache analyticsCache;
 
     @Value("${crossref.api.url:https://api.crossref.org/works}")
     private String crossrefApiUrl;
@@ -199,19 +202,24 @@ public class CrossrefCitationService {
         Integer newCount = citationCountOpt.get();
         Integer increase = newCount - previousCount;
 
-        // Update publication
-        publication.setCitationCount(newCount);
-        publication.setLastCitationCheck(LocalDateTime.now());
-        publicationRepository.save(publication);
-
-        // Save history record
-        PublicationCitationHistory history = new PublicationCitationHistory();
-        history.setPublicationId(publication.getPublicationId());
-        history.setCitationCount(newCount);
-        history.setPreviousCount(previousCount);
-        history.setCheckedAt(LocalDateTime.now());
-        history.setSource("crossref");
-        historyRepository.save(history);
+        // Update publication and save history record together; the Crossref call above runs
+        // without a connection when there is no surrounding transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            publication.setCitationCount(newCount);
+            publication.setLastCitationCheck(LocalDateTime.now());
+            publicationRepository.save(publication);
+
+            PublicationCitationHistory history = new PublicationCitationHistory();
+            history.setPublicationId(publication.getPublicationId());
+            history.setCitationCount(newCount);
+            history.setPreviousCount(previousCount);
+            history.setCheckedAt(LocalDateTime.now());
+            history.setSource("crossref");
+            historyRepository.save(history);
+        });
+        if (increase != 0) {
+            analyticsCache.invalidateCitations();
+        }
 
         log.info("Updated publication {} - Citations: {} ({}{})",
                 publication.getPublicationId(), newCount,
@@ -232,9 +240,10 @@ public class CrossrefCitationService {
     }
 
     /**
-     * Update all publications with DOIs
+     * Update all publications with DOIs.
+     * Not transactional: each publication is saved in its own short transaction, so no
+     * connection is held across the Crossref calls and the 1 s pauses between them.
      */
-    @Transactional
     public List<CitationResponse> updateAllPublications() {
         List<Publication> publications = publicationRepository.findAllWithDoi();
         List<CitationResponse> responses = new ArrayList<>();
@@ -271,9 +280,9 @@ public class CrossrefCitationService {
     }
 
     /**
-     * Update publications that haven't been checked in specified hours
+     * Update publications that haven't been checked in specified hours; like
+     * updateAllPublications, one short transaction per publication
      */
-    @Transactional
     public List<CitationResponse> updateStalePublications(int hoursOld) {
         LocalDateTime cutoffTime = LocalDateTime.now().minusHours(hoursOld);
         List<Publication> publications = publicationRepository.findPublicationsNeedingUpdate(cutoffTime);
@@ -0,0 +1,74 @@
+package org.udsm.udsm_hackathon2026.service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic data versions per scope (global geo counters, single article, ...).
+ * Anything derived from a scope's data can be cached against its current version
+ * and is considered valid until the scope is bumped.
+ *
+ * Versions are local to this instance and bumped by whoever changes the data here
+ * (ingestion bumps the article after persisting each metric). They also move when the
+ * scope's AnalyticsCache version changes, so bumps on other instances are seen within a
+ * coalescing tick. Every new version is drawn from one instance-wide clock, so a scope's
+ * version never moves backwards or repeats, whether Redis is reachable or not and even
+ * after its entry was evicted.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersionTracker {
+
+    public static final String GEO_READS = "geo:reads";
+    public static final String GEO_DOWNLOADS = "geo:downloads";
+
+    private final AnalyticsCache analyticsCache;
+
+    private final AtomicLong clock = new AtomicLong();
+    /** Bounded: article scopes are looked up with client-supplied ids */
+    private final Cache<String, Version> versions = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    public static String article(Long articleId) {
+        return "article:" + articleId;
+    }
+
+    public long current(String scope) {
+        Version version = version(scope);
+        Long shared = analyticsCache.sharedVersion(scope);
+        synchronized (version) {
+            if (shared != null && !Objects.equals(shared, version.lastShared)) {
+                version.value = clock.incrementAndGet();
+                version.lastShared = shared;
+            }
+            return version.value;
+        }
+    }
+
+    public void bump(String scope) {
+        Version version = version(scope);
+        synchronized (version) {
+            version.value = clock.incrementAndGet();
+        }
+    }
+
+    private Version version(String scope) {
+        return versions.get(scope, s -> new Version(clock.incrementAndGet()));
+    }
+
+    private static final class Version {
+        private long value;
+        /** AnalyticsCache version last seen, null until Redis was reachable */
+        private Long lastShared;
+
+        private Version(long value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package org.udsm.udsm_hackathon2026.service;
+import java.util.Arrays;
+
+/**
+ * Cumulative counts by day for every (article, country, event type) series, and for every
+ * (country, event type) across all articles, so the total for any [from, to] day range is
+ * two binary-searched lookups per series.
+ *
+ * A series stores only days with counts. Counts for its latest day or a later one are
+ * appended in O(1). Counts for an earlier day (late events, backfilled history) go to a small
+ * per-series backlog that queries add in, and that is merged into the cumulative arrays
+ * once it fills up.
+ *
+ * Not thread-safe; MetricsCube guards it with its lock.
+ */
+final class DayPrefixIndex {
+
+    /** Article id of the all-articles series */
+    static final int GLOBAL = -1;
+
+    private static final int BACKLOG_LIMIT = 32;
+
+    private final LongIntHashMap seriesIndex = new LongIntHashMap(4096);
+    private int[] seriesCountry = new int[4096];
+    private byte[] seriesType = new byte[4096];
+    private int[][] days = new int[4096][];
+    private long[][] cumulative = new long[4096][];
+    private int[] size = new int[4096];
+    private int[][] backlogDays = new int[4096][];
+    private long[][] backlogDeltas = new long[4096][];
+    private int[] backlogSize = new int[4096];
+    private int seriesCount;
+
+    /** Series ids per article id, and for GLOBAL */
+    private int[][] articleSeries = new int[1024][];
+    private int[] articleSeriesCount = new int[1024];
+    private int[] globalSeries = new int[256];
+    private int globalSeriesCount;
+
+    void add(int article, int country, int day, int type, long delta) {
+        addTo(series(article, country, type), day, delta);
+        addTo(series(GLOBAL, country, type), day, delta);
+    }
+
+    /**
+     * Add the [from, to] totals of {@code type} for one article (or GLOBAL) into
+     * {@code totalsByCountry}
+     */
+    void sumByCountry(int article, int type, int from, int to, long[] totalsByCountry) {
+        int[] ids;
+        int count;
+        if (article == GLOBAL) {
+            ids = globalSeries;
+            count = globalSeriesCount;
+        } else if (article < articleSeries.length && articleSeries[article] != null) {
+            ids = articleSeries[article];
+            count = articleSeriesCount[article];
+        } else {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int s = ids[i];
+            if (seriesType[s] == type) {
+                totalsByCountry[seriesCountry[s]] += sum(s, from, to);
+            }
+        }
+    }
+
+    private long sum(int s, int from, int to) {
+        long total = cumulativeAt(s, to) - cumulativeAt(s, from - 1);
+        for (int i = 0; i < backlogSize[s]; i++) {
+            int day = backlogDays[s][i];
+            if (day >= from && day <= to) {
+                total += backlogDeltas[s][i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Count over all days up to and including {@code day}, excluding the backlog
+     */
+    private long cumulativeAt(int s, int day) {
+        int n = size[s];
+        if (n == 0 || day < days[s][0]) {
+            return 0L;
+        }
+        int i = Arrays.binarySearch(days[s], 0, n, day);
+        return cumulative[s][i >= 0 ? i : -i - 2];
+    }
+
+    private void addTo(int s, int day, long delta) {
+        int n = size[s];
+        if (n > 0 && day < days[s][n - 1]) {
+            addToBacklog(s, day, delta);
+            return;
+        }
+        if (n > 0 && day == days[s][n - 1]) {
+            cumulative[s][n - 1] += delta;
+            return;
+        }
+        if (days[s] == null) {
+            days[s] = new int[4];
+            cumulative[s] = new long[4];
+        } else if (n == days[s].length) {
+            days[s] = Arrays.copyOf(days[s], n * 2);
+            cumulative[s] = Arrays.copyOf(cumulative[s], n * 2);
+        }
+        days[s][n] = day;
+        cumulative[s][n] = (n > 0 ? cumulative[s][n - 1] : 0L) + delta;
+        size[s] = n + 1;
+    }
+
+    private void addToBacklog(int s, int day, long delta) {
+        int n = backlogSize[s];
+        if (backlogDays[s] == null) {
+            backlogDays[s] = new int[BACKLOG_LIMIT];
+            backlogDeltas[s] = new long[BACKLOG_LIMIT];
+        }
+        backlogDays[s][n] = day;
+        backlogDeltas[s][n] = delta;
+        backlogSize[s] = n + 1;
+        if (n + 1 == BACKLOG_LIMIT) {
+            mergeBacklog(s);
+        }
+    }
+
+    /**
+     * Rebuild one series' cumulative arrays with its backlog folded in: O(days + backlog)
+     */
+    private void mergeBacklog(int s) {
+        int k = backlogSize[s];
+        int[] pendingDays = Arrays.copyOf(backlogDays[s], k);
+        long[] pendingDeltas = Arrays.copyOf(backlogDeltas[s], k);
+        for (int i = 1; i < k; i++) {
+            int day = pendingDays[i];
+            long delta = pendingDeltas[i];
+            int j = i - 1;
+            while (j >= 0 && pendingDays[j] > day) {
+                pendingDays[j + 1] = pendingDays[j];
+                pendingDeltas[j + 1] = pendingDeltas[j];
+                j--;
+            }
+            pendingDays[j + 1] = day;
+            pendingDeltas[j + 1] = delta;
+        }
+
+        int n = size[s];
+        int[] mergedDays = new int[n + k];
+        long[] mergedCumulative = new long[n + k];
+        int m = 0;
+        int i = 0;
+        int j = 0;
+        long running = 0L;
+        long previous = 0L;
+        while (i < n || j < k) {
+            int day;
+            long value;
+            if (j >= k || (i < n && days[s][i] <= pendingDays[j])) {
+                day = days[s][i];
+                value = cumulative[s][i] - previous;
+                previous = cumulative[s][i];
+                i++;
+            } else {
+                day = pendingDays[j];
+                value = pendingDeltas[j];
+                j++;
+            }
+            running += value;
+            if (m > 0 && mergedDays[m - 1] == day) {
+                mergedCumulative[m - 1] = running;
+            } else {
+                mergedDays[m] = day;
+                mergedCumulative[m] = running;
+                m++;
+            }
+        }
+
+        days[s] = mergedDays;
+        cumulative[s] = mergedCumulative;
+        size[s] = m;
+        backlogSize[s] = 0;
+    }
+
+    private int series(int article, int country, int type) {
+        long key = ((long) (article + 1) << 32) | ((long) country << 2) | type;
+        int s = seriesIndex.get(key);
+        if (s >= 0) {
+            return s;
+        }
+
+        s = seriesCount++;
+        if (s == size.length) {
+            int capacity = size.length * 2;
+            seriesCountry = Arrays.copyOf(seriesCountry, capacity);
+            seriesType = Arrays.copyOf(seriesType, capacity);
+            days = Arrays.copyOf(days, capacity);
+            cumulative = Arrays.copyOf(cumulative, capacity);
+            size = Arrays.copyOf(size, capacity);
+            backlogDays = Arrays.copyOf(backlogDays, capacity);
+            backlogDeltas = Arrays.copyOf(backlogDeltas, capacity);
+            backlogSize = Arrays.copyOf(backlogSize, capacity);
+        }
+        seriesCountry[s] = country;
+        seriesType[s] = (byte) type;
+        seriesIndex.put(key, s);
+
+        if (article == GLOBAL) {
+            if (globalSeriesCount == globalSeries.length) {
+                globalSeries = Arrays.copyOf(globalSeries, globalSeriesCount * 2);
+            }
+            globalSeries[globalSeriesCount++] = s;
+        } else {
+            if (article >= articleSeries.length) {
+                int capacity = Math.max(articleSeries.length * 2, article + 1);
+                articleSeries = Arrays.copyOf(articleSeries, capacity);
+                articleSeriesCount = Arrays.copyOf(articleSeriesCount, capacity);
+            }
+            int count = articleSeriesCount[article];
+            if (articleSeries[article] == null) {
+                articleSeries[article] = new int[4];
+            } else if (count == articleSeries[article].length) {
+                articleSeries[article] = Arrays.copyOf(articleSeries[article], count * 2);
+            }
+            articleSeries[article][count] = s;
+            articleSeriesCount[article] = count + 1;
+        }
+        return s;
+    }
+
+    /**
+     * Approximate heap footprint, from array capacities
+     */
+    long memoryBytes() {
+        long bytes = seriesIndex.memoryBytes() + (long) size.length * (4 + 1 + 8 + 8 + 4 + 8 + 8 + 4);
+        for (int s = 0; s < seriesCount; s++) {
+            if (days[s] != null) {
+                bytes += 32 + days[s].length * 12L;
+            }
+            if (backlogDays[s] != null) {
+                bytes += 32 + BACKLOG_LIMIT * 12L;
+            }
+        }
+        for (int[] ids : articleSeries) {
+            if (ids != null) {
+                bytes += 16 + ids.length * 4L;
+            }
+        }
+        return bytes + (long) articleSeries.length * 12 + globalSeries.length * 4L;
+    }
+}
@@ -4,22 +4,19 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.config.ConnectionBulkhead;
 import org.udsm.udsm_hackathon2026.controller.RealtimeWebSocketController;
-import org.udsm.udsm_hackathon2026.dto.GlobalGeoDistributionDTO;
 import org.udsm.udsm_hackathon2026.dto.realtime.EnrichedEventDto;
 import org.udsm.udsm_hackathon2026.dto.realtime.EventIngestionDto;
 import org.udsm.udsm_hackathon2026.model.Metric;
-import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import org.udsm.udsm_hackathon2026.publisher.LiveEventReplayBuffer;
+import org.udsm.udsm_hackathon2026.publisher.WebSocketPublisher;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -28,12 +25,16 @@ import java.util.UUID;
 public class EventIngestionService {
 
     private final GeoIPService geoIPService;
-    private final MetricRepository metricRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MetricsRollupService metricsRollupService;
     private final ObjectMapper objectMapper;
     private final MetricsService metricsService;
-    private final CountryCoordinatesService coordinatesService;
     private final RealtimeWebSocketController realtimeWebSocketController;
+    private final GlobalGeoDistributionService globalGeoDistributionService;
+    private final WebSocketPublisher webSocketPublisher;
+    private final LiveEventReplayBuffer replayBuffer;
+    private final LiveStatsCounters liveStatsCounters;
+    private final AnalyticsCache analyticsCache;
+    private final DataVersionTracker versionTracker;
 
     private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
     private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
@@ -80,10 +81,12 @@ public class EventIngestionService {
 
             if ("READ".equalsIgnoreCase(eventDto.getEventType())) {
                 metricsService.recordReadership(eventDto.getArticleId(), countryCode);
+                liveStatsCounters.recordRead(countryCode, eventDto.getIp());
                 log.debug("Redis: Incremented read counter for article {} in {}",
                         eventDto.getArticleId(), countryCode);
             } else if ("DOWNLOAD".equalsIgnoreCase(eventDto.getEventType())) {
                 metricsService.recordDownload(eventDto.getArticleId(), countryCode);
+                liveStatsCounters.recordDownload(countryCode, eventDto.getIp());
                 log.debug("Redis: Incremented download counter for article {} in {}",
                         eventDto.getArticleId(), countryCode);
             }
@@ -184,7 +187,9 @@ public class EventIngestionService {
                     .metric(1)
                     .build();
 
-            metricRepository.save(metric);
+            ConnectionBulkhead.run(ConnectionBulkhead.Workload.INGESTION, () -> metricsRollupService.persist(metric));
+            analyticsCache.invalidateArticle(metric.getSubmissionId());
+            versionTracker.bump(DataVersionTracker.article(metric.getSubmissionId()));
             log.debug("Database: Event persisted - article={}, country={}, type={}",
                     metric.getSubmissionId(), metric.getCountryId(), eventDto.getEventType());
 
@@ -193,6 +198,14 @@ public class EventIngestionService {
         }
     }
 
+    private byte[] toJson(EnrichedEventDto event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize live event", e);
+        }
+    }
+
     /**
      * ENHANCED Broadcast to WebSocket - Now includes article-specific enriched data
      *
@@ -210,18 +223,25 @@ public class EventIngestionService {
         try {
             boolean isRead = "READ".equalsIgnoreCase(enrichedEvent.getEventType());
 
-            // 1. Broadcast individual live event
-            String liveTopic = isRead ? "/topic/reads/live" : "/topic/downloads/live";
-            messagingTemplate.convertAndSend(liveTopic, enrichedEvent);
+            // 1. Broadcast individual live event; the sequenced frame is kept for reconnect replay
+            String liveTopic = isRead ? LiveEventReplayBuffer.READS_LIVE_TOPIC : LiveEventReplayBuffer.DOWNLOADS_LIVE_TOPIC;
+            LiveEventReplayBuffer.Frame frame = replayBuffer.append(liveTopic, sequence -> {
+                enrichedEvent.setSequence(sequence);
+                enrichedEvent.setStreamEpoch(replayBuffer.epoch());
+                return toJson(enrichedEvent);
+            });
+            webSocketPublisher.publishBytes(liveTopic, frame.json());
             log.debug("WebSocket: Broadcast to {} - article={}, country={}",
                     liveTopic, enrichedEvent.getArticleId(), geoLocation.getCountry());
 
-            // 2. Broadcast aggregated geographical distribution (ALL articles)
-            String geoTopic = isRead ? "/topic/reads/geo" : "/topic/downloads/geo";
-            GlobalGeoDistributionDTO geoDistribution = buildGlobalGeoDistribution(isRead);
-            messagingTemplate.convertAndSend(geoTopic, geoDistribution);
-            log.debug("WebSocket: Broadcast to {} - total={} across {} countries",
-                    geoTopic, geoDistribution.getTotal(), geoDistribution.getCountryCount());
+            // 2. Broadcast aggregated geographical distribution (ALL articles).
+            //    Serialized once per data version and shared with /api/v1/global/map/*
+            String geoTopic = globalGeoDistributionService.topic(isRead);
+            webSocketPublisher.publishSerialized(
+                    geoTopic,
+                    globalGeoDistributionService.currentVersion(isRead),
+                    () -> globalGeoDistributionService.build(isRead));
+            log.debug("WebSocket: Broadcast to {} - article={}", geoTopic, enrichedEvent.getArticleId());
 
             // 3. NEW: Broadcast ENHANCED article-specific geo distribution with metadata
             realtimeWebSocketController.broadcastRealtimeEventEnhanced(
@@ -234,50 +254,4 @@ public class EventIngestionService {
             log.error("Failed to broadcast event via WebSocket", e);
         }
     }
-
-    /**
-     * Build global geographical distribution from Redis
-     */
-    private GlobalGeoDistributionDTO buildGlobalGeoDistribution(boolean isRead) {
-        // Get aggregated data from Redis
-        Map<String, Long> geoData = isRead
-                ? metricsService.getReadershipGeoAll()
-                : metricsService.getDownloadsGeoAll();
-
-        // Calculate total
-        long total = geoData.values().stream().mapToLong(Long::longValue).sum();
-
-        // Build country metrics with coordinates
-        List<GlobalGeoDistributionDTO.CountryMetric> countries = new ArrayList<>();
-
-        for (Map.Entry<String, Long> entry : geoData.entrySet()) {
-            String countryCode = entry.getKey();
-            Long count = entry.getValue();
-
-            CountryCoordinatesService.CountryCoords coords = coordinatesService.getCoordinates(countryCode);
-
-            double percentage = total > 0 ? (count * 100.0 / total) : 0.0;
-            percentage = Math.round(percentage * 100.0) / 100.0;
-
-            countries.add(GlobalGeoDistributionDTO.CountryMetric.builder()
-                    .countryCode(countryCode)
-                    .countryName(coords.name)
-                    .count(count)
-                    .latitude(coords.latitude)
-                    .longitude(coords.longitude)
-                    .percentage(percentage)
-                    .build());
-        }
-
-        // Sort by count descending
-        countries.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
-
-        return GlobalGeoDistributionDTO.builder()
-                .type(isRead ? "reads" : "downloads")
-                .timestamp(Instant.now())
-                .total(total)
-                .countryCount(countries.size())
-                .countries(countries)
-                .build();
-    }
-}
\ No newline at end of file
+}
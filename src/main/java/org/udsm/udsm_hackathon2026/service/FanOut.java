@@ -0,0 +1,140 @@
+package org.udsm.udsm_hackathon2026.service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.udsm.udsm_hackathon2026.config.AsyncConfig;
+import org.udsm.udsm_hackathon2026.config.ConnectionBulkhead;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent parts of a composite response in parallel on the fan-out executor.
+ *
+ * Usage:
+ * <pre>
+ * try (FanOut.Scope scope = fanOut.open()) {
+ *     FanOut.Branch&lt;A&gt; a = scope.fork("a", this::loadA, fallbackA);
+ *     FanOut.Branch&lt;B&gt; b = scope.fork("b", this::loadB, fallbackB);
+ *     return new Result(a.join(), b.join(), scope.isPartial());
+ * }
+ * </pre>
+ * Each branch has its own deadline, counted from when it was forked. A branch that fails or
+ * misses its deadline yields its fallback and marks the scope partial. Closing the scope
+ * cancels whatever is still running, so no branch outlives the request.
+ */
+@Slf4j
+@Component
+public class FanOut {
+
+    private final AsyncTaskExecutor executor;
+    private final Duration defaultTimeout;
+
+    public FanOut(@Qualifier(AsyncConfig.FAN_OUT_EXECUTOR) AsyncTaskExecutor executor,
+                  @Value("${app.fan-out.branch-timeout-ms:3000}") long defaultTimeoutMs) {
+        this.executor = executor;
+        this.defaultTimeout = Duration.ofMillis(defaultTimeoutMs);
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final List<Branch<?>> branches = new ArrayList<>();
+
+        public <T> Branch<T> fork(String name, Supplier<T> task, T fallback) {
+            return fork(name, task, fallback, defaultTimeout);
+        }
+
+        public <T> Branch<T> fork(String name, Supplier<T> task, T fallback, Duration timeout) {
+            // Branches draw connections from the caller's bulkhead permits
+            ConnectionBulkhead.Workload workload = ConnectionBulkhead.current();
+            Branch<T> branch = new Branch<>(name,
+                    executor.submit(() -> ConnectionBulkhead.call(workload, task)), fallback,
+                    System.nanoTime() + timeout.toNanos());
+            branches.add(branch);
+            return branch;
+        }
+
+        /**
+         * True when at least one joined branch fell back
+         */
+        public boolean isPartial() {
+            return branches.stream().anyMatch(Branch::isFallback);
+        }
+
+        public List<String> fallbackBranches() {
+            return branches.stream().filter(Branch::isFallback).map(Branch::name).toList();
+        }
+
+        @Override
+        public void close() {
+            branches.forEach(branch -> branch.future.cancel(true));
+        }
+    }
+
+    public static final class Branch<T> {
+
+        private final String name;
+        private final Future<T> future;
+        private final T fallback;
+        private final long deadlineNanos;
+        private boolean joined;
+        private boolean fallbackUsed;
+        private T value;
+
+        private Branch(String name, Future<T> future, T fallback, long deadlineNanos) {
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Wait for the branch until its deadline; returns the fallback on failure or timeout
+         */
+        public T join() {
+            if (joined) {
+                return value;
+            }
+            joined = true;
+            try {
+                value = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Fan-out branch '{}' timed out, using fallback", name);
+                useFallback();
+            } catch (ExecutionException e) {
+                log.warn("Fan-out branch '{}' failed, using fallback", name, e.getCause());
+                useFallback();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                useFallback();
+            }
+            return value;
+        }
+
+        public boolean isFallback() {
+            return fallbackUsed;
+        }
+
+        private void useFallback() {
+            fallbackUsed = true;
+            value = fallback;
+        }
+    }
+}
@@ -2,15 +2,14 @@ package org.udsm.udsm_hackathon2026.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.udsm.udsm_hackathon2026.dto.ArticleInfoDto;
 import org.udsm.udsm_hackathon2026.dto.CountryCountDto;
 import org.udsm.udsm_hackathon2026.dto.MonthlyMetricsDto;
 import org.udsm.udsm_hackathon2026.dto.TopArticleDto;
 import org.udsm.udsm_hackathon2026.dto.TopDownloadsDto;
 import org.udsm.udsm_hackathon2026.repository.CitationRepository;
-import org.udsm.udsm_hackathon2026.repository.MetricRepository;
 import org.udsm.udsm_hackathon2026.repository.PublicationRepository;
 import org.udsm.udsm_hackathon2026.repository.PublicationSettingRepository;
+import org.udsm.udsm_hackathon2026.service.ArticleMetadataService.ArticleMetadata;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,26 +21,29 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class GeneralAnalyticsService {
 
-    private final MetricRepository metricRepository;
     private final CitationRepository citationRepository;
     private final PublicationRepository publicationRepository;
-    private final ArticleInfoService articleService;
+    private final ArticleMetadataService articleMetadataService;
     private final PublicationSettingRepository publicationSettingRepository;
+    private final MetricsQueryRouter queryRouter;
+    private final MonthlyTimeSeriesService monthlyTimeSeriesService;
+    private final AnalyticsCache analyticsCache;
 
     private static final long ASSOC_TYPE_SUBMISSION = 256L;
     private static final long ASSOC_TYPE_GALLEY = 515L;
 
     public long getTotalDownloads() {
-        return metricRepository.sumTotalDownloads();
+        return analyticsCache.getLong("totalDownloads", "all", AnalyticsCache.GLOBAL, queryRouter::sumTotalDownloads);
     }
 
     public long getTotalCitations() {
-        return citationRepository.countTotalCitations();
+        return analyticsCache.getLong("totalCitations", "all", AnalyticsCache.CITATIONS,
+                citationRepository::countTotalCitations);
     }
 
 
     public long getTotalReaders() {
-        return metricRepository.sumTotalReaders();
+        return analyticsCache.getLong("totalReaders", "all", AnalyticsCache.GLOBAL, queryRouter::sumTotalReaders);
     }
 
 
@@ -50,40 +52,48 @@ public class GeneralAnalyticsService {
     }
 
     public List<CountryCountDto> getTopReadershipCountries(int limit) {
-        List<Object[]> rows = metricRepository.findTopReadershipCountries(limit);
-        return toCountryCountList(rows);
+        return analyticsCache.getList("topReadershipCountries", String.valueOf(limit), AnalyticsCache.GLOBAL,
+                CountryCountDto.class, () -> toCountryCountList(queryRouter.findTopReadershipCountries(limit)));
     }
 
 
     public List<CountryCountDto> getTopDownloadCountries(int limit) {
-        List<Object[]> rows = metricRepository.findTopDownloadCountries(limit);
-        return toCountryCountList(rows);
+        return analyticsCache.getList("topDownloadCountries", String.valueOf(limit), AnalyticsCache.GLOBAL,
+                CountryCountDto.class, () -> toCountryCountList(queryRouter.findTopDownloadCountries(limit)));
     }
 
 
     public List<TopArticleDto> getTopReadArticles(int limit) {
-        List<Object[]> rows = metricRepository.findTopReadArticles(limit);
+        return analyticsCache.getList("topReadArticles", String.valueOf(limit), AnalyticsCache.GLOBAL,
+                TopArticleDto.class, () -> loadTopReadArticles(limit));
+    }
+
+    private List<TopArticleDto> loadTopReadArticles(int limit) {
+        List<Object[]> rows = queryRouter.findTopReadArticles(limit);
 
         if (rows.isEmpty()) {
             return List.of();
         }
 
+        Map<Long, ArticleMetadata> articles = articleMetadataService.getAll(
+                rows.stream().map(row -> toLong(row[0])).toList());
+
         List<TopArticleDto> result = new ArrayList<>();
         for (Object[] row : rows) {
             Long submissionId = toLong(row[0]);
             Long reads = toLong(row[1]);
 
-            ArticleInfoDto articleInfo = articleService.getArticleInfo(submissionId);
+            ArticleMetadata article = articles.get(submissionId);
 
-            String authorsString = articleInfo.getAuthors() != null && !articleInfo.getAuthors().isEmpty()
-                ? String.join(", ", articleInfo.getAuthors())
+            String authorsString = !article.authors().isEmpty()
+                ? String.join(", ", article.authors())
                 : "Unknown";
             
             result.add(TopArticleDto.builder()
                     .articleId(submissionId)
-                    .title(articleInfo.getTitle() != null ? articleInfo.getTitle() : "Untitled")
+                    .title(article.titleOr("Untitled"))
                     .authors(authorsString)
-                    .articleAbstract(articleInfo.getArticleAbstract())
+                    .articleAbstract(article.articleAbstract())
                     .reads(reads)
                     .build());
         }
@@ -118,21 +128,28 @@ public class GeneralAnalyticsService {
     }
 
     public List<TopDownloadsDto> getTopDownloadedArticles(int limit) {
-        List<Object[]> rows = metricRepository.findTopDownloadedArticles(limit);
+        return analyticsCache.getList("topDownloadedArticles", String.valueOf(limit), AnalyticsCache.GLOBAL,
+                TopDownloadsDto.class, () -> loadTopDownloadedArticles(limit));
+    }
+
+    private List<TopDownloadsDto> loadTopDownloadedArticles(int limit) {
+        List<Object[]> rows = queryRouter.findTopDownloadedArticles(limit);
         if (rows.isEmpty()) {
             return List.of();
         }
+        Map<Long, ArticleMetadata> articles = articleMetadataService.getAll(
+                rows.stream().map(row -> ((Number) row[0]).longValue()).toList());
         return rows.stream()
                 .map(row -> {
                     Long submissionId = ((Number) row[0]).longValue();
                     Long totalDownloads = ((Number) row[1]).longValue();
 
-                    ArticleInfoDto article = articleService.getArticleInfo(submissionId);
+                    ArticleMetadata article = articles.get(submissionId);
 
                     return TopDownloadsDto.builder()
                             .articleId(submissionId)
-                            .title(article.getTitle())
-                            .authors(String.join("; ", article.getAuthors()))
+                            .title(article.title())
+                            .authors(String.join("; ", article.authors()))
                             .totalDownloads(totalDownloads)
                             .build();
                 })
@@ -141,24 +158,9 @@ public class GeneralAnalyticsService {
     public List<MonthlyMetricsDto> getTotalMonthlyMetrics(Integer year) {
         log.info("Fetching total monthly views and downloads for all articles for year: {}", year);
 
-        List<Object[]> rows;
-        if (year != null) {
-            rows = metricRepository.getTotalMonthlyMetricsByYear(year);
-        } else {
-            rows = metricRepository.getTotalMonthlyMetrics();
-        }
-        
-        List<MonthlyMetricsDto> monthlyMetrics = new ArrayList<>();
-
-        for (Object[] row : rows) {
-            String month = (String) row[0];
-            Integer yearValue = ((Number) row[1]).intValue();
-            Integer monthNum = ((Number) row[2]).intValue();
-            Long views = ((Number) row[3]).longValue();
-            Long downloads = ((Number) row[4]).longValue();
-
-            monthlyMetrics.add(new MonthlyMetricsDto(month, yearValue, monthNum, views, downloads));
-        }
+        List<MonthlyMetricsDto> monthlyMetrics = analyticsCache.getList("monthlySeries",
+                "all|" + year, AnalyticsCache.GLOBAL, MonthlyMetricsDto.class,
+                () -> monthlyTimeSeriesService.getMonthlySeries(null, year));
 
         log.info("Found {} months of total data across all articles (year: {})", monthlyMetrics.size(), year);
         return monthlyMetrics;
@@ -0,0 +1,105 @@
+package org.udsm.udsm_hackathon2026.service;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.dto.GlobalGeoDistributionDTO;
+import org.udsm.udsm_hackathon2026.publisher.SerializedPayloadCache;
+import org.udsm.udsm_hackathon2026.publisher.SnapshotStore;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the global (all articles) geographical distribution shown on the world map.
+ * The same versioned, pre-serialized document is shared by the /topic/{type}/geo
+ * broadcasts and the /api/v1/global/map REST endpoints.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GlobalGeoDistributionService {
+
+    public static final String READS_TOPIC = "/topic/reads/geo";
+    public static final String DOWNLOADS_TOPIC = "/topic/downloads/geo";
+
+    private final MetricsService metricsService;
+    private final CountryCoordinatesService coordinatesService;
+    private final DataVersionTracker versionTracker;
+    private final SerializedPayloadCache payloadCache;
+    private final SnapshotStore snapshotStore;
+
+    /**
+     * New subscribers get the current map even before the first broadcast
+     */
+    @PostConstruct
+    public void registerSnapshots() {
+        snapshotStore.registerLoader(READS_TOPIC, destination -> serialized(true));
+        snapshotStore.registerLoader(DOWNLOADS_TOPIC, destination -> serialized(false));
+    }
+
+    public String topic(boolean isRead) {
+        return isRead ? READS_TOPIC : DOWNLOADS_TOPIC;
+    }
+
+    public long currentVersion(boolean isRead) {
+        return versionTracker.current(isRead ? DataVersionTracker.GEO_READS : DataVersionTracker.GEO_DOWNLOADS);
+    }
+
+    /**
+     * JSON-encoded distribution for the current data version (serialized once per version)
+     */
+    public byte[] serialized(boolean isRead) {
+        return payloadCache.get(topic(isRead), currentVersion(isRead), () -> build(isRead));
+    }
+
+    /**
+     * Build global geographical distribution from Redis
+     */
+    public GlobalGeoDistributionDTO build(boolean isRead) {
+        // Get aggregated data from Redis (all articles combined)
+        Map<String, Long> geoData = isRead
+                ? metricsService.getReadershipGeoAll()
+                : metricsService.getDownloadsGeoAll();
+
+        // Calculate total
+        long total = geoData.values().stream().mapToLong(Long::longValue).sum();
+
+        // Build country metrics with coordinates
+        List<GlobalGeoDistributionDTO.CountryMetric> countries = new ArrayList<>();
+
+        for (Map.Entry<String, Long> entry : geoData.entrySet()) {
+            String countryCode = entry.getKey();
+            Long count = entry.getValue();
+
+            CountryCoordinatesService.CountryCoords coords = coordinatesService.getCoordinates(countryCode);
+
+            double percentage = total > 0 ? (count * 100.0 / total) : 0.0;
+            percentage = Math.round(percentage * 100.0) / 100.0; // Round to 2 decimals
+
+            countries.add(GlobalGeoDistributionDTO.CountryMetric.builder()
+                    .countryCode(countryCode)
+                    .countryName(coords.name)
+                    .count(count)
+                    .latitude(coords.latitude)
+                    .longitude(coords.longitude)
+                    .percentage(percentage)
+                    .build());
+        }
+
+        // Sort by count descending
+        countries.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+
+        log.debug("Built global {} distribution: {} total across {} countries",
+                isRead ? "reads" : "downloads", total, countries.size());
+
+        return GlobalGeoDistributionDTO.builder()
+                .type(isRead ? "reads" : "downloads")
+                .timestamp(Instant.now())
+                .total(total)
+                .countryCount(countries.size())
+                .countries(countries)
+                .build();
+    }
+}
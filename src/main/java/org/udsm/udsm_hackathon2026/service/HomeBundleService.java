@@ -0,0 +1,228 @@
+package org.udsm.udsm_hackathon2026.service;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.dto.CountryCountDto;
+import org.udsm.udsm_hackathon2026.dto.HomeBundleDto;
+import org.udsm.udsm_hackathon2026.dto.MonthlyMetricsDto;
+import org.udsm.udsm_hackathon2026.dto.TopArticleDto;
+import org.udsm.udsm_hackathon2026.dto.TopDownloadsDto;
+import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import org.udsm.udsm_hackathon2026.service.ArticleMetadataService.ArticleMetadata;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Builds the home dashboard (totals, top countries, top articles, monthly series) as one
+ * JSON document: one aggregate query over metrics plus one batched metadata lookup.
+ *
+ * The serialized document is cached against the global reads/downloads data version.
+ * It is rebuilt when the version moves, but not more often than {@code min-refresh-ms}
+ * under a steady event stream, and at least every {@code max-age-ms} for changes that
+ * do not bump the version (citation refreshes, metric imports).
+ */
+@Slf4j
+@Service
+public class HomeBundleService {
+
+    private static final String DIM_MONTH = "month";
+    private static final String DIM_COUNTRY = "country";
+    private static final String DIM_ARTICLE = "article";
+    private static final String DIM_COUNT = "count";
+
+    private final MetricRepository metricRepository;
+    private final ArticleMetadataService articleMetadataService;
+    private final DataVersionTracker versionTracker;
+    private final ObjectMapper objectMapper;
+    private final int topLimit;
+    private final long minRefreshMs;
+    private final long maxAgeMs;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Bundle current;
+
+    public HomeBundleService(MetricRepository metricRepository,
+                             ArticleMetadataService articleMetadataService,
+                             DataVersionTracker versionTracker,
+                             ObjectMapper objectMapper,
+                             @Value("${app.home.bundle.top-limit:10}") int topLimit,
+                             @Value("${app.home.bundle.min-refresh-ms:5000}") long minRefreshMs,
+                             @Value("${app.home.bundle.max-age-ms:60000}") long maxAgeMs) {
+        this.metricRepository = metricRepository;
+        this.articleMetadataService = articleMetadataService;
+        this.versionTracker = versionTracker;
+        this.objectMapper = objectMapper;
+        this.topLimit = topLimit;
+        this.minRefreshMs = minRefreshMs;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /**
+     * Serialized bundle; the ETag changes whenever the document is rebuilt
+     */
+    public record Bundle(String version, byte[] json, long builtAt) {
+        public String etag() {
+            return version + "-" + builtAt;
+        }
+    }
+
+    public Bundle getBundle() {
+        String version = currentVersion();
+        Bundle bundle = current;
+        if (isFresh(bundle, version)) {
+            return bundle;
+        }
+
+        // One rebuild at a time; concurrent callers get its result
+        rebuildLock.lock();
+        try {
+            bundle = current;
+            if (isFresh(bundle, version)) {
+                return bundle;
+            }
+            bundle = new Bundle(version, toJson(build(version)), System.currentTimeMillis());
+            current = bundle;
+            return bundle;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isFresh(Bundle bundle, String version) {
+        if (bundle == null) {
+            return false;
+        }
+        long age = System.currentTimeMillis() - bundle.builtAt();
+        return age < minRefreshMs || (age < maxAgeMs && bundle.version().equals(version));
+    }
+
+    private String currentVersion() {
+        return versionTracker.current(DataVersionTracker.GEO_READS) + "-"
+                + versionTracker.current(DataVersionTracker.GEO_DOWNLOADS);
+    }
+
+    private HomeBundleDto build(String version) {
+        long start = System.currentTimeMillis();
+
+        long totalReads = 0;
+        long totalDownloads = 0;
+        long totalCitations = 0;
+        long totalArticles = 0;
+        List<MonthlyMetricsDto> monthly = new ArrayList<>();
+        List<Object[]> countries = new ArrayList<>();
+        List<Object[]> articles = new ArrayList<>();
+
+        for (Object[] row : metricRepository.getHomeBundleAggregates()) {
+            String dim = (String) row[0];
+            String key = (String) row[1];
+            long reads = toLong(row[2]);
+            long downloads = toLong(row[3]);
+
+            switch (dim) {
+                case DIM_MONTH -> {
+                    totalReads += reads;
+                    totalDownloads += downloads;
+                    if (key != null && key.length() >= 6 && (reads > 0 || downloads > 0)) {
+                        monthly.add(new MonthlyMetricsDto(key,
+                                Integer.parseInt(key.substring(0, 4)),
+                                Integer.parseInt(key.substring(4, 6)),
+                                reads, downloads));
+                    }
+                }
+                case DIM_COUNTRY -> countries.add(row);
+                case DIM_ARTICLE -> articles.add(row);
+                case DIM_COUNT -> {
+                    if ("citations".equals(key)) {
+                        totalCitations = reads;
+                    } else if ("articles".equals(key)) {
+                        totalArticles = reads;
+                    }
+                }
+                default -> log.warn("Unexpected home bundle row dimension: {}", dim);
+            }
+        }
+        monthly.sort(Comparator.comparing(MonthlyMetricsDto::getMonth));
+
+        List<Object[]> topRead = top(articles, row -> toLong(row[2]));
+        List<Object[]> topDownloaded = top(articles, row -> toLong(row[3]));
+
+        Set<Long> articleIds = new LinkedHashSet<>();
+        topRead.forEach(row -> articleIds.add(Long.valueOf((String) row[1])));
+        topDownloaded.forEach(row -> articleIds.add(Long.valueOf((String) row[1])));
+        Map<Long, ArticleMetadata> summaries = articleMetadataService.getAll(articleIds);
+
+        HomeBundleDto bundle = HomeBundleDto.builder()
+                .version(version)
+                .generatedAt(LocalDateTime.now())
+                .totalDownloads(totalDownloads)
+                .totalCitations(totalCitations)
+                .totalReaders(totalReads)
+                .totalArticles(totalArticles)
+                .topReadershipCountries(toCountries(top(countries, row -> toLong(row[4])), 4))
+                .topDownloadCountries(toCountries(top(countries, row -> toLong(row[3])), 3))
+                .topReadArticles(topRead.stream().map(row -> {
+                    Long id = Long.valueOf((String) row[1]);
+                    ArticleMetadata summary = summaries.get(id);
+                    return TopArticleDto.builder()
+                            .articleId(id)
+                            .title(summary.titleOr("Untitled"))
+                            .authors(summary.authors().isEmpty() ? "Unknown" : String.join(", ", summary.authors()))
+                            .articleAbstract(summary.articleAbstract())
+                            .reads(toLong(row[2]))
+                            .build();
+                }).toList())
+                .topDownloadedArticles(topDownloaded.stream().map(row -> {
+                    Long id = Long.valueOf((String) row[1]);
+                    ArticleMetadata summary = summaries.get(id);
+                    return TopDownloadsDto.builder()
+                            .articleId(id)
+                            .title(summary.title())
+                            .authors(String.join("; ", summary.authors()))
+                            .totalDownloads(toLong(row[3]))
+                            .build();
+                }).toList())
+                .monthly(monthly)
+                .build();
+
+        log.info("Built home bundle {} in {} ms", version, System.currentTimeMillis() - start);
+        return bundle;
+    }
+
+    private List<Object[]> top(List<Object[]> rows, ToLongFunction<Object[]> value) {
+        return rows.stream()
+                .filter(row -> value.applyAsLong(row) > 0)
+                .sorted(Comparator.comparingLong(value).reversed())
+                .limit(topLimit)
+                .toList();
+    }
+
+    private List<CountryCountDto> toCountries(List<Object[]> rows, int column) {
+        return rows.stream()
+                .map(row -> CountryCountDto.builder()
+                        .country((String) row[1])
+                        .count(toLong(row[column]))
+                        .build())
+                .toList();
+    }
+
+    private byte[] toJson(HomeBundleDto bundle) {
+        try {
+            return objectMapper.writeValueAsBytes(bundle);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize home bundle", e);
+        }
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,138 @@
+package org.udsm.udsm_hackathon2026.service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.udsm.udsm_hackathon2026.dto.realtime.StatsDto;
+import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory counters behind /topic/stats.
+ *
+ * Totals and the country set are seeded from the metrics table once (and re-synced
+ * occasionally), then kept current by event ingestion. The "last 5 minutes" figures
+ * come from per-second buckets, and unique IPs are the distinct IPs seen in the
+ * last 5 minutes. Reading a snapshot never touches the database.
+ */
+@Slf4j
+@Component
+public class LiveStatsCounters {
+
+    private static final int WINDOW_SECONDS = 300;
+
+    private final MetricRepository metricRepository;
+
+    private final AtomicLong totalReads = new AtomicLong();
+    private final AtomicLong totalDownloads = new AtomicLong();
+    private final Set<String> countries = ConcurrentHashMap.newKeySet();
+    private final SlidingWindow recentReads = new SlidingWindow();
+    private final SlidingWindow recentDownloads = new SlidingWindow();
+    private final Cache<String, Boolean> recentIps = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(WINDOW_SECONDS))
+            .maximumSize(100_000)
+            .build();
+
+    private volatile boolean seeded;
+
+    public LiveStatsCounters(MetricRepository metricRepository) {
+        this.metricRepository = metricRepository;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Load totals and countries from the metrics table. Our own ingestion persists every event,
+     * so the table also covers events counted before the sync. Events counted while the queries
+     * run are kept: the totals move by the difference to what they were before the queries.
+     */
+    public void syncFromDatabase() {
+        long readsBefore = totalReads.get();
+        long downloadsBefore = totalDownloads.get();
+        long reads = metricRepository.sumTotalReaders();
+        long downloads = metricRepository.sumTotalDownloads();
+        List<String> knownCountries = metricRepository.findDistinctCountries();
+
+        totalReads.addAndGet(reads - readsBefore);
+        totalDownloads.addAndGet(downloads - downloadsBefore);
+        countries.addAll(knownCountries);
+        seeded = true;
+
+        log.info("Live stats synced from database: reads={}, downloads={}, countries={}",
+                reads, downloads, countries.size());
+    }
+
+    public void recordRead(String countryCode, String ip) {
+        totalReads.incrementAndGet();
+        recentReads.increment();
+        record(countryCode, ip);
+    }
+
+    public void recordDownload(String countryCode, String ip) {
+        totalDownloads.incrementAndGet();
+        recentDownloads.increment();
+        record(countryCode, ip);
+    }
+
+    public StatsDto snapshot() {
+        recentIps.cleanUp();
+        return StatsDto.builder()
+                .totalReads(totalReads.get())
+                .totalDownloads(totalDownloads.get())
+                .readsLast5Min(recentReads.sum())
+                .downloadsLast5Min(recentDownloads.sum())
+                .uniqueCountries((long) countries.size())
+                .uniqueIPs(recentIps.estimatedSize())
+                .build();
+    }
+
+    private void record(String countryCode, String ip) {
+        if (countryCode != null && !countryCode.isEmpty()) {
+            countries.add(countryCode);
+        }
+        if (ip != null && !ip.isEmpty()) {
+            recentIps.put(ip, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Event counts for the last 5 minutes in one-second buckets. Each bucket packs the second
+     * it belongs to (high 32 bits) and its count (low 32 bits) into one long, so moving a bucket
+     * to a new second and counting in it is a single CAS; stale buckets are ignored on read.
+     */
+    private static final class SlidingWindow {
+        private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(WINDOW_SECONDS);
+
+        void increment() {
+            long now = System.currentTimeMillis() / 1000;
+            int index = (int) (now % WINDOW_SECONDS);
+            long current;
+            long next;
+            do {
+                current = buckets.get(index);
+                next = current >>> 32 == now ? current + 1 : now << 32 | 1;
+            } while (!buckets.compareAndSet(index, current, next));
+        }
+
+        long sum() {
+            long now = System.currentTimeMillis() / 1000;
+            long total = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                long bucket = buckets.get(i);
+                if (now - (bucket >>> 32) < WINDOW_SECONDS) {
+                    total += bucket & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+}
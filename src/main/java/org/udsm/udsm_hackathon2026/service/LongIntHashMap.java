@@ -0,0 +1,73 @@
+package org.udsm.udsm_hackathon2026.service;
+import java.util.Arrays;
+
+/**
+ * Open-addressing long -> non-negative int map; get returns -1 when absent
+ */
+final class LongIntHashMap {
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        Arrays.fill(values, -1);
+    }
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key) & mask; ; i = (i + 1) & mask) {
+            if (values[i] < 0) {
+                return -1;
+            }
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+    }
+
+    /**
+     * Insert a key that is not yet present
+     */
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        insert(key, value);
+        size++;
+    }
+
+    private void insert(long key, int value) {
+        int mask = keys.length - 1;
+        int i = slot(key) & mask;
+        while (values[i] >= 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, -1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] >= 0) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    long memoryBytes() {
+        return keys.length * 12L;
+    }
+}
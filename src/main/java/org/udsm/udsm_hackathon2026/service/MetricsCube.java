@@ -0,0 +1,952 @@
+package org.udsm.udsm_hackathon2026.service;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.udsm.udsm_hackathon2026.config.AsyncConfig;
+import org.udsm.udsm_hackathon2026.config.ConnectionBulkhead;
+import org.udsm.udsm_hackathon2026.model.Metric;
+import org.udsm.udsm_hackathon2026.repository.MetricsRollupRepository;
+import org.udsm.udsm_hackathon2026.scheduler.ScheduledJobMonitor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory cube of metric counts by (article, country, day, event type), the same
+ * granularity as metrics_daily_rollup.
+ *
+ * Articles and countries are dictionary-encoded to dense ints and days are stored as an
+ * offset from {@link #EPOCH}, so a cell is a few primitives spread over parallel arrays.
+ * Totals per event type, article and country are maintained alongside the cells, and a
+ * {@link DayPrefixIndex} answers day-range totals by country; monthly queries scan only the
+ * cells of the requested article (or all cells).
+ *
+ * Loaded at startup from metrics in month chunks read in parallel and kept current by
+ * ingestion. Recent days are refreshed from the database nightly and the whole cube is
+ * reloaded weekly, picking up rows OJS wrote itself. Each read runs in one REPEATABLE READ
+ * snapshot that also reports which events committed during the load it already contains
+ * (by load_id); events it does not contain are replayed, the others are not added twice.
+ *
+ * Query methods return the same row shapes as MetricsRollupRepository.
+ */
+@Slf4j
+@Component
+public class MetricsCube {
+
+    public static final long ASSOC_TYPE_READ = 1048585L;
+    public static final long ASSOC_TYPE_DOWNLOAD = 515L;
+    public static final long ASSOC_TYPE_SUBMISSION = 256L;
+
+    private static final int READ = 0;
+    private static final int DOWNLOAD = 1;
+    private static final int SUBMISSION = 2;
+    private static final int TYPES = 3;
+
+    static final LocalDate EPOCH = LocalDate.of(1990, 1, 1);
+    private static final int DAYS = (int) (LocalDate.of(2100, 1, 1).toEpochDay() - EPOCH.toEpochDay());
+    private static final int MAX_COUNTRIES = 1 << 12;
+    private static final String UNKNOWN_COUNTRY = "Unknown";
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    /** load_ids per visibility query */
+    private static final int VISIBILITY_BATCH = 500;
+
+    /** Day offset -> months since EPOCH */
+    private static final int[] MONTH_OF_DAY = new int[DAYS];
+
+    static {
+        for (int day = 0; day < DAYS; day++) {
+            MONTH_OF_DAY[day] = monthIndex(EPOCH.plusDays(day));
+        }
+    }
+
+    private final MetricsRollupRepository rollupRepository;
+    private final TaskScheduler maintenanceScheduler;
+    private final ScheduledJobMonitor jobMonitor;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionTemplate snapshotTemplate;
+    private final boolean enabled;
+    private final int loadParallelism;
+    private final String reloadCron;
+    private final String refreshCron;
+    private final int refreshDays;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean loadRunning = new AtomicBoolean();
+    /** load_id -> day of metrics whose transaction has not completed yet */
+    private final Map<String, Integer> committing = new ConcurrentHashMap<>();
+    private Store store = new Store();          // guarded by lock
+    private List<PendingEvent> pending;         // non-null while a load runs; guarded by lock
+    /** Committing metrics a finished load already contained; not added again when they complete */
+    private final Set<String> loadedBeforeRecorded = new HashSet<>();   // guarded by lock
+    private volatile boolean ready;
+
+    public MetricsCube(MetricsRollupRepository rollupRepository,
+                       @Qualifier(AsyncConfig.MAINTENANCE_SCHEDULER) TaskScheduler maintenanceScheduler,
+                       ScheduledJobMonitor jobMonitor,
+                       AnalyticsCache analyticsCache,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.cube.enabled:true}") boolean enabled,
+                       @Value("${app.cube.load-parallelism:4}") int loadParallelism,
+                       @Value("${app.cube.reload-cron:0 45 0 * * SUN}") String reloadCron,
+                       @Value("${app.cube.refresh-cron:0 20 0 * * *}") String refreshCron,
+                       @Value("${app.cube.refresh-days:2}") int refreshDays) {
+        this.rollupRepository = rollupRepository;
+        this.maintenanceScheduler = maintenanceScheduler;
+        this.jobMonitor = jobMonitor;
+        this.analyticsCache = analyticsCache;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+        this.loadParallelism = Math.max(1, loadParallelism);
+        this.reloadCron = reloadCron;
+        this.refreshCron = refreshCron;
+        this.refreshDays = refreshDays;
+
+        Gauge.builder("metrics.cube.memory", this, cube -> cube.stats().memoryBytes())
+                .description("Approximate heap used by the metrics cube")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("metrics.cube.cells", this, cube -> cube.stats().cells())
+                .description("Populated (article, country, day, event type) cells")
+                .register(meterRegistry);
+    }
+
+    public record Stats(int articles, int countries, int cells, long memoryBytes) {}
+
+    private record PendingEvent(String loadId, long submissionId, String country, int day, int type, long delta) {}
+
+    /**
+     * True when reads may be served from the cube
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return new Stats(store.articleCount, store.countryCount, store.cells, store.memoryBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // MAINTENANCE
+    // ══════════════════════════════════════════════════════════════
+
+    /**
+     * Add a metric persisted in the current transaction once that commits. Until the transaction
+     * completes the metric is tracked as committing, so a load reading concurrently can tell
+     * whether its snapshot already contains the row.
+     */
+    public void recordOnCommit(Metric metric) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(metric);
+            return;
+        }
+        String loadId = metric.getLoadId();
+        committing.put(loadId, dayOffset(metric.getDay()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        record(metric);
+                    }
+                } finally {
+                    // Only once recorded, so a load always sees the metric in one of the two
+                    committing.remove(loadId);
+                }
+            }
+        });
+    }
+
+    private void record(Metric metric) {
+        int type = typeIndex(metric.getAssocType() != null ? metric.getAssocType() : 0L);
+        int day = dayOffset(metric.getDay());
+        if (type < 0 || day < 0) {
+            return;
+        }
+        long submissionId = metric.getSubmissionId() != null ? metric.getSubmissionId() : 0L;
+        String country = metric.getCountryId() != null ? metric.getCountryId() : "";
+        long delta = metric.getMetric() != null ? metric.getMetric() : 1;
+
+        lock.writeLock().lock();
+        try {
+            if (loadedBeforeRecorded.remove(metric.getLoadId())) {
+                return;
+            }
+            store.add(submissionId, country, day, type, delta);
+            if (pending != null) {
+                pending.add(new PendingEvent(metric.getLoadId(), submissionId, country, day, type, delta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoad() {
+        if (enabled) {
+            maintenanceScheduler.schedule(this::load, Instant.now());
+        }
+    }
+
+    @Scheduled(cron = "${app.cube.reload-cron:0 45 0 * * SUN}", scheduler = AsyncConfig.MAINTENANCE_SCHEDULER)
+    public void reload() {
+        if (enabled) {
+            jobMonitor.runCron("metrics-cube-reload", reloadCron, () -> {
+                load();
+                analyticsCache.invalidateAll();
+            });
+        }
+    }
+
+    @Scheduled(cron = "${app.cube.refresh-cron:0 20 0 * * *}", scheduler = AsyncConfig.MAINTENANCE_SCHEDULER)
+    public void refreshRecentDays() {
+        if (enabled) {
+            LocalDate today = LocalDate.now();
+            jobMonitor.runCron("metrics-cube-refresh", refreshCron, () -> {
+                refreshDays(today.minusDays(refreshDays), today);
+                analyticsCache.invalidateAll();
+            });
+        }
+    }
+
+    private void load() {
+        if (!loadRunning.compareAndSet(false, true)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            String firstDay = rollupRepository.findFirstMetricDay();
+            YearMonth first = firstDay != null
+                    ? YearMonth.parse(firstDay.substring(0, 6), MONTH_FORMATTER)
+                    : YearMonth.now();
+            List<YearMonth> months = new ArrayList<>();
+            for (YearMonth month = first; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+                months.add(month);
+            }
+
+            List<Chunk> chunks = readChunks(months);
+            Store loaded = new Store();
+            for (Chunk chunk : chunks) {
+                chunk.mergeInto(loaded);
+            }
+
+            int firstMonth = monthIndex(first.atDay(1));
+            int replayed = 0;
+            lock.writeLock().lock();
+            try {
+                for (PendingEvent event : pending) {
+                    int chunk = MONTH_OF_DAY[event.day()] - firstMonth;
+                    if (chunk < 0 || chunk >= chunks.size() || !chunks.get(chunk).contained.contains(event.loadId())) {
+                        loaded.add(event.submissionId(), event.country(), event.day(), event.type(), event.delta());
+                        replayed++;
+                    }
+                }
+                skipStillCommitting(chunks);
+                store = loaded;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.info("Metrics cube loaded: {} months, {} articles, {} countries, {} cells, ~{} KB, {} live events replayed ({} ms)",
+                    months.size(), loaded.articleCount, loaded.countryCount, loaded.cells,
+                    loaded.memoryBytes() / 1024, replayed, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Metrics cube load interrupted");
+        } catch (Exception e) {
+            log.error("Metrics cube load failed; analytics reads {}", ready ? "keep the previous cube" : "stay on the database", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loadRunning.set(false);
+        }
+    }
+
+    /**
+     * Re-read [from, to] from metrics and apply the differences, e.g. after historical rows
+     * were backfilled; cells outside the range and the rest of the cube are left as they are.
+     * Does nothing until the initial load has completed or while another load is running.
+     */
+    public void refreshDays(LocalDate from, LocalDate to) {
+        if (!isReady() || !loadRunning.compareAndSet(false, true)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            Chunk chunk = readCells(from, to);
+
+            int fromDay = dayOffset(from.format(DAY_FORMATTER));
+            int toDay = dayOffset(to.format(DAY_FORMATTER));
+            int changed;
+            lock.writeLock().lock();
+            try {
+                for (PendingEvent event : pending) {
+                    if (event.day() >= fromDay && event.day() <= toDay && !chunk.contained.contains(event.loadId())) {
+                        chunk.add(event.submissionId(), event.country(), event.day(), event.type(), event.delta());
+                    }
+                }
+                skipStillCommitting(List.of(chunk));
+                changed = store.replaceDays(fromDay, toDay, chunk);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Metrics cube refreshed {} to {}: {} cells changed ({} ms)",
+                    from, to, changed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Metrics cube refresh of {} to {} failed", from, to, e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loadRunning.set(false);
+        }
+    }
+
+    /**
+     * Read one chunk per month, {@code loadParallelism} at a time
+     */
+    private List<Chunk> readChunks(List<YearMonth> months)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(loadParallelism,
+                Thread.ofPlatform().name("metrics-cube-load-", 0).daemon().factory());
+        try {
+            List<Future<Chunk>> futures = new ArrayList<>();
+            for (YearMonth month : months) {
+                futures.add(executor.submit(() -> ConnectionBulkhead.call(ConnectionBulkhead.Workload.BACKGROUND,
+                        () -> readCells(month.atDay(1), month.atEndOfMonth()))));
+            }
+            List<Chunk> chunks = new ArrayList<>(futures.size());
+            for (Future<Chunk> future : futures) {
+                chunks.add(future.get());
+            }
+            return chunks;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Read [from, to] and, from the same snapshot, which metrics recorded or committing since the
+     * load started it contains. A metric not yet committing when the check runs commits after
+     * the snapshot was taken, so it is not contained.
+     */
+    private Chunk readCells(LocalDate from, LocalDate to) {
+        return snapshotTemplate.execute(status -> {
+            Chunk chunk = new Chunk();
+            rollupRepository.streamDailyCells(from.format(DAY_FORMATTER), to.format(DAY_FORMATTER), chunk::add);
+
+            List<String> candidates = liveLoadIds(dayOffset(from.format(DAY_FORMATTER)), dayOffset(to.format(DAY_FORMATTER)));
+            for (int i = 0; i < candidates.size(); i += VISIBILITY_BATCH) {
+                chunk.contained.addAll(rollupRepository.findExistingLoadIds(
+                        candidates.subList(i, Math.min(candidates.size(), i + VISIBILITY_BATCH))));
+            }
+            return chunk;
+        });
+    }
+
+    /**
+     * load_ids of metrics on [fromDay, toDay] that are committing or were recorded during this load
+     */
+    private List<String> liveLoadIds(int fromDay, int toDay) {
+        Set<String> loadIds = new HashSet<>();
+        // Committing first: a metric leaves it only after it was added to pending
+        committing.forEach((loadId, day) -> {
+            if (day >= fromDay && day <= toDay) {
+                loadIds.add(loadId);
+            }
+        });
+        lock.readLock().lock();
+        try {
+            for (PendingEvent event : pending) {
+                if (event.day() >= fromDay && event.day() <= toDay) {
+                    loadIds.add(event.loadId());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(loadIds);
+    }
+
+    /**
+     * Contained metrics whose transaction has not completed yet are in the new cells already;
+     * call with the write lock held, before pending is cleared
+     */
+    private void skipStillCommitting(List<Chunk> chunks) {
+        Set<String> recorded = new HashSet<>();
+        for (PendingEvent event : pending) {
+            recorded.add(event.loadId());
+        }
+        for (Chunk chunk : chunks) {
+            for (String loadId : chunk.contained) {
+                if (!recorded.contains(loadId) && committing.containsKey(loadId)) {
+                    loadedBeforeRecorded.add(loadId);
+                }
+            }
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // QUERIES
+    // ══════════════════════════════════════════════════════════════
+
+    public long sumByAssocType(long assocType) {
+        int type = typeIndex(assocType);
+        lock.readLock().lock();
+        try {
+            return type < 0 ? 0L : store.typeTotals[type];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sumByArticle(long submissionId, long assocType) {
+        int type = typeIndex(assocType);
+        lock.readLock().lock();
+        try {
+            int article = store.articleIndex.get(submissionId);
+            return type < 0 || article < 0 ? 0L : store.articleTotals[type][article];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows of (country, total), highest first; metrics without a country are left out, as in
+     * the raw and rollup queries
+     */
+    public List<Object[]> findTopCountries(long assocType, int limit) {
+        int type = typeIndex(assocType);
+        if (type < 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return countryRows(store, store.countryTotals[type], limit, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows of (submission_id, total), highest first
+     */
+    public List<Object[]> findTopArticles(long assocType, int limit) {
+        int type = typeIndex(assocType);
+        if (type < 0 || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            long[] totals = store.articleTotals[type];
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> Long.compare(totals[a], totals[b]));
+            for (int article = 0; article < store.articleCount; article++) {
+                if (store.articleIds[article] == 0L || totals[article] <= 0) {
+                    continue;
+                }
+                top.add(article);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Object[]> rows = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int article = top.poll();
+                rows.add(new Object[] { store.articleIds[article], totals[article] });
+            }
+            return rows.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows of (country, total) for days in [fromDay, toDay], optionally for one article
+     */
+    public List<Object[]> aggregateByCountryAndDateRange(long assocType, String fromDay, String toDay,
+                                                         Long submissionId) {
+        int type = typeIndex(assocType);
+        int from = clampedDayOffset(fromDay, 0);
+        int to = clampedDayOffset(toDay, DAYS - 1);
+        if (type < 0 || from > to) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Store s = store;
+            int article = DayPrefixIndex.GLOBAL;
+            if (submissionId != null) {
+                article = s.articleIndex.get(submissionId);
+                if (article < 0) {
+                    return List.of();
+                }
+            }
+            long[] totals = new long[s.countryCount];
+            s.prefix.sumByCountry(article, type, from, to, totals);
+            return countryRows(s, totals, Integer.MAX_VALUE, true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows of (month, views, downloads) for months in [fromMonth, toMonth], optionally for one article
+     */
+    public List<Object[]> getMonthlySeries(Long submissionId, String fromMonth, String toMonth) {
+        int from = clampedMonthIndex(fromMonth, 0);
+        int to = clampedMonthIndex(toMonth, MONTH_OF_DAY[DAYS - 1]);
+        if (from > to) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Store s = store;
+            long[] views = new long[to - from + 1];
+            long[] downloads = new long[to - from + 1];
+            boolean[] seen = new boolean[to - from + 1];
+            CellScan scan = s.scan(submissionId);
+            for (int i = 0; i < scan.size(); i++) {
+                int cell = scan.cell(i);
+                int type = s.cellType[cell];
+                int month = MONTH_OF_DAY[s.cellDay[cell]];
+                if (type == SUBMISSION || month < from || month > to) {
+                    continue;
+                }
+                seen[month - from] = true;
+                if (type == READ) {
+                    views[month - from] += s.cellTotal[cell];
+                } else {
+                    downloads[month - from] += s.cellTotal[cell];
+                }
+            }
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < seen.length; i++) {
+                if (seen[i]) {
+                    rows.add(new Object[] { monthString(from + i), views[i], downloads[i] });
+                }
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Earliest month (YYYYMM) with reads or downloads, or null
+     */
+    public String findFirstMonth(Long submissionId) {
+        lock.readLock().lock();
+        try {
+            Store s = store;
+            int first = Integer.MAX_VALUE;
+            CellScan scan = s.scan(submissionId);
+            for (int i = 0; i < scan.size(); i++) {
+                int cell = scan.cell(i);
+                if (s.cellType[cell] != SUBMISSION && s.cellDay[cell] < first) {
+                    first = s.cellDay[cell];
+                }
+            }
+            return first == Integer.MAX_VALUE ? null : monthString(MONTH_OF_DAY[first]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Object[]> countryRows(Store s, long[] totals, int limit, boolean withUnknown) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int country = 0; country < s.countryCount; country++) {
+            if (totals[country] > 0 && (withUnknown || !s.countries[country].isEmpty())) {
+                String name = s.countries[country].isEmpty() ? UNKNOWN_COUNTRY : s.countries[country];
+                rows.add(new Object[] { name, totals[country] });
+            }
+        }
+        rows.sort((a, b) -> Long.compare((Long) b[1], (Long) a[1]));
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // ENCODING
+    // ══════════════════════════════════════════════════════════════
+
+    private static int typeIndex(long assocType) {
+        if (assocType == ASSOC_TYPE_READ) {
+            return READ;
+        }
+        if (assocType == ASSOC_TYPE_DOWNLOAD) {
+            return DOWNLOAD;
+        }
+        return assocType == ASSOC_TYPE_SUBMISSION ? SUBMISSION : -1;
+    }
+
+    /**
+     * YYYYMMDD -> days since EPOCH, or -1 when missing, malformed or out of range
+     */
+    static int dayOffset(String day) {
+        if (day == null || day.length() != 8) {
+            return -1;
+        }
+        try {
+            LocalDate date = LocalDate.of(Integer.parseInt(day.substring(0, 4)),
+                    Integer.parseInt(day.substring(4, 6)), Integer.parseInt(day.substring(6, 8)));
+            long offset = date.toEpochDay() - EPOCH.toEpochDay();
+            return offset >= 0 && offset < DAYS ? (int) offset : -1;
+        } catch (NumberFormatException | DateTimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Dense article id in the high 32 bits, then 12 bits of country, 18 of day and 2 of type
+     */
+    static long cellKey(int article, int country, int day, int type) {
+        return ((long) article << 32) | ((long) country << 20) | ((long) day << 2) | type;
+    }
+
+    private static int clampedDayOffset(String day, int fallback) {
+        if (day != null && day.compareTo(EPOCH.format(DAY_FORMATTER)) < 0) {
+            return 0;
+        }
+        int offset = dayOffset(day);
+        return offset >= 0 ? offset : fallback;
+    }
+
+    private static int clampedMonthIndex(String month, int fallback) {
+        try {
+            int index = monthIndex(YearMonth.parse(month, MONTH_FORMATTER).atDay(1));
+            return Math.clamp(index, 0, MONTH_OF_DAY[DAYS - 1]);
+        } catch (RuntimeException e) {
+            return fallback;
+        }
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return (date.getYear() - EPOCH.getYear()) * 12 + date.getMonthValue() - 1;
+    }
+
+    private static String monthString(int monthIndex) {
+        return YearMonth.of(EPOCH.getYear() + monthIndex / 12, monthIndex % 12 + 1).format(MONTH_FORMATTER);
+    }
+
+    // ══════════════════════════════════════════════════════════════
+    // STORAGE
+    // ══════════════════════════════════════════════════════════════
+
+    /**
+     * Cells in parallel primitive arrays, plus per-type totals by article and country.
+     * Article 0 holds metrics without a submission_id; country "" those without a country.
+     */
+    private static final class Store {
+
+        private final LongIntHashMap articleIndex = new LongIntHashMap(1024);
+        private long[] articleIds = new long[1024];
+        private int articleCount;
+
+        private final Map<String, Integer> countryIndex = new HashMap<>();
+        private String[] countries = new String[256];
+        private int countryCount;
+
+        private final LongIntHashMap cellIndex = new LongIntHashMap(1 << 16);
+        private int[] cellArticle = new int[1 << 16];
+        private short[] cellCountry = new short[1 << 16];
+        private int[] cellDay = new int[1 << 16];
+        private byte[] cellType = new byte[1 << 16];
+        private long[] cellTotal = new long[1 << 16];
+        private int cells;
+
+        /** Cell ids per article */
+        private int[][] articleCells = new int[1024][];
+        private int[] articleCellCount = new int[1024];
+
+        private final long[] typeTotals = new long[TYPES];
+        private final long[][] articleTotals = new long[TYPES][1024];
+        private final long[][] countryTotals = new long[TYPES][256];
+
+        private final DayPrefixIndex prefix = new DayPrefixIndex();
+
+        Store() {
+            country("");
+        }
+
+        void add(long submissionId, String country, int day, int type, long delta) {
+            int article = article(submissionId);
+            int countryId = country(country);
+            int cell = cellIndex.get(cellKey(article, countryId, day, type));
+            if (cell < 0) {
+                cell = newCell(article, countryId, day, type);
+                cellIndex.put(cellKey(article, countryId, day, type), cell);
+            }
+            cellTotal[cell] += delta;
+            typeTotals[type] += delta;
+            articleTotals[type][article] += delta;
+            countryTotals[type][countryId] += delta;
+            prefix.add(article, countryId, day, type, delta);
+        }
+
+        /**
+         * Make every cell with a day in [fromDay, toDay] equal to {@code target}, adding or
+         * subtracting the difference; returns the number of cells changed
+         */
+        int replaceDays(int fromDay, int toDay, Chunk target) {
+            LongIntHashMap targetIndex = new LongIntHashMap(target.size * 2);
+            long[] targetTotals = new long[target.size];
+            int[] targetRows = new int[target.size];
+            int targetCount = 0;
+            for (int i = 0; i < target.size; i++) {
+                long key = cellKey(article(target.submissionIds[i]), country(target.countries[i]),
+                        target.days[i], target.types[i]);
+                int t = targetIndex.get(key);
+                if (t < 0) {
+                    t = targetCount++;
+                    targetIndex.put(key, t);
+                    targetRows[t] = i;
+                }
+                targetTotals[t] += target.totals[i];
+            }
+
+            int changed = 0;
+            boolean[] applied = new boolean[targetCount];
+            int existing = cells;
+            for (int cell = 0; cell < existing; cell++) {
+                int day = cellDay[cell];
+                if (day < fromDay || day > toDay) {
+                    continue;
+                }
+                int t = targetIndex.get(cellKey(cellArticle[cell], cellCountry[cell], day, cellType[cell]));
+                long wanted = 0L;
+                if (t >= 0) {
+                    wanted = targetTotals[t];
+                    applied[t] = true;
+                }
+                long delta = wanted - cellTotal[cell];
+                if (delta != 0) {
+                    add(articleIds[cellArticle[cell]], countries[cellCountry[cell]], day, cellType[cell], delta);
+                    changed++;
+                }
+            }
+            for (int t = 0; t < targetCount; t++) {
+                if (!applied[t] && targetTotals[t] != 0) {
+                    int row = targetRows[t];
+                    add(target.submissionIds[row], target.countries[row], target.days[row], target.types[row],
+                            targetTotals[t]);
+                    changed++;
+                }
+            }
+            return changed;
+        }
+
+        private int article(long submissionId) {
+            int article = articleIndex.get(submissionId);
+            if (article >= 0) {
+                return article;
+            }
+            article = articleCount++;
+            if (article == articleIds.length) {
+                int capacity = articleIds.length * 2;
+                articleIds = Arrays.copyOf(articleIds, capacity);
+                articleCells = Arrays.copyOf(articleCells, capacity);
+                articleCellCount = Arrays.copyOf(articleCellCount, capacity);
+                for (int type = 0; type < TYPES; type++) {
+                    articleTotals[type] = Arrays.copyOf(articleTotals[type], capacity);
+                }
+            }
+            articleIds[article] = submissionId;
+            articleIndex.put(submissionId, article);
+            return article;
+        }
+
+        private int country(String country) {
+            Integer existing = countryIndex.get(country);
+            if (existing != null) {
+                return existing;
+            }
+            if (countryCount == MAX_COUNTRIES) {
+                return country("");
+            }
+            int id = countryCount++;
+            if (id == countries.length) {
+                countries = Arrays.copyOf(countries, countries.length * 2);
+                for (int type = 0; type < TYPES; type++) {
+                    countryTotals[type] = Arrays.copyOf(countryTotals[type], countries.length);
+                }
+            }
+            countries[id] = country;
+            countryIndex.put(country, id);
+            return id;
+        }
+
+        private int newCell(int article, int country, int day, int type) {
+            int cell = cells++;
+            if (cell == cellDay.length) {
+                int capacity = cellDay.length * 2;
+                cellArticle = Arrays.copyOf(cellArticle, capacity);
+                cellCountry = Arrays.copyOf(cellCountry, capacity);
+                cellDay = Arrays.copyOf(cellDay, capacity);
+                cellType = Arrays.copyOf(cellType, capacity);
+                cellTotal = Arrays.copyOf(cellTotal, capacity);
+            }
+            cellArticle[cell] = article;
+            cellCountry[cell] = (short) country;
+            cellDay[cell] = day;
+            cellType[cell] = (byte) type;
+
+            int[] list = articleCells[article];
+            int count = articleCellCount[article];
+            if (list == null) {
+                list = articleCells[article] = new int[8];
+            } else if (count == list.length) {
+                list = articleCells[article] = Arrays.copyOf(list, count * 2);
+            }
+            list[count] = cell;
+            articleCellCount[article] = count + 1;
+            return cell;
+        }
+
+        /**
+         * Cells of one article, or all cells when {@code submissionId} is null
+         */
+        CellScan scan(Long submissionId) {
+            if (submissionId == null) {
+                return new CellScan(null, cells);
+            }
+            int article = articleIndex.get(submissionId);
+            return article < 0
+                    ? new CellScan(null, 0)
+                    : new CellScan(articleCells[article], articleCellCount[article]);
+        }
+
+        /**
+         * Approximate heap footprint, from array capacities
+         */
+        long memoryBytes() {
+            long bytes = (long) cellDay.length * (4 + 2 + 4 + 1 + 8);
+            bytes += cellIndex.memoryBytes() + articleIndex.memoryBytes();
+            bytes += (long) articleIds.length * (8 + 8 + 4 + TYPES * 8);
+            for (int article = 0; article < articleCount; article++) {
+                if (articleCells[article] != null) {
+                    bytes += 16 + articleCells[article].length * 4L;
+                }
+            }
+            bytes += (long) countries.length * (8 + TYPES * 8) + countryCount * 64L;
+            return bytes + prefix.memoryBytes();
+        }
+    }
+
+    /**
+     * Cell ids to visit: {@code cells[0..size)}, or {@code 0..size} when {@code cells} is null
+     */
+    private record CellScan(int[] cells, int size) {
+        int cell(int i) {
+            return cells != null ? cells[i] : i;
+        }
+    }
+
+    /**
+     * Rows read from the database (one month during a load), before dictionary encoding
+     */
+    private static final class Chunk {
+        private long[] submissionIds = new long[1024];
+        private String[] countries = new String[1024];
+        private int[] days = new int[1024];
+        private byte[] types = new byte[1024];
+        private long[] totals = new long[1024];
+        private int size;
+        /** load_ids of live metrics the read already contained */
+        private final Set<String> contained = new HashSet<>();
+
+        void add(ResultSet rs) throws SQLException {
+            int type = typeIndex(rs.getLong("assoc_type"));
+            int day = dayOffset(rs.getString("day"));
+            if (type < 0 || day < 0) {
+                return;
+            }
+            add(rs.getLong("submission_id"), rs.getString("country_id"), day, type, rs.getLong("total"));
+        }
+
+        void add(long submissionId, String country, int day, int type, long total) {
+            if (size == days.length) {
+                int capacity = size * 2;
+                submissionIds = Arrays.copyOf(submissionIds, capacity);
+                countries = Arrays.copyOf(countries, capacity);
+                days = Arrays.copyOf(days, capacity);
+                types = Arrays.copyOf(types, capacity);
+                totals = Arrays.copyOf(totals, capacity);
+            }
+            submissionIds[size] = submissionId;
+            countries[size] = country;
+            days[size] = day;
+            types[size] = (byte) type;
+            totals[size] = total;
+            size++;
+        }
+
+        void mergeInto(Store store) {
+            for (int i = 0; i < size; i++) {
+                store.add(submissionIds[i], countries[i], days[i], types[i], totals[i]);
+            }
+        }
+    }
+}
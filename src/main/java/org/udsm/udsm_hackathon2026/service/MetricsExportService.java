@@ -0,0 +1,188 @@
+package org.udsm.udsm_hackathon2026.service;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.repository.MetricsExportRepository;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of raw metrics rows for data requests (funders, editors).
+ *
+ * Rows go from a forward-only JDBC cursor straight to the response through a fixed-size
+ * buffer, so an export of any size uses the same memory. At most
+ * {@code app.export.max-concurrent} exports run at once; a client disconnect fails the
+ * next write, which cancels the query.
+ */
+@Slf4j
+@Service
+public class MetricsExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * @param eventType READ, DOWNLOAD or READERSHIP; null for all three
+     */
+    public record Filter(Long articleId, String fromDay, String toDay, String eventType, String country) {}
+
+    private static final Pattern DAY = Pattern.compile("\\d{8}");
+    private static final Pattern COUNTRY = Pattern.compile("[A-Za-z]{2}");
+    private static final String[] COLUMNS = {
+            "submission_id", "assoc_type", "day", "month", "country_id", "region", "city", "metric_type", "metric"
+    };
+
+    private final MetricsExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final Semaphore slots;
+    private final int fetchSize;
+    private final int bufferSize;
+
+    public MetricsExportService(MetricsExportRepository exportRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${app.export.max-concurrent:2}") int maxConcurrent,
+                                @Value("${app.export.fetch-size:1000}") int fetchSize,
+                                @Value("${app.export.buffer-bytes:65536}") int bufferSize) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(maxConcurrent);
+        this.fetchSize = fetchSize;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Check the filter; throws IllegalArgumentException describing the first invalid value
+     */
+    public void validate(Filter filter) {
+        if (filter.fromDay() != null && !DAY.matcher(filter.fromDay()).matches()) {
+            throw new IllegalArgumentException("from must be YYYYMMDD");
+        }
+        if (filter.toDay() != null && !DAY.matcher(filter.toDay()).matches()) {
+            throw new IllegalArgumentException("to must be YYYYMMDD");
+        }
+        if (filter.country() != null && !COUNTRY.matcher(filter.country()).matches()) {
+            throw new IllegalArgumentException("country must be a 2-letter ISO code");
+        }
+        assocTypes(filter.eventType());
+    }
+
+    /**
+     * Reserve an export slot; false when {@code app.export.max-concurrent} exports are running.
+     * Call it right before {@link #export}, on the thread that runs it; export releases the slot.
+     */
+    public boolean tryAcquire() {
+        return slots.tryAcquire();
+    }
+
+    /**
+     * Write the export to {@code out} and release the slot reserved by {@link #tryAcquire}
+     */
+    public void export(Filter filter, Format format, boolean gzip, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long[] rows = new long[1];
+        String outcome = "failed";
+        try {
+            OutputStream target = gzip
+                    ? new GZIPOutputStream(out, bufferSize)
+                    : new BufferedOutputStream(out, bufferSize);
+            try {
+                if (format == Format.CSV) {
+                    writeCsv(filter, target, rows);
+                } else {
+                    writeNdjson(filter, target, rows);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            target.close();
+            outcome = "completed";
+        } finally {
+            slots.release();
+            log.info("Metrics export {} ({}, gzip={}, filter={}): {} rows in {} ms",
+                    outcome, format, gzip, filter, rows[0], System.currentTimeMillis() - start);
+        }
+    }
+
+    private void writeCsv(Filter filter, OutputStream out, long[] rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        stream(filter, rs -> {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = rs.getString(i + 1);
+                if (value != null) {
+                    writer.write(csvEscape(value));
+                }
+            }
+            writer.write("\r\n");
+            rows[0]++;
+        });
+        writer.flush();
+    }
+
+    private void writeNdjson(Filter filter, OutputStream out, long[] rows) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        stream(filter, rs -> {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeObjectField(COLUMNS[i], rs.getObject(i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rows[0]++;
+        });
+        generator.flush();
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws IOException, SQLException;
+    }
+
+    private void stream(Filter filter, RowWriter rowWriter) {
+        String country = filter.country() != null ? filter.country().toUpperCase() : null;
+        exportRepository.stream(filter.articleId(), assocTypes(filter.eventType()), filter.fromDay(), filter.toDay(),
+                country, fetchSize, rs -> {
+                    try {
+                        rowWriter.write(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static List<Long> assocTypes(String eventType) {
+        if (eventType == null || eventType.isBlank()) {
+            return List.of(1048585L, 515L, 256L);
+        }
+        return switch (eventType.toUpperCase()) {
+            case "READ" -> List.of(1048585L);
+            case "DOWNLOAD" -> List.of(515L);
+            case "READERSHIP" -> List.of(256L);
+            default -> throw new IllegalArgumentException("eventType must be READ, DOWNLOAD or READERSHIP");
+        };
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,128 @@
+package org.udsm.udsm_hackathon2026.service;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import org.udsm.udsm_hackathon2026.repository.MetricsRollupRepository;
+import java.util.List;
+
+/**
+ * Sends analytic reads that only need (article, event type, day, country) granularity to
+ * the in-memory MetricsCube once loaded, else to metrics_daily_rollup once its backfill has
+ * completed, else to the raw metrics table. Queries that need region or city always stay
+ * on raw metrics.
+ *
+ * All sources return the same row shapes.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsQueryRouter {
+
+    private static final long ASSOC_TYPE_READ = 1048585L;
+    private static final long ASSOC_TYPE_DOWNLOAD = 515L;
+    private static final long ASSOC_TYPE_SUBMISSION = 256L;
+
+    private final MetricRepository metricRepository;
+    private final MetricsRollupRepository rollupRepository;
+    private final MetricsRollupService rollupService;
+    private final MetricsCube cube;
+
+    public long sumTotalDownloads() {
+        if (cube.isReady()) {
+            return cube.sumByAssocType(ASSOC_TYPE_DOWNLOAD);
+        }
+        return useRollup() ? rollupRepository.sumByAssocType(ASSOC_TYPE_DOWNLOAD) : metricRepository.sumTotalDownloads();
+    }
+
+    public long sumTotalReaders() {
+        if (cube.isReady()) {
+            return cube.sumByAssocType(ASSOC_TYPE_READ);
+        }
+        return useRollup() ? rollupRepository.sumByAssocType(ASSOC_TYPE_READ) : metricRepository.sumTotalReaders();
+    }
+
+    public List<Object[]> findTopReadershipCountries(int limit) {
+        if (cube.isReady()) {
+            return cube.findTopCountries(ASSOC_TYPE_SUBMISSION, limit);
+        }
+        return useRollup()
+                ? rollupRepository.findTopCountries(ASSOC_TYPE_SUBMISSION, limit)
+                : metricRepository.findTopReadershipCountries(limit);
+    }
+
+    public List<Object[]> findTopDownloadCountries(int limit) {
+        if (cube.isReady()) {
+            return cube.findTopCountries(ASSOC_TYPE_DOWNLOAD, limit);
+        }
+        return useRollup()
+                ? rollupRepository.findTopCountries(ASSOC_TYPE_DOWNLOAD, limit)
+                : metricRepository.findTopDownloadCountries(limit);
+    }
+
+    public List<Object[]> findTopReadArticles(int limit) {
+        if (cube.isReady()) {
+            return cube.findTopArticles(ASSOC_TYPE_READ, limit);
+        }
+        return useRollup()
+                ? rollupRepository.findTopArticles(ASSOC_TYPE_READ, limit)
+                : metricRepository.findTopReadArticles(limit);
+    }
+
+    public List<Object[]> findTopDownloadedArticles(int limit) {
+        if (cube.isReady()) {
+            return cube.findTopArticles(ASSOC_TYPE_DOWNLOAD, limit);
+        }
+        return useRollup()
+                ? rollupRepository.findTopArticles(ASSOC_TYPE_DOWNLOAD, limit)
+                : metricRepository.findTopDownloadedArticles(limit);
+    }
+
+    public List<Object[]> aggregateByCountryAndDateRange(long assocType, String fromDay, String toDay, Long submissionId) {
+        if (cube.isReady()) {
+            return cube.aggregateByCountryAndDateRange(assocType, fromDay, toDay, submissionId);
+        }
+        return useRollup()
+                ? rollupRepository.aggregateByCountryAndDateRange(assocType, fromDay, toDay, submissionId)
+                : metricRepository.aggregateByCountryAndDateRange(assocType, fromDay, toDay, submissionId);
+    }
+
+    /**
+     * Rows of (month, views, downloads) for [fromMonth, toMonth]; {@code submissionId} null for all articles
+     */
+    public List<Object[]> getMonthlySeries(Long submissionId, String fromMonth, String toMonth) {
+        if (cube.isReady()) {
+            return cube.getMonthlySeries(submissionId, fromMonth, toMonth);
+        }
+        if (useRollup()) {
+            return rollupRepository.getMonthlySeries(submissionId, fromMonth, toMonth);
+        }
+        return submissionId != null
+                ? metricRepository.getMonthlySeriesByArticle(submissionId, fromMonth, toMonth)
+                : metricRepository.getMonthlySeries(fromMonth, toMonth);
+    }
+
+    public String findFirstMonth(Long submissionId) {
+        if (cube.isReady()) {
+            return cube.findFirstMonth(submissionId);
+        }
+        if (useRollup()) {
+            return rollupRepository.findFirstMonth(submissionId);
+        }
+        return submissionId != null ? metricRepository.findFirstMonthByArticle(submissionId) : metricRepository.findFirstMonth();
+    }
+
+    public long sumDownloadsByArticle(Long submissionId) {
+        return cube.isReady()
+                ? cube.sumByArticle(submissionId, ASSOC_TYPE_DOWNLOAD)
+                : metricRepository.getTotalDownloadsByArticle(submissionId);
+    }
+
+    public long sumReadersByArticle(Long submissionId) {
+        return cube.isReady()
+                ? cube.sumByArticle(submissionId, ASSOC_TYPE_READ)
+                : metricRepository.getTotalReadersByArticle(submissionId);
+    }
+
+    private boolean useRollup() {
+        return rollupService.isReady();
+    }
+}
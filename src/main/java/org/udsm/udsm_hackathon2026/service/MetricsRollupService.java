@@ -0,0 +1,215 @@
+package org.udsm.udsm_hackathon2026.service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.udsm.udsm_hackathon2026.config.AsyncConfig;
+import org.udsm.udsm_hackathon2026.model.Metric;
+import org.udsm.udsm_hackathon2026.repository.MetricRepository;
+import org.udsm.udsm_hackathon2026.repository.MetricsRollupRepository;
+import org.udsm.udsm_hackathon2026.scheduler.ScheduledJobMonitor;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps metrics_daily_rollup in step with the raw metrics table.
+ *
+ * - Ingestion writes the raw row and its rollup increment in one transaction, retried when
+ *   it loses a lock conflict.
+ * - On startup, months not yet backfilled are rebuilt from raw metrics, one month per
+ *   transaction, resuming where a previous run stopped. Reads switch to the rollup
+ *   only once the backfill has completed.
+ * - A nightly reconcile rebuilds the last few closed days (and any days missed while the app
+ *   was down), picking up rows OJS wrote itself and healing any drift. Today is left alone,
+ *   so the rebuild does not lock the rows ingestion is incrementing.
+ */
+@Slf4j
+@Service
+public class MetricsRollupService {
+
+    private static final String STATE_BACKFILLED_THROUGH = "backfilled_through";
+    private static final String STATE_BACKFILL_COMPLETE = "backfill_complete";
+    private static final String STATE_RECONCILED_THROUGH = "reconciled_through";
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int PERSIST_ATTEMPTS = 3;
+
+    private final MetricsRollupRepository rollupRepository;
+    private final MetricRepository metricRepository;
+    private final TaskScheduler maintenanceScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledJobMonitor jobMonitor;
+    private final AnalyticsCache analyticsCache;
+    private final MetricsCube metricsCube;
+    private final boolean enabled;
+    private final int reconcileDays;
+    private final String reconcileCron;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private volatile boolean ready;
+
+    public MetricsRollupService(MetricsRollupRepository rollupRepository,
+                                MetricRepository metricRepository,
+                                @Qualifier(AsyncConfig.MAINTENANCE_SCHEDULER) TaskScheduler maintenanceScheduler,
+                                PlatformTransactionManager transactionManager,
+                                ScheduledJobMonitor jobMonitor,
+                                AnalyticsCache analyticsCache,
+                                MetricsCube metricsCube,
+                                @Value("${app.rollup.enabled:true}") boolean enabled,
+                                @Value("${app.rollup.reconcile-days:2}") int reconcileDays,
+                                @Value("${app.rollup.reconcile-cron:0 15 0 * * *}") String reconcileCron) {
+        this.rollupRepository = rollupRepository;
+        this.metricRepository = metricRepository;
+        this.maintenanceScheduler = maintenanceScheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobMonitor = jobMonitor;
+        this.analyticsCache = analyticsCache;
+        this.metricsCube = metricsCube;
+        this.enabled = enabled;
+        this.reconcileDays = reconcileDays;
+        this.reconcileCron = reconcileCron;
+    }
+
+    /**
+     * True when reads may be served from the rollup
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Persist an ingested metric together with its rollup increment; the metrics cube adds it
+     * once the transaction commits. A deadlock or lock wait
+     * timeout (e.g. against a rebuild of the same day) rolls both back, so the whole transaction
+     * is retried; load_id is assigned, so a retry cannot insert the row twice.
+     */
+    public void persist(Metric metric) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    metricRepository.save(metric);
+                    if (enabled) {
+                        rollupRepository.increment(metric.getSubmissionId(), metric.getAssocType(), metric.getDay(),
+                                metric.getCountryId(), metric.getMetric() != null ? metric.getMetric() : 1);
+                    }
+                    metricsCube.recordOnCommit(metric);
+                });
+                return;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= PERSIST_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Metric {} hit a lock conflict (attempt {} of {}), retrying: {}",
+                        metric.getLoadId(), attempt, PERSIST_ATTEMPTS, e.getMessage());
+                try {
+                    Thread.sleep(50L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (enabled) {
+            maintenanceScheduler.schedule(this::backfill, Instant.now());
+        }
+    }
+
+    @Scheduled(cron = "${app.rollup.reconcile-cron:0 15 0 * * *}", scheduler = AsyncConfig.MAINTENANCE_SCHEDULER)
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        jobMonitor.runCron("rollup-reconcile", reconcileCron, () -> {
+            if (!isReady()) {
+                backfill();
+                return;
+            }
+            reconcileRecentDays();
+            analyticsCache.invalidateAll();
+        });
+    }
+
+    private void backfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if ("true".equals(rollupRepository.getState(STATE_BACKFILL_COMPLETE))) {
+                ready = true;
+                reconcileRecentDays();
+                return;
+            }
+
+            String through = rollupRepository.getState(STATE_BACKFILLED_THROUGH);
+            YearMonth month;
+            if (through != null) {
+                month = YearMonth.parse(through, MONTH_FORMATTER).plusMonths(1);
+            } else {
+                String firstDay = rollupRepository.findFirstMetricDay();
+                month = firstDay != null
+                        ? YearMonth.parse(firstDay.substring(0, 6), MONTH_FORMATTER)
+                        : YearMonth.now();
+            }
+
+            YearMonth last = YearMonth.now();
+            log.info("Rollup backfill starting at {}", month);
+            while (!month.isAfter(last)) {
+                YearMonth current = month;
+                long start = System.currentTimeMillis();
+                int rows = rebuild(current.atDay(1), current.atEndOfMonth());
+                rollupRepository.setState(STATE_BACKFILLED_THROUGH, current.format(MONTH_FORMATTER));
+                log.info("Rollup backfill: {} rebuilt ({} rows, {} ms)", current, rows, System.currentTimeMillis() - start);
+                month = month.plusMonths(1);
+            }
+
+            rollupRepository.setState(STATE_BACKFILL_COMPLETE, "true");
+            rollupRepository.setState(STATE_RECONCILED_THROUGH, LocalDate.now().format(DAY_FORMATTER));
+            ready = true;
+            log.info("Rollup backfill complete; analytics reads now use metrics_daily_rollup");
+        } catch (Exception e) {
+            log.error("Rollup backfill failed; reads stay on raw metrics until it completes", e);
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    private void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        LocalDate from = today.minusDays(reconcileDays);
+        String reconciledThrough = rollupRepository.getState(STATE_RECONCILED_THROUGH);
+        if (reconciledThrough != null) {
+            LocalDate lastRun = LocalDate.parse(reconciledThrough, DAY_FORMATTER);
+            if (lastRun.isBefore(from)) {
+                from = lastRun;
+            }
+        }
+
+        if (from.isAfter(yesterday)) {
+            return;
+        }
+        int rows = rebuild(from, yesterday);
+        rollupRepository.setState(STATE_RECONCILED_THROUGH, yesterday.format(DAY_FORMATTER));
+        log.info("Rollup reconciled {} to {} ({} rows)", from, yesterday, rows);
+    }
+
+    private int rebuild(LocalDate from, LocalDate to) {
+        Integer rows = transactionTemplate.execute(status ->
+                rollupRepository.rebuildDays(from.format(DAY_FORMATTER), to.format(DAY_FORMATTER)));
+        return rows != null ? rows : 0;
+    }
+}
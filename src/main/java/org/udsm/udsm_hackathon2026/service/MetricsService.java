@@ -6,7 +6,6 @@ import org.springframework.stereotype.Service;
 import org.udsm.udsm_hackathon2026.dto.ArticleInfoDto;
 import org.udsm.udsm_hackathon2026.dto.WebSocketPayload;
 import org.udsm.udsm_hackathon2026.publisher.WebSocketPublisher;
-import org.udsm.udsm_hackathon2026.repository.MetricRepository;
 import java.math.BigDecimal;
 import java.util.*;
 
@@ -17,8 +16,10 @@ public class MetricsService {
 
     private final StringRedisTemplate redisTemplate;
     private final WebSocketPublisher webSocketPublisher;
-    private final MetricRepository metricRepository;
-    private final ArticleInfoService articleInfoService;
+    private final ArticleMetadataService articleMetadataService;
+    private final DataVersionTracker versionTracker;
+    private final MetricsQueryRouter queryRouter;
+    private final AnalyticsCache analyticsCache;
 
     // ────────────────────────── REDIS KEY HELPERS ──────────────────────────
 
@@ -37,10 +38,12 @@ public class MetricsService {
     public void recordReadership(Long articleId, String countryCode) {
         // Atomic Redis increment for live counter
         redisTemplate.opsForHash().increment(readershipGeoKey(articleId), countryCode, 1);
+        versionTracker.bump(DataVersionTracker.GEO_READS);
+        analyticsCache.invalidateSoon(DataVersionTracker.GEO_READS);
 
         // Fetch full geo map + article info, push via WebSocket
         Map<String, Long> geoData = getReadershipGeo(articleId);
-        ArticleInfoDto articleInfo = articleInfoService.getArticleInfo(articleId);
+        ArticleInfoDto articleInfo = articleMetadataService.get(articleId).toInfoDto();
 
         webSocketPublisher.publish(
                 "/topic/live/readership",
@@ -68,9 +71,11 @@ public class MetricsService {
 
     public void recordDownload(Long articleId, String countryCode) {
         redisTemplate.opsForHash().increment(downloadsGeoKey(articleId), countryCode, 1);
+        versionTracker.bump(DataVersionTracker.GEO_DOWNLOADS);
+        analyticsCache.invalidateSoon(DataVersionTracker.GEO_DOWNLOADS);
 
         Map<String, Long> geoData = getDownloadsGeo(articleId);
-        ArticleInfoDto articleInfo = articleInfoService.getArticleInfo(articleId);
+        ArticleInfoDto articleInfo = articleMetadataService.get(articleId).toInfoDto();
 
         webSocketPublisher.publish(
                 "/topic/live/downloads",
@@ -107,16 +112,20 @@ public class MetricsService {
     public Map<String, Long> aggregateByDateRange(Long submissionId, String eventType,
                                                   String fromDay, String toDay) {
         long assocType = "DOWNLOAD".equals(eventType) ? 515L : 256L;
-        List<Object[]> rows = metricRepository.aggregateByCountryAndDateRange(
-                assocType, fromDay, toDay, submissionId);
-
-        Map<String, Long> result = new LinkedHashMap<>();
-        for (Object[] row : rows) {
-            String country = (String) row[0];
-            long total = toLong(row[1]);
-            result.put(country, total);
-        }
-        return result;
+        String scope = submissionId != null ? AnalyticsCache.article(submissionId) : AnalyticsCache.GLOBAL;
+        return analyticsCache.getMap("countryDateRange",
+                assocType + "|" + fromDay + "|" + toDay + "|" + submissionId, scope, Long.class, () -> {
+                    List<Object[]> rows = queryRouter.aggregateByCountryAndDateRange(
+                            assocType, fromDay, toDay, submissionId);
+
+                    Map<String, Long> result = new LinkedHashMap<>();
+                    for (Object[] row : rows) {
+                        String country = (String) row[0];
+                        long total = toLong(row[1]);
+                        result.put(country, total);
+                    }
+                    return result;
+                });
     }
 
     // ────────────────────────── UTILS ──────────────────────────
@@ -0,0 +1,163 @@
+package org.udsm.udsm_hackathon2026.service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.dto.MonthlyMetricsDto;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Monthly views and downloads, for one article or all of them.
+ *
+ * Counts come from one conditional-aggregation pass over a month range (routed to the
+ * rollup when available). A month counts as closed a few days after it ends, once late
+ * rows and the nightly reconcile have landed; closed months are cached until the
+ * AnalyticsCache EPOCH moves (reconcile, cube refresh), so only open months, and closed
+ * months not seen before, are queried.
+ * Series are dense: months without activity are returned with zero counts.
+ */
+@Slf4j
+@Service
+public class MonthlyTimeSeriesService {
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String ALL_ARTICLES = "all";
+
+    private final MetricsQueryRouter queryRouter;
+    private final AnalyticsCache analyticsCache;
+    private final int closedGraceDays;
+
+    /** "scope|yyyyMM" -> {views, downloads}, closed months only */
+    private final Cache<String, long[]> closedMonths = Caffeine.newBuilder()
+            .maximumSize(500_000)
+            .build();
+
+    /** scope -> first month with data (empty when the scope has none yet) */
+    private final Cache<String, Optional<YearMonth>> firstMonths = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .build();
+
+    /** AnalyticsCache EPOCH both caches were filled under */
+    private volatile Long cachedEpoch;
+
+    public MonthlyTimeSeriesService(MetricsQueryRouter queryRouter,
+                                    AnalyticsCache analyticsCache,
+                                    @Value("${app.monthly-series.closed-grace-days:3}") int closedGraceDays) {
+        this.queryRouter = queryRouter;
+        this.analyticsCache = analyticsCache;
+        this.closedGraceDays = closedGraceDays;
+    }
+
+    /**
+     * @param articleId article, or null for all articles
+     * @param year      calendar year, or null for everything from the first month with data
+     */
+    public List<MonthlyMetricsDto> getMonthlySeries(Long articleId, Integer year) {
+        String scope = articleId != null ? articleId.toString() : ALL_ARTICLES;
+        clearIfEpochMoved();
+        YearMonth currentMonth = YearMonth.now();
+        // Months before this one are closed
+        YearMonth firstOpen = YearMonth.from(LocalDate.now().minusDays(closedGraceDays));
+
+        YearMonth from;
+        YearMonth to;
+        if (year != null) {
+            from = YearMonth.of(year, 1);
+            to = YearMonth.of(year, 12);
+        } else {
+            Optional<YearMonth> first = firstMonth(scope, articleId);
+            if (first.isEmpty()) {
+                return List.of();
+            }
+            from = first.get();
+            to = currentMonth;
+        }
+        if (to.isAfter(currentMonth)) {
+            to = currentMonth;
+        }
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+
+        // Everything from the first uncached month onwards is read in one pass
+        YearMonth queryFrom = null;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!month.isBefore(firstOpen) || closedMonths.getIfPresent(key(scope, month)) == null) {
+                queryFrom = month;
+                break;
+            }
+        }
+
+        Map<YearMonth, long[]> fresh = new HashMap<>();
+        if (queryFrom != null) {
+            for (Object[] row : queryRouter.getMonthlySeries(articleId, queryFrom.format(MONTH_FORMATTER), to.format(MONTH_FORMATTER))) {
+                YearMonth month = YearMonth.parse((String) row[0], MONTH_FORMATTER);
+                fresh.put(month, new long[] { ((Number) row[1]).longValue(), ((Number) row[2]).longValue() });
+            }
+            for (YearMonth month = queryFrom; !month.isAfter(to) && month.isBefore(firstOpen); month = month.plusMonths(1)) {
+                closedMonths.put(key(scope, month), fresh.getOrDefault(month, new long[2]));
+            }
+        }
+
+        List<MonthlyMetricsDto> series = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            long[] counts = fresh.get(month);
+            if (counts == null) {
+                counts = month.isBefore(firstOpen) ? closedMonths.getIfPresent(key(scope, month)) : null;
+            }
+            if (counts == null) {
+                counts = new long[2];
+            }
+            series.add(new MonthlyMetricsDto(month.format(MONTH_FORMATTER), month.getYear(), month.getMonthValue(),
+                    counts[0], counts[1]));
+        }
+
+        log.debug("Monthly series for {} ({} months, queried from {})", scope, series.size(), queryFrom);
+        return series;
+    }
+
+    /**
+     * Rows were rebuilt or changed outside ingestion on some instance; drop everything cached.
+     * While Redis is unreachable the epoch is unknown and the caches are kept
+     */
+    private void clearIfEpochMoved() {
+        Long epoch = analyticsCache.sharedVersion(AnalyticsCache.EPOCH);
+        if (epoch != null && !Objects.equals(epoch, cachedEpoch)) {
+            if (cachedEpoch != null) {
+                log.debug("Analytics epoch moved to {}, clearing cached months", epoch);
+            }
+            closedMonths.invalidateAll();
+            firstMonths.invalidateAll();
+            cachedEpoch = epoch;
+        }
+    }
+
+    private Optional<YearMonth> firstMonth(String scope, Long articleId) {
+        Optional<YearMonth> cached = firstMonths.getIfPresent(scope);
+        if (cached != null && cached.isPresent()) {
+            return cached;
+        }
+        // Not cached while empty, so the first event for a new article shows up
+        String first = queryRouter.findFirstMonth(articleId);
+        Optional<YearMonth> result = first != null
+                ? Optional.of(YearMonth.parse(first, MONTH_FORMATTER))
+                : Optional.empty();
+        if (result.isPresent()) {
+            firstMonths.put(scope, result);
+        }
+        return result;
+    }
+
+    private static String key(String scope, YearMonth month) {
+        return scope + "|" + month.format(MONTH_FORMATTER);
+    }
+}
@@ -1,64 +1,107 @@
 package org.udsm.udsm_hackathon2026.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.udsm.udsm_hackathon2026.config.AsyncConfig;
 import org.udsm.udsm_hackathon2026.dto.realtime.StatsDto;
-import org.udsm.udsm_hackathon2026.repository.MetricRepository;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import org.udsm.udsm_hackathon2026.publisher.SnapshotStore;
+import org.udsm.udsm_hackathon2026.publisher.TopicSubscriptionTracker;
+import org.udsm.udsm_hackathon2026.publisher.WebSocketPublisher;
+import org.udsm.udsm_hackathon2026.scheduler.ScheduledJobMonitor;
+import java.time.Duration;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StatsScheduler {
 
-    private final MetricRepository metricRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    public static final String STATS_TOPIC = "/topic/stats";
+
+    private final LiveStatsCounters liveStatsCounters;
+    private final TopicSubscriptionTracker subscriptionTracker;
+    private final WebSocketPublisher webSocketPublisher;
+    private final SnapshotStore snapshotStore;
+    private final ObjectMapper objectMapper;
+    private final ScheduledJobMonitor jobMonitor;
+
+    @Value("${app.stats.broadcast-interval-ms:5000}")
+    private long broadcastIntervalMs;
+
+    @Value("${app.stats.resync-interval-ms:3600000}")
+    private long resyncIntervalMs;
+
+    private volatile StatsDto lastPublished;
 
-    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    @PostConstruct
+    public void registerSnapshot() {
+        snapshotStore.registerLoader(STATS_TOPIC, destination ->
+                liveStatsCounters.isSeeded() ? toJson(liveStatsCounters.snapshot()) : null);
+    }
 
     /**
-     * Broadcast aggregated stats every 5 seconds to /topic/stats
-     * Uses existing MetricRepository queries for reads (1048585) and downloads (515)
+     * Broadcast aggregated stats to /topic/stats when they changed and someone is listening.
+     * Values come from in-memory counters kept current by event ingestion, so this does not
+     * query the metrics table (apart from the initial sync and the periodic re-sync below).
      */
-    @Scheduled(fixedDelay = 5000)
+    @Scheduled(fixedDelayString = "${app.stats.broadcast-interval-ms:5000}", scheduler = AsyncConfig.REALTIME_SCHEDULER)
     public void broadcastStats() {
+        jobMonitor.runFixedDelay("stats-broadcast", Duration.ofMillis(broadcastIntervalMs), this::publishIfChanged);
+    }
+
+    private void publishIfChanged() {
         try {
-            // Calculate stats using existing repository methods
-            Long totalReads = metricRepository.sumTotalReaders(); // assoc_type = 1048585
-            Long totalDownloads = metricRepository.sumTotalDownloads(); // assoc_type = 515
-            
-            // Last 5 minutes (approximate using day filter)
-            String today = LocalDateTime.now().format(DAY_FORMATTER);
-            
-            // For real-time, we'll use aggregateByCountryAndDateRange to get recent activity
-            // Note: This is an approximation since we're using day-level granularity
-            Long readsLast5Min = totalReads; // Simplified - in production, add time-based filtering
-            Long downloadsLast5Min = totalDownloads; // Simplified - in production, add time-based filtering
-            
-            // Count unique countries from top countries queries
-            Long uniqueCountries = (long) metricRepository.findTopReadershipCountries(1000).size();
-            Long uniqueIPs = uniqueCountries; // Approximation
-
-            StatsDto stats = StatsDto.builder()
-                    .totalReads(totalReads != null ? totalReads : 0L)
-                    .totalDownloads(totalDownloads != null ? totalDownloads : 0L)
-                    .readsLast5Min(readsLast5Min != null ? readsLast5Min : 0L)
-                    .downloadsLast5Min(downloadsLast5Min != null ? downloadsLast5Min : 0L)
-                    .uniqueCountries(uniqueCountries != null ? uniqueCountries : 0L)
-                    .uniqueIPs(uniqueIPs != null ? uniqueIPs : 0L)
-                    .build();
-
-            messagingTemplate.convertAndSend("/topic/stats", stats);
-            log.debug("Stats broadcast: reads={}, downloads={}, countries={}", 
+            if (!liveStatsCounters.isSeeded()) {
+                liveStatsCounters.syncFromDatabase();
+            }
+
+            StatsDto stats = liveStatsCounters.snapshot();
+            if (stats.equals(lastPublished)) {
+                return;
+            }
+
+            if (!subscriptionTracker.hasSubscribers(STATS_TOPIC)) {
+                // Nobody to send to; make sure the next subscriber gets current values
+                snapshotStore.invalidate(STATS_TOPIC);
+                return;
+            }
+
+            webSocketPublisher.publishBytes(STATS_TOPIC, toJson(stats));
+            lastPublished = stats;
+            log.debug("Stats broadcast: reads={}, downloads={}, countries={}",
                       stats.getTotalReads(), stats.getTotalDownloads(), stats.getUniqueCountries());
 
         } catch (Exception e) {
             log.error("Failed to broadcast stats", e);
         }
     }
+
+    /**
+     * Picks up metrics written outside our ingestion (e.g. OJS usage stats imports)
+     */
+    @Scheduled(fixedDelayString = "${app.stats.resync-interval-ms:3600000}",
+               initialDelayString = "${app.stats.resync-interval-ms:3600000}",
+               scheduler = AsyncConfig.MAINTENANCE_SCHEDULER)
+    public void resyncStats() {
+        jobMonitor.runFixedDelay("stats-resync", Duration.ofMillis(resyncIntervalMs), () -> {
+            try {
+                liveStatsCounters.syncFromDatabase();
+            } catch (Exception e) {
+                log.error("Failed to re-sync live stats from database", e);
+            }
+        });
+    }
+
+    private byte[] toJson(StatsDto stats) {
+        try {
+            return objectMapper.writeValueAsBytes(stats);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize stats", e);
+        }
+    }
 }
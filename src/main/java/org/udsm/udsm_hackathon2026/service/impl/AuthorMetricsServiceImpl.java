@@ -4,10 +4,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.udsm.udsm_hackathon2026.dto.author.*;
 import org.udsm.udsm_hackathon2026.repository.AuthorRepository;
 import org.udsm.udsm_hackathon2026.service.AuthorMetricsService;
+import org.udsm.udsm_hackathon2026.service.FanOut;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 public class AuthorMetricsServiceImpl implements AuthorMetricsService {
     
     private final AuthorRepository authorRepository;
+    private final FanOut fanOut;
     
     @Override
     public AuthorDashboardDTO getAuthorDashboard(String authorEmail) {
@@ -226,26 +229,38 @@ public class AuthorMetricsServiceImpl implements AuthorMetricsService {
                 .build();
     }
     
+    /**
+     * Sections are fetched in parallel, each with its own connection, so this method runs
+     * outside a transaction instead of holding a connection while it waits on them.
+     * A section that fails or times out is left out and the result is marked partial
+     * (and not cached).
+     */
     @Override
-    @Cacheable(value = "completeDashboard", key = "#authorEmail")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Cacheable(value = "completeDashboard", key = "#authorEmail", unless = "#result.partial == true")
     public CompleteDashboardDTO getCompleteDashboard(String authorEmail) {
         log.info("Fetching complete dashboard for author: {}", authorEmail);
         
-        // Fetch all metrics in parallel (optimized)
-        AuthorDashboardDTO dashboard = getAuthorDashboard(authorEmail);
-        ReviewTimeDTO reviewTimes = getReviewTimes(authorEmail);
-        ProductivityDTO productivity = getProductivity(authorEmail);
-        RankingDTO ranking = getRanking(authorEmail);
-        TimelineDTO timeline = getTimeline(authorEmail);
-        
-        return CompleteDashboardDTO.builder()
-                .dashboard(dashboard)
-                .reviewTimes(reviewTimes)
-                .productivity(productivity)
-                .ranking(ranking)
-                .timeline(timeline)
-                .lastUpdated(LocalDateTime.now())
-                .build();
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Branch<AuthorDashboardDTO> dashboard = scope.fork("dashboard", () -> getAuthorDashboard(authorEmail), null);
+            FanOut.Branch<ReviewTimeDTO> reviewTimes = scope.fork("reviewTimes", () -> getReviewTimes(authorEmail), null);
+            FanOut.Branch<ProductivityDTO> productivity = scope.fork("productivity", () -> getProductivity(authorEmail), null);
+            FanOut.Branch<RankingDTO> ranking = scope.fork("ranking", () -> getRanking(authorEmail), null);
+            FanOut.Branch<TimelineDTO> timeline = scope.fork("timeline", () -> getTimeline(authorEmail), null);
+
+            CompleteDashboardDTO.CompleteDashboardDTOBuilder result = CompleteDashboardDTO.builder()
+                    .dashboard(dashboard.join())
+                    .reviewTimes(reviewTimes.join())
+                    .productivity(productivity.join())
+                    .ranking(ranking.join())
+                    .timeline(timeline.join())
+                    .lastUpdated(LocalDateTime.now());
+
+            if (scope.isPartial()) {
+                result.partial(true).unavailableSections(scope.fallbackBranches());
+            }
+            return result.build();
+        }
     }
     
     // ============= Helper Methods =============
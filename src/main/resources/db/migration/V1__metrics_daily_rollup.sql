@@ -0,0 +1,22 @@
+-- Daily rollup of the OJS metrics table, maintained by the application.
+-- One row per (article, event type, day, country); NULL submission_id is stored as 0
+-- and NULL country_id as ''.
+CREATE TABLE IF NOT EXISTS metrics_daily_rollup (
+    submission_id BIGINT      NOT NULL,
+    assoc_type    BIGINT      NOT NULL,
+    day           CHAR(8)     NOT NULL,
+    month         CHAR(6)     NOT NULL,
+    country_id    VARCHAR(2)  NOT NULL DEFAULT '',
+    total         BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (submission_id, assoc_type, day, country_id),
+    KEY idx_rollup_type_day (assoc_type, day, country_id, total),
+    KEY idx_rollup_type_month (assoc_type, month, total),
+    KEY idx_rollup_day (day)
+) ENGINE = InnoDB;
+
+-- Progress markers for the rollup backfill and nightly reconcile
+CREATE TABLE IF NOT EXISTS metrics_rollup_state (
+    name       VARCHAR(64)  NOT NULL PRIMARY KEY,
+    value      VARCHAR(255) NOT NULL,
+    updated_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE = InnoDB;
@@ -0,0 +1,38 @@
+-- Covering indexes for the analytics access paths. Additive only; names are prefixed
+-- with idx_app_ so they are easy to tell apart from the indexes OJS ships with.
+
+-- metrics: per-article totals and top articles (assoc_type + submission_id, SUM(metric))
+CREATE INDEX IF NOT EXISTS idx_app_metrics_type_sub
+    ON metrics (assoc_type, submission_id, metric);
+
+-- metrics: per-article monthly series
+CREATE INDEX IF NOT EXISTS idx_app_metrics_sub_type_month
+    ON metrics (submission_id, assoc_type, month, metric);
+
+-- metrics: global monthly series
+CREATE INDEX IF NOT EXISTS idx_app_metrics_type_month
+    ON metrics (assoc_type, month, metric);
+
+-- metrics: top countries
+CREATE INDEX IF NOT EXISTS idx_app_metrics_type_country
+    ON metrics (assoc_type, country_id, metric);
+
+-- metrics: date-range aggregation by country
+CREATE INDEX IF NOT EXISTS idx_app_metrics_type_day
+    ON metrics (assoc_type, day, country_id, submission_id, metric);
+
+-- metrics: per-article geographical distribution
+CREATE INDEX IF NOT EXISTS idx_app_metrics_sub_type_geo
+    ON metrics (submission_id, assoc_type, country_id, region, city, metric);
+
+-- metrics: rollup rebuilds and MIN(day)
+CREATE INDEX IF NOT EXISTS idx_app_metrics_day
+    ON metrics (day);
+
+-- authors.email -> publication
+CREATE INDEX IF NOT EXISTS idx_app_authors_email_pub
+    ON authors (email, publication_id);
+
+-- submissions by current publication, with the columns the author dashboard reads
+CREATE INDEX IF NOT EXISTS idx_app_submissions_cur_pub
+    ON submissions (current_publication_id, status, submission_id, date_submitted, stage_id);
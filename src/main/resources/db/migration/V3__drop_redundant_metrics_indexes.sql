@@ -0,0 +1,17 @@
+-- Every index on metrics is maintained on each ingested event, so keep only those that
+-- serve an access path no wider index already covers (see AnalyticsAccessPaths).
+--
+-- Kept:
+--   idx_app_metrics_type_month     global monthly series and MIN(month)
+--   idx_app_metrics_type_country   top countries, distinct countries
+--   idx_app_metrics_type_day       date-range aggregation, rollup rebuilds and MIN(day)
+--   idx_app_metrics_sub_type_month per-article monthly series and totals
+--   idx_app_metrics_sub_type_geo   per-article geographical distribution
+
+-- Per-article totals use the (submission_id, assoc_type) prefix of idx_app_metrics_sub_type_month.
+-- Top articles group the whole table and are served by the rollup or cube once those are ready;
+-- on the raw fallback they read a covering index (type_day or sub_type_month) instead
+DROP INDEX IF EXISTS idx_app_metrics_type_sub ON metrics;
+
+-- The rollup rebuild and MIN(day) filter on assoc_type and use idx_app_metrics_type_day
+DROP INDEX IF EXISTS idx_app_metrics_day ON metrics;
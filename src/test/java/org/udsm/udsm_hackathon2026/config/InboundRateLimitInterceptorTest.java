@@ -0,0 +1,87 @@
+package org.udsm.udsm_hackathon2026.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InboundRateLimitInterceptorTest {
+
+    private static final int CAPACITY = 3;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    /** No refill, so every frame past the capacity is over the limit */
+    private final InboundRateLimitInterceptor interceptor =
+            new InboundRateLimitInterceptor(List.of("/app/geo/**"), CAPACITY, 0, registry);
+
+    @Test
+    void dropsFramesOnceTheBucketIsEmpty() {
+        for (int i = 0; i < CAPACITY; i++) {
+            Message<byte[]> frame = send("s1", "/app/geo/reads");
+            assertSame(frame, interceptor.preSend(frame, null));
+        }
+
+        assertNull(interceptor.preSend(send("s1", "/app/geo/reads"), null));
+        assertNull(interceptor.preSend(send("s1", "/app/geo/downloads"), null));
+        assertEquals(2, registry.get("websocket.inbound.rejected").counter().count());
+    }
+
+    @Test
+    void limitsEachSessionSeparately() {
+        for (int i = 0; i < CAPACITY; i++) {
+            interceptor.preSend(send("s1", "/app/geo/reads"), null);
+        }
+
+        Message<byte[]> frame = send("s2", "/app/geo/reads");
+        assertSame(frame, interceptor.preSend(frame, null));
+        assertNull(interceptor.preSend(send("s1", "/app/geo/reads"), null));
+    }
+
+    @Test
+    void passesOtherDestinationsAndFrameTypes() {
+        for (int i = 0; i < CAPACITY; i++) {
+            interceptor.preSend(send("s1", "/app/geo/reads"), null);
+        }
+
+        Message<byte[]> unlimited = send("s1", "/app/replay");
+        assertSame(unlimited, interceptor.preSend(unlimited, null));
+        Message<byte[]> subscribe = message(SimpMessageType.SUBSCRIBE, "s1", "/app/geo/reads");
+        assertSame(subscribe, interceptor.preSend(subscribe, null));
+        Message<byte[]> noSession = send(null, "/app/geo/reads");
+        assertSame(noSession, interceptor.preSend(noSession, null));
+        assertEquals(0, registry.get("websocket.inbound.rejected").counter().count());
+    }
+
+    @Test
+    void forgetsTheBucketWhenTheSessionDisconnects() {
+        for (int i = 0; i < CAPACITY; i++) {
+            interceptor.preSend(send("s1", "/app/geo/reads"), null);
+        }
+
+        interceptor.onSessionDisconnect(new SessionDisconnectEvent(this, send("s1", null), "s1", CloseStatus.NORMAL));
+
+        Message<byte[]> frame = send("s1", "/app/geo/reads");
+        assertSame(frame, interceptor.preSend(frame, null));
+    }
+
+    private static Message<byte[]> send(String sessionId, String destination) {
+        return message(SimpMessageType.MESSAGE, sessionId, destination);
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,149 @@
+package org.udsm.udsm_hackathon2026.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SlowConsumerOutboundInterceptorTest {
+
+    private static final String GEO = "/topic/reads/geo";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SlowConsumerOutboundInterceptor interceptor =
+            new SlowConsumerOutboundInterceptor(List.of("/topic/*/geo"), registry);
+    private final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void skipsASnapshotSupersededWhileQueued() {
+        Message<?> older = message(SimpMessageType.MESSAGE, "s1", GEO, "sub-1");
+        Message<?> newer = message(SimpMessageType.MESSAGE, "s1", GEO, "sub-1");
+        interceptor.preSend(older, null);
+        interceptor.preSend(newer, null);
+
+        assertNull(interceptor.beforeHandle(older, null, null));
+        assertSame(newer, interceptor.beforeHandle(newer, null, null));
+        assertEquals(1, count("conflated"));
+    }
+
+    @Test
+    void conflatesPerSessionAndSubscription() {
+        Message<?> first = message(SimpMessageType.MESSAGE, "s1", GEO, "sub-1");
+        Message<?> otherSubscription = message(SimpMessageType.MESSAGE, "s1", GEO, "sub-2");
+        Message<?> otherSession = message(SimpMessageType.MESSAGE, "s2", GEO, "sub-1");
+        interceptor.preSend(first, null);
+        interceptor.preSend(otherSubscription, null);
+        interceptor.preSend(otherSession, null);
+
+        assertSame(first, interceptor.beforeHandle(first, null, null));
+        assertSame(otherSubscription, interceptor.beforeHandle(otherSubscription, null, null));
+        assertSame(otherSession, interceptor.beforeHandle(otherSession, null, null));
+        assertEquals(0, count("conflated"));
+    }
+
+    @Test
+    void neverConflatesOtherDestinations() {
+        Message<?> older = message(SimpMessageType.MESSAGE, "s1", "/topic/reads/live", "sub-1");
+        Message<?> newer = message(SimpMessageType.MESSAGE, "s1", "/topic/reads/live", "sub-1");
+        interceptor.preSend(older, null);
+        interceptor.preSend(newer, null);
+
+        assertSame(older, interceptor.beforeHandle(older, null, null));
+        assertSame(newer, interceptor.beforeHandle(newer, null, null));
+    }
+
+    @Test
+    void dropsARejectedSnapshotAndForgetsIt() {
+        Message<?> queued = message(SimpMessageType.MESSAGE, "s1", GEO, "sub-1");
+        Message<?> rejected = message(SimpMessageType.MESSAGE, "s1", GEO, "sub-1");
+        interceptor.preSend(queued, null);
+        interceptor.preSend(rejected, null);
+        AtomicInteger runs = new AtomicInteger();
+
+        interceptor.rejectionPolicy().rejectedExecution(task(rejected, runs), executor);
+
+        assertEquals(0, runs.get());
+        assertEquals(1, count("dropped"));
+        // The dropped frame no longer supersedes the one still queued
+        assertSame(queued, interceptor.beforeHandle(queued, null, null));
+    }
+
+    @Test
+    void runsOtherRejectedFramesOnTheCaller() {
+        AtomicInteger runs = new AtomicInteger();
+
+        interceptor.rejectionPolicy().rejectedExecution(
+                task(message(SimpMessageType.MESSAGE, "s1", "/user/queue/geo", "sub-1"), runs), executor);
+        interceptor.rejectionPolicy().rejectedExecution(
+                task(message(SimpMessageType.CONNECT_ACK, "s1", null, null), runs), executor);
+        interceptor.rejectionPolicy().rejectedExecution(runs::incrementAndGet, executor);
+
+        assertEquals(3, runs.get());
+        assertEquals(0, count("dropped"));
+        assertEquals(3, registry.get("websocket.outbound.frames.caller-runs").counter().count());
+    }
+
+    @Test
+    void doesNotRunRejectedFramesAfterShutdown() {
+        AtomicInteger runs = new AtomicInteger();
+        executor.shutdown();
+
+        interceptor.rejectionPolicy().rejectedExecution(
+                task(message(SimpMessageType.MESSAGE, "s1", "/topic/reads/live", "sub-1"), runs), executor);
+
+        assertEquals(0, runs.get());
+    }
+
+    private double count(String outcome) {
+        return registry.get("websocket.outbound.frames").tag("outcome", outcome).counter().count();
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String destination, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId(subscriptionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    /** Shaped like the task ExecutorSubscribableChannel submits for each frame */
+    private static MessageHandlingRunnable task(Message<?> message, AtomicInteger runs) {
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> runs.incrementAndGet();
+            }
+
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+    }
+}
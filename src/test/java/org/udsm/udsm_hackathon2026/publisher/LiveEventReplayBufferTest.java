@@ -0,0 +1,140 @@
+package org.udsm.udsm_hackathon2026.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.udsm.udsm_hackathon2026.publisher.LiveEventReplayBuffer.Frame;
+import org.udsm.udsm_hackathon2026.publisher.LiveEventReplayBuffer.Replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiveEventReplayBufferTest {
+
+    private static final String TOPIC = LiveEventReplayBuffer.READS_LIVE_TOPIC;
+
+    @Test
+    void replaysFramesAfterTheClientsSequence() {
+        LiveEventReplayBuffer buffer = buffer(8);
+        append(buffer, 5);
+
+        Replay replay = buffer.since(TOPIC, buffer.epoch(), 2, 100);
+
+        assertArrayEquals(new long[] { 3, 4, 5 }, sequences(replay));
+        assertEquals(5, replay.latestSequence());
+        assertEquals(false, replay.gap());
+        assertEquals(true, replay.complete());
+        assertEquals("event-3", new String(replay.frames().get(0).json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void keepsOnlyTheNewestFramesAfterWraparound() {
+        LiveEventReplayBuffer buffer = buffer(4);
+        append(buffer, 10);
+
+        // 7..10 are still buffered, so resuming from 6 or later has no gap
+        Replay fromSix = buffer.since(TOPIC, buffer.epoch(), 6, 100);
+        assertArrayEquals(new long[] { 7, 8, 9, 10 }, sequences(fromSix));
+        assertEquals(false, fromSix.gap());
+
+        Replay fromEight = buffer.since(TOPIC, buffer.epoch(), 8, 100);
+        assertArrayEquals(new long[] { 9, 10 }, sequences(fromEight));
+        assertEquals(false, fromEight.gap());
+
+        Replay upToDate = buffer.since(TOPIC, buffer.epoch(), 10, 100);
+        assertArrayEquals(new long[] {}, sequences(upToDate));
+        assertEquals(false, upToDate.gap());
+        assertEquals(true, upToDate.complete());
+    }
+
+    @Test
+    void reportsAGapWhenFramesWereOverwritten() {
+        LiveEventReplayBuffer buffer = buffer(4);
+        append(buffer, 10);
+
+        // 3..6 were overwritten by 7..10
+        Replay replay = buffer.since(TOPIC, buffer.epoch(), 2, 100);
+
+        assertArrayEquals(new long[] { 7, 8, 9, 10 }, sequences(replay));
+        assertEquals(true, replay.gap());
+        assertEquals(10, replay.latestSequence());
+    }
+
+    @Test
+    void splitsLongReplaysIntoBatches() {
+        LiveEventReplayBuffer buffer = buffer(8);
+        append(buffer, 6);
+
+        Replay first = buffer.since(TOPIC, buffer.epoch(), 0, 4);
+        assertArrayEquals(new long[] { 1, 2, 3, 4 }, sequences(first));
+        assertEquals(false, first.complete());
+
+        Replay second = buffer.since(TOPIC, buffer.epoch(), 4, 4);
+        assertArrayEquals(new long[] { 5, 6 }, sequences(second));
+        assertEquals(true, second.complete());
+    }
+
+    @Test
+    void sendsEverythingWithAGapWhenTheEpochChanged() {
+        LiveEventReplayBuffer buffer = buffer(8);
+        append(buffer, 5);
+
+        // The client's sequence 3 was numbered by a previous process
+        Replay replay = buffer.since(TOPIC, buffer.epoch() - 1, 3, 100);
+
+        assertArrayEquals(new long[] { 1, 2, 3, 4, 5 }, sequences(replay));
+        assertEquals(true, replay.gap());
+    }
+
+    @Test
+    void sendsEverythingWithAGapWhenTheClientIsAheadOfTheBuffer() {
+        LiveEventReplayBuffer buffer = buffer(8);
+        append(buffer, 3);
+
+        Replay replay = buffer.since(TOPIC, null, 42, 100);
+
+        assertArrayEquals(new long[] { 1, 2, 3 }, sequences(replay));
+        assertEquals(true, replay.gap());
+    }
+
+    @Test
+    void treatsAnUnknownEpochAsTheCurrentOne() {
+        LiveEventReplayBuffer buffer = buffer(8);
+        append(buffer, 5);
+
+        Replay replay = buffer.since(TOPIC, null, 3, 100);
+
+        assertArrayEquals(new long[] { 4, 5 }, sequences(replay));
+        assertEquals(false, replay.gap());
+    }
+
+    @Test
+    void keepsTopicsApart() {
+        LiveEventReplayBuffer buffer = buffer(8);
+        append(buffer, 3);
+        buffer.append(LiveEventReplayBuffer.DOWNLOADS_LIVE_TOPIC, sequence -> new byte[0]);
+
+        Replay downloads = buffer.since(LiveEventReplayBuffer.DOWNLOADS_LIVE_TOPIC, buffer.epoch(), 0, 100);
+
+        assertArrayEquals(new long[] { 1 }, sequences(downloads));
+        assertThrows(IllegalArgumentException.class, () -> buffer.since("/topic/other", null, 0, 100));
+    }
+
+    private static LiveEventReplayBuffer buffer(int size) {
+        return new LiveEventReplayBuffer(new ObjectMapper(), size);
+    }
+
+    private static void append(LiveEventReplayBuffer buffer, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.append(TOPIC, sequence -> ("event-" + sequence).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static long[] sequences(Replay replay) {
+        List<Frame> frames = replay.frames();
+        return frames.stream().mapToLong(Frame::sequence).toArray();
+    }
+}
@@ -0,0 +1,113 @@
+package org.udsm.udsm_hackathon2026.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DayPrefixIndexTest {
+
+    private static final int COUNTRIES = 3;
+    private static final int TYPE = 0;
+
+    @Test
+    void sumsRangesBeforeBetweenAndAfterStoredDays() {
+        DayPrefixIndex index = new DayPrefixIndex();
+        index.add(1, 0, 100, TYPE, 5);
+        index.add(1, 0, 110, TYPE, 7);
+        index.add(1, 0, 120, TYPE, 11);
+
+        assertEquals(0, sum(index, 1, 0, 99));
+        assertEquals(0, sum(index, 1, 50, 60));
+        assertEquals(5, sum(index, 1, 0, 100));
+        assertEquals(5, sum(index, 1, 0, 105));
+        assertEquals(0, sum(index, 1, 101, 109));
+        assertEquals(7, sum(index, 1, 101, 115));
+        assertEquals(18, sum(index, 1, 110, 200));
+        assertEquals(0, sum(index, 1, 121, 200));
+        assertEquals(23, sum(index, 1, 0, 1000));
+        assertEquals(23, sum(index, DayPrefixIndex.GLOBAL, 0, 1000));
+    }
+
+    @Test
+    void keepsTotalsWhenLateDaysOverflowTheBacklog() {
+        DayPrefixIndex index = new DayPrefixIndex();
+        long[] expected = new long[200];
+        for (int day = 100; day < 200; day += 2) {
+            index.add(1, 0, day, TYPE, 1);
+            expected[day] += 1;
+        }
+        // More late days than the backlog holds, out of order, some on stored days
+        for (int i = 0; i < 80; i++) {
+            int day = 199 - (i * 37) % 150;
+            index.add(1, 0, day, TYPE, i + 1);
+            expected[day] += i + 1;
+        }
+
+        for (int from = 0; from < 200; from += 7) {
+            for (int to = from; to < 200; to += 11) {
+                assertEquals(reference(expected, from, to), sum(index, 1, from, to), from + ".." + to);
+            }
+        }
+    }
+
+    @Test
+    void matchesReferenceForRandomArticlesCountriesAndDays() {
+        Random random = new Random(42);
+        DayPrefixIndex index = new DayPrefixIndex();
+        int articles = 5;
+        int days = 400;
+        long[][][] expected = new long[articles][COUNTRIES][days];
+        for (int i = 0; i < 5_000; i++) {
+            int article = random.nextInt(articles);
+            int country = random.nextInt(COUNTRIES);
+            // Mostly increasing days with frequent late ones, as ingestion and backfills produce
+            int day = random.nextInt(4) == 0 ? random.nextInt(days) : Math.min(days - 1, i * days / 5_000);
+            long delta = 1 + random.nextInt(5);
+            index.add(article, country, day, TYPE, delta);
+            expected[article][country][day] += delta;
+        }
+
+        for (int q = 0; q < 500; q++) {
+            int from = random.nextInt(days + 20) - 10;
+            int to = from + random.nextInt(days);
+            int article = random.nextInt(articles + 1) - 1;
+            long[] wanted = new long[COUNTRIES];
+            for (int a = 0; a < articles; a++) {
+                if (article == DayPrefixIndex.GLOBAL || article == a) {
+                    for (int c = 0; c < COUNTRIES; c++) {
+                        wanted[c] += reference(expected[a][c], from, to);
+                    }
+                }
+            }
+            long[] actual = new long[COUNTRIES];
+            index.sumByCountry(article, TYPE, from, to, actual);
+            assertArrayEquals(wanted, actual, "article " + article + " " + from + ".." + to);
+        }
+    }
+
+    @Test
+    void ignoresOtherTypesAndUnknownArticles() {
+        DayPrefixIndex index = new DayPrefixIndex();
+        index.add(1, 0, 10, 1, 3);
+        assertEquals(0, sum(index, 1, 0, 20));
+        assertEquals(0, sum(index, 2, 0, 20));
+        assertEquals(0, sum(index, 5_000, 0, 20));
+    }
+
+    private static long sum(DayPrefixIndex index, int article, int from, int to) {
+        long[] totals = new long[COUNTRIES];
+        index.sumByCountry(article, TYPE, from, to, totals);
+        return totals[0] + totals[1] + totals[2];
+    }
+
+    private static long reference(long[] byDay, int from, int to) {
+        long total = 0;
+        for (int day = Math.max(from, 0); day <= Math.min(to, byDay.length - 1); day++) {
+            total += byDay[day];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,55 @@
+package org.udsm.udsm_hackathon2026.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTest {
+
+    @Test
+    void growsOnceMoreThanHalfFull() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        for (int i = 0; i < 8; i++) {
+            map.put(i, i);
+        }
+        assertEquals(16 * 12L, map.memoryBytes());
+
+        map.put(8, 8);
+        assertEquals(32 * 12L, map.memoryBytes());
+        for (int i = 0; i <= 8; i++) {
+            assertEquals(i, map.get(i));
+        }
+    }
+
+    @Test
+    void keepsEveryEntryAcrossRepeatedGrowth() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            map.put(key(i), i);
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, map.get(key(i)));
+        }
+        assertEquals(-1, map.get(key(count)));
+        assertEquals(-1, map.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    void storesZeroNegativeAndExtremeKeys() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        long[] keys = { 0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, (1L << 32) | 1 };
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, map.get(keys[i]));
+        }
+        assertEquals(-1, map.get(1L));
+    }
+
+    /** Keys shaped like MetricsCube cell keys, so many share their low bits */
+    private static long key(int i) {
+        return MetricsCube.cellKey(i % 97, i % 7, i / 7, i % 3);
+    }
+}
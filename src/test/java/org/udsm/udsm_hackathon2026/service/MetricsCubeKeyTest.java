@@ -0,0 +1,46 @@
+package org.udsm.udsm_hackathon2026.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsCubeKeyTest {
+
+    @Test
+    void cellKeysDoNotCollideAtFieldLimits() {
+        int lastDay = MetricsCube.dayOffset("20991231");
+        int[] articles = { 0, 1, 1 << 20, Integer.MAX_VALUE };
+        int[] countries = { 0, 1, 2048, 4095 };
+        int[] days = { 0, 1, 1 << 16, lastDay - 1, lastDay };
+        int[] types = { 0, 1, 2 };
+
+        Set<Long> keys = new HashSet<>();
+        int combinations = 0;
+        for (int article : articles) {
+            for (int country : countries) {
+                for (int day : days) {
+                    for (int type : types) {
+                        keys.add(MetricsCube.cellKey(article, country, day, type));
+                        combinations++;
+                    }
+                }
+            }
+        }
+        assertEquals(combinations, keys.size());
+    }
+
+    @Test
+    void dayOffsetsCoverTheSupportedRangeOnly() {
+        assertEquals(0, MetricsCube.dayOffset("19900101"));
+        assertEquals(-1, MetricsCube.dayOffset("19891231"));
+        assertEquals(-1, MetricsCube.dayOffset("21000101"));
+        assertEquals(-1, MetricsCube.dayOffset("20260230"));
+        assertEquals(-1, MetricsCube.dayOffset("2026"));
+        assertEquals(-1, MetricsCube.dayOffset(null));
+        // Must fit the 18 bits cellKey gives the day
+        assertEquals(0, MetricsCube.dayOffset("20991231") >>> 18);
+    }
+}